@@ -1,11 +1,21 @@
 package ru.liga.rateforecaster;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
+import ru.liga.rateforecaster.data.repository.CurrencyDataPreloader;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
+import ru.liga.rateforecaster.data.watcher.CurrencyFileWatcher;
+import ru.liga.rateforecaster.enums.StartupMode;
+import ru.liga.rateforecaster.forecast.ForecastPrecomputer;
+import ru.liga.rateforecaster.forecast.ForecastWarmUp;
 import ru.liga.rateforecaster.forecast.UserRequestForecastGenerator;
 import ru.liga.rateforecaster.forecast.algorithm.factory.GenericPredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.cache.ForecastCache;
 import ru.liga.rateforecaster.telegrambot.Bot;
 import ru.liga.rateforecaster.telegrambot.dialoghandler.TelegramBotDialogHandler;
 import ru.liga.rateforecaster.telegrambot.dialoghandler.TelegramBotDialogHandlerImpl;
@@ -15,11 +25,17 @@ import ru.liga.rateforecaster.telegrambot.sender.TelegramMessageSender;
 import ru.liga.rateforecaster.telegrambot.sender.TelegramMessageSenderImpl;
 import ru.liga.rateforecaster.utils.AppConfig;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
 import java.util.ResourceBundle;
 
 
 public class Application {
 
+    private static final Logger logger = LoggerFactory.getLogger(Application.class);
+
     public static void main(String[] args) throws TelegramApiException {
         runTelegramBot();
     }
@@ -27,9 +43,29 @@ public class Application {
     public static TelegramBotsApi runTelegramBot() throws TelegramApiException {
         TelegramBotsApi botsApi = new TelegramBotsApi(DefaultBotSession.class);
         Bot bot = new Bot();
-        TelegramBotDialogHandler telegramBotDialogHandler = initializeBotDialogHandler(bot);
+        CurrencyRegistry currencyRegistry = initializeCurrencyRegistry();
+        CurrencyPathResolver currencyPathResolver = new CurrencyPathResolver(AppConfig.getInstance(), currencyRegistry);
+        CurrencyDataRepository currencyDataRepository = createCurrencyDataRepository(currencyPathResolver);
+        ForecastCache forecastCache = initializeForecastCache(currencyDataRepository);
+        TelegramBotDialogHandler telegramBotDialogHandler = initializeBotDialogHandler(bot, currencyDataRepository,
+                currencyRegistry, forecastCache);
         bot.setDialogHandler(telegramBotDialogHandler);
-        botsApi.registerBot(bot);
+        if (AppConfig.getInstance().getStartupMode() == StartupMode.LAZY) {
+            botsApi.registerBot(bot);
+            logger.info("Bot registered {} ms after JVM start, warming up in the background",
+                    ManagementFactory.getRuntimeMXBean().getUptime());
+            initializeForecastWarmUp(currencyDataRepository, currencyRegistry, forecastCache).start(() -> {
+                initializeCurrencyFileWatcher(currencyDataRepository, currencyPathResolver);
+                initializeCurrencyDataPreloader(currencyDataRepository, currencyRegistry);
+                initializeForecastPrecomputer(currencyDataRepository, currencyRegistry, forecastCache);
+            });
+        } else {
+            initializeCurrencyFileWatcher(currencyDataRepository, currencyPathResolver);
+            awaitCurrencyData(initializeCurrencyDataPreloader(currencyDataRepository, currencyRegistry));
+            initializeForecastPrecomputer(currencyDataRepository, currencyRegistry, forecastCache);
+            botsApi.registerBot(bot);
+            logger.info("Bot registered {} ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+        }
         return botsApi;
     }
 
@@ -41,30 +77,158 @@ public class Application {
         return ResourceBundle.getBundle("messages/errors");
     }
 
-    public static TelegramBotDialogHandler initializeBotDialogHandler(Bot bot) {
+    public static TelegramBotDialogHandler initializeBotDialogHandler(Bot bot,
+                                                                      CurrencyDataRepository currencyDataRepository,
+                                                                      CurrencyRegistry currencyRegistry,
+                                                                      ForecastCache forecastCache) {
         ResourceBundle bundleWithMessages = initializeBundleWithMessages();
         ResourceBundle bundleWithErrorMessages = initializeBundleWithErrorMessages();
         return new TelegramBotDialogHandlerImpl(
-                initializeTelegramBotRequestHandler(bot, bundleWithMessages),
-                initializeTelegramMessageSender(bot, bundleWithErrorMessages),
+                initializeTelegramBotRequestHandler(bot, bundleWithMessages, currencyRegistry),
+                initializeTelegramMessageSender(bot, bundleWithErrorMessages, currencyDataRepository, forecastCache),
                 initializeBundleWithMessages(),
-                initializeBundleWithErrorMessages());
+                initializeBundleWithErrorMessages(),
+                currencyRegistry);
     }
 
-    public static TelegramBotRequestHandler initializeTelegramBotRequestHandler(Bot bot, ResourceBundle bundleWithMessages) {
+    public static TelegramBotRequestHandler initializeTelegramBotRequestHandler(Bot bot, ResourceBundle bundleWithMessages,
+                                                                                CurrencyRegistry currencyRegistry) {
         return new TelegramBotRequestHandler(
                 bot,
-                new TelegramBotKeyboardFactory(bundleWithMessages),
+                new TelegramBotKeyboardFactory(bundleWithMessages, currencyRegistry),
                 bundleWithMessages
         );
     }
 
-    public static TelegramMessageSender initializeTelegramMessageSender(Bot bot, ResourceBundle bundleWithErrorMessages) {
+    public static CurrencyRegistry initializeCurrencyRegistry() {
+        return new CurrencyRegistry(AppConfig.getInstance().getDataDirectory());
+    }
+
+    public static CurrencyDataRepository initializeCurrencyDataRepository() {
+        return initializeCurrencyDataRepository(initializeCurrencyRegistry());
+    }
+
+    /**
+     * Creates a repository of the currencies known to the registry. Nothing is started: the file watcher,
+     * the preloader and the precomputer are started by {@link #runTelegramBot()} for the repository it uses.
+     */
+    public static CurrencyDataRepository initializeCurrencyDataRepository(CurrencyRegistry currencyRegistry) {
+        return createCurrencyDataRepository(new CurrencyPathResolver(AppConfig.getInstance(), currencyRegistry));
+    }
+
+    private static CurrencyDataRepository createCurrencyDataRepository(CurrencyPathResolver currencyPathResolver) {
+        AppConfig appConfig = AppConfig.getInstance();
+        return new CurrencyDataRepository(currencyPathResolver, appConfig.getDailyFillPolicy(),
+                appConfig::getStorageMode, appConfig.getSeriesHeapBudgetBytes(), appConfig.getSeriesEvictionPolicy());
+    }
+
+    public static GenericPredictionAlgorithm createPredictionAlgorithmFactory() {
+        AppConfig appConfig = AppConfig.getInstance();
+        return new GenericPredictionAlgorithm(appConfig.getDailyFillPolicy(), appConfig.getAverageWindowDays(),
+                appConfig.getNumericMode());
+    }
+
+    /**
+     * Creates the cache of formatted forecasts shared by the bot and the warm-up, and subscribes it to the updates
+     * of the repository so that forecasts depending on changed data are dropped.
+     *
+     * @return The forecast cache, or null if it is disabled.
+     */
+    public static ForecastCache initializeForecastCache(CurrencyDataRepository currencyDataRepository) {
+        AppConfig appConfig = AppConfig.getInstance();
+        int capacity = appConfig.getForecastCacheCapacity();
+        if (capacity <= 0) {
+            return null;
+        }
+        ForecastCache forecastCache = new ForecastCache(capacity,
+                Duration.ofSeconds(appConfig.getForecastCacheTtlSeconds()));
+        currencyDataRepository.addUpdateListener(forecastCache::invalidate);
+        return forecastCache;
+    }
+
+    public static ForecastWarmUp initializeForecastWarmUp(CurrencyDataRepository currencyDataRepository,
+                                                          CurrencyRegistry currencyRegistry) {
+        return initializeForecastWarmUp(currencyDataRepository, currencyRegistry, null);
+    }
+
+    public static ForecastWarmUp initializeForecastWarmUp(CurrencyDataRepository currencyDataRepository,
+                                                          CurrencyRegistry currencyRegistry,
+                                                          ForecastCache forecastCache) {
+        return new ForecastWarmUp(new UserRequestForecastGenerator(initializeBundleWithErrorMessages(),
+                createPredictionAlgorithmFactory(), currencyDataRepository, forecastCache),
+                currencyRegistry);
+    }
+
+    /**
+     * Starts precomputing the standard forecasts into the cache on start, after every midnight and after every
+     * data update, on a share of the processors set by the configuration.
+     *
+     * @return The started precomputer, or null if the cache or the precomputation is disabled.
+     */
+    public static ForecastPrecomputer initializeForecastPrecomputer(CurrencyDataRepository currencyDataRepository,
+                                                                    CurrencyRegistry currencyRegistry,
+                                                                    ForecastCache forecastCache) {
+        double cpuShare = AppConfig.getInstance().getPrecomputeCpuShare();
+        if (forecastCache == null || cpuShare <= 0) {
+            logger.info("Forecast precomputation is disabled");
+            return null;
+        }
+        int parallelism = Math.max(1, (int) (Runtime.getRuntime().availableProcessors() * Math.min(cpuShare, 1)));
+        ForecastPrecomputer forecastPrecomputer = new ForecastPrecomputer(new UserRequestForecastGenerator(
+                initializeBundleWithErrorMessages(), createPredictionAlgorithmFactory(), currencyDataRepository,
+                forecastCache), currencyRegistry, parallelism);
+        currencyDataRepository.addUpdateListener((currency, changed) -> forecastPrecomputer.onDataUpdate(currency));
+        forecastPrecomputer.start();
+        return forecastPrecomputer;
+    }
+
+    public static CurrencyFileWatcher initializeCurrencyFileWatcher(CurrencyDataRepository currencyDataRepository,
+                                                                    CurrencyPathResolver currencyPathResolver) {
+        CurrencyFileWatcher currencyFileWatcher = new CurrencyFileWatcher(currencyDataRepository, currencyPathResolver);
+        try {
+            currencyFileWatcher.start();
+        } catch (IOException e) {
+            logger.error("Failed to start currency file watcher, hot reload is disabled: " + e.getMessage(), e);
+        }
+        return currencyFileWatcher;
+    }
+
+    /**
+     * Starts loading every known currency in the background. When a heap budget is configured the histories
+     * may not fit together, so nothing is preloaded and each currency is loaded on its first request.
+     */
+    public static CurrencyDataPreloader initializeCurrencyDataPreloader(CurrencyDataRepository currencyDataRepository,
+                                                                        CurrencyRegistry currencyRegistry) {
+        CurrencyDataPreloader currencyDataPreloader = new CurrencyDataPreloader(currencyDataRepository,
+                AppConfig.getInstance().getStartupLoadThreads());
+        boolean unlimited = AppConfig.getInstance().getSeriesHeapBudgetBytes() == Long.MAX_VALUE;
+        currencyDataPreloader.start(unlimited ? currencyRegistry.getCurrencies() : List.of());
+        return currencyDataPreloader;
+    }
+
+    private static void awaitCurrencyData(CurrencyDataPreloader currencyDataPreloader) {
+        Duration timeout = Duration.ofSeconds(AppConfig.getInstance().getStartupLoadTimeoutSeconds());
+        try {
+            if (!currencyDataPreloader.awaitReady(timeout)) {
+                logger.warn("Currency data is not loaded after {} s, remaining currencies will load on first request",
+                        timeout.toSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for currency data: " + e.getMessage(), e);
+        }
+    }
+
+    public static TelegramMessageSender initializeTelegramMessageSender(Bot bot, ResourceBundle bundleWithErrorMessages,
+                                                                        CurrencyDataRepository currencyDataRepository,
+                                                                        ForecastCache forecastCache) {
         return new TelegramMessageSenderImpl(
                 bot,
                 bundleWithErrorMessages,
-                new UserRequestForecastGenerator(bundleWithErrorMessages, new GenericPredictionAlgorithm(),
-                        new CurrencyPathResolver(AppConfig.getInstance()))
+                new UserRequestForecastGenerator(bundleWithErrorMessages,
+                        createPredictionAlgorithmFactory(),
+                        currencyDataRepository,
+                        forecastCache)
         );
     }
 
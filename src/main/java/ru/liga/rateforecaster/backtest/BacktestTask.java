@@ -0,0 +1,116 @@
+package ru.liga.rateforecaster.backtest;
+
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.factory.GenericPredictionAlgorithm;
+import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.ParsedRequest;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Replays an algorithm over a range of past days of a series, splitting the range in halves until it is small
+ * enough to replay on one thread.
+ * <p>
+ * From each past day the algorithm forecasts the longest horizon once, from a view of the series ending on that
+ * day, and every horizon scores the part of this forecast it covers. Each day gets its own algorithm, seeded from
+ * the position of the day, so that the results do not depend on how the range is split.
+ */
+@SuppressWarnings("serial")
+final class BacktestTask extends RecursiveTask<ForecastErrors[]> {
+
+    private static final int DAYS_PER_TASK = 64;
+
+    private final RateSeries series;
+    private final ForecastingAlgorithm algorithm;
+    private final GenericPredictionAlgorithm algorithmFactory;
+    private final long seed;
+    private final int[] horizonDays;
+    private final int fromIndex;
+    private final int toIndex;
+
+    /**
+     * @param series           The whole history of the currency.
+     * @param algorithm        The algorithm to replay.
+     * @param algorithmFactory The factory creating the algorithm.
+     * @param seed             The seed of the randomized algorithms.
+     * @param horizonDays      The length in days of each horizon scored.
+     * @param fromIndex        The index of the first past day to forecast from, inclusive.
+     * @param toIndex          The index of the last past day to forecast from, exclusive.
+     */
+    BacktestTask(RateSeries series, ForecastingAlgorithm algorithm, GenericPredictionAlgorithm algorithmFactory,
+                 long seed, int[] horizonDays, int fromIndex, int toIndex) {
+        this.series = series;
+        this.algorithm = algorithm;
+        this.algorithmFactory = algorithmFactory;
+        this.seed = seed;
+        this.horizonDays = horizonDays;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
+    }
+
+    @Override
+    protected ForecastErrors[] compute() {
+        if (toIndex - fromIndex <= DAYS_PER_TASK) {
+            return replay();
+        }
+        final int middle = (fromIndex + toIndex) >>> 1;
+        final BacktestTask left = new BacktestTask(series, algorithm, algorithmFactory, seed, horizonDays,
+                fromIndex, middle);
+        left.fork();
+        final ForecastErrors[] errors = new BacktestTask(series, algorithm, algorithmFactory, seed, horizonDays,
+                middle, toIndex).compute();
+        final ForecastErrors[] leftErrors = left.join();
+        for (int i = 0; i < errors.length; i++) {
+            errors[i].merge(leftErrors[i]);
+        }
+        return errors;
+    }
+
+    private ForecastErrors[] replay() {
+        final ForecastErrors[] errors = new ForecastErrors[horizonDays.length];
+        int longestHorizon = 0;
+        for (int i = 0; i < errors.length; i++) {
+            errors[i] = new ForecastErrors();
+            longestHorizon = Math.max(longestHorizon, horizonDays[i]);
+        }
+        for (int index = fromIndex; index < toIndex; index++) {
+            final LocalDate lastKnownDate = series.date(index);
+            final List<CurrencyData> forecast;
+            try {
+                forecast = createAlgorithm(index).forecastRange(series.slice(0, index + 1),
+                        lastKnownDate.plusDays(1), lastKnownDate.plusDays(longestHorizon));
+            } catch (RuntimeException e) {
+                for (ForecastErrors horizonErrors : errors) {
+                    horizonErrors.addFailure();
+                }
+                continue;
+            }
+            for (int day = 0; day < forecast.size(); day++) {
+                final int publishedIndex = series.indexOf(lastKnownDate.plusDays(day + 1));
+                if (publishedIndex < 0 || series.fixedPointRate(publishedIndex) <= 0) {
+                    continue;
+                }
+                final double forecastRate = forecast.get(day).rate().doubleValue();
+                final double publishedRate = series.doubleRate(publishedIndex);
+                for (int i = 0; i < errors.length; i++) {
+                    if (day < horizonDays[i]) {
+                        errors[i].add(forecastRate, publishedRate);
+                    }
+                }
+            }
+        }
+        return errors;
+    }
+
+    private RatePredictionAlgorithm createAlgorithm(int index) {
+        return algorithmFactory.createAlgorithm(ParsedRequest.builder()
+                .algorithm(algorithm)
+                .seed(OptionalLong.of(seed + index))
+                .build());
+    }
+}
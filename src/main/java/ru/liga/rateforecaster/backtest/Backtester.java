@@ -0,0 +1,167 @@
+package ru.liga.rateforecaster.backtest;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.Application;
+import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.forecast.algorithm.factory.GenericPredictionAlgorithm;
+import ru.liga.rateforecaster.model.BacktestResult;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.RateSeries;
+import ru.liga.rateforecaster.utils.AppConfig;
+
+import java.io.IOException;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The Backtester class measures how accurately each algorithm would have forecast the rates of a currency.
+ * <p>
+ * Every past day of the history is taken in turn as the latest known one: the algorithm forecasts the next day,
+ * week and month from the history up to it, and the forecast rates are compared with the rates published later.
+ * The first year of the history is only used as data, since the YEAR algorithm cannot forecast without it and all
+ * algorithms are scored on the same days. The past days of every currency and algorithm are replayed in parallel
+ * on a fork-join pool, reading the history through views of the indexed series instead of copies.
+ * <p>
+ * It can be used as a library or run from the command line, which prints the results for the currencies of the
+ * configured data directory.
+ */
+public class Backtester {
+
+    private static final Logger logger = LoggerFactory.getLogger(Backtester.class);
+    private static final Period WARM_UP = Period.ofYears(1);
+    private static final long DEFAULT_SEED = 0;
+    private static final List<RateType> HORIZONS = List.of(RateType.DAY, RateType.WEEK, RateType.MONTH);
+
+    private final GenericPredictionAlgorithm algorithmFactory;
+    private final ForkJoinPool pool;
+    private final long seed;
+
+    /**
+     * Creates a Backtester running on the common fork-join pool.
+     *
+     * @param algorithmFactory The factory creating the algorithms to replay.
+     */
+    public Backtester(GenericPredictionAlgorithm algorithmFactory) {
+        this(algorithmFactory, ForkJoinPool.commonPool(), DEFAULT_SEED);
+    }
+
+    /**
+     * @param algorithmFactory The factory creating the algorithms to replay.
+     * @param pool             The pool the replays run on.
+     * @param seed             The seed of the randomized algorithms, making the results reproducible.
+     */
+    public Backtester(GenericPredictionAlgorithm algorithmFactory, ForkJoinPool pool, long seed) {
+        this.algorithmFactory = algorithmFactory;
+        this.pool = pool;
+        this.seed = seed;
+    }
+
+    /**
+     * Prints the accuracy of every algorithm for the currencies given as arguments, or for every currency
+     * of the configured data directory if there are none.
+     *
+     * @param args The codes of the currencies to replay.
+     * @throws CsvValidationException If a CSV validation error occurs.
+     * @throws IOException            If an IO error occurs.
+     */
+    public static void main(String[] args) throws CsvValidationException, IOException {
+        final CurrencyRegistry currencyRegistry = Application.initializeCurrencyRegistry();
+        final List<Currency> currencies = new ArrayList<>();
+        for (String code : args) {
+            currencies.add(currencyRegistry.find(code));
+        }
+        if (currencies.isEmpty()) {
+            currencies.addAll(currencyRegistry.getCurrencies());
+        }
+        final CurrencyDataRepository currencyDataRepository = new CurrencyDataRepository(
+                new CurrencyPathResolver(AppConfig.getInstance(), currencyRegistry));
+        final Map<Currency, RateSeries> histories = new LinkedHashMap<>();
+        for (Currency currency : currencies) {
+            histories.put(currency, currencyDataRepository.getSeries(currency));
+        }
+
+        final List<BacktestResult> results = new Backtester(Application.createPredictionAlgorithmFactory())
+                .run(histories, List.of(ForecastingAlgorithm.values()));
+
+        System.out.printf("%-8s %-9s %-6s %9s %9s %12s %9s %12s%n",
+                "currency", "algorithm", "period", "forecasts", "failures", "MAE", "MAPE, %", "bias");
+        for (BacktestResult result : results) {
+            if (result.forecasts() == 0) {
+                System.out.printf("%-8s %-9s %-6s %9d %9d %s%n", result.currency(), result.algorithm(),
+                        result.horizon(), result.forecasts(), result.failures(), "no forecasts to compare");
+                continue;
+            }
+            System.out.printf("%-8s %-9s %-6s %9d %9d %12.4f %9.3f %12.4f%n", result.currency(), result.algorithm(),
+                    result.horizon(), result.forecasts(), result.failures(), result.meanAbsoluteError(),
+                    result.meanAbsolutePercentageError(), result.bias());
+        }
+    }
+
+    /**
+     * Replays the specified algorithms over the history of a currency.
+     *
+     * @param currency   The currency of the history.
+     * @param series     The whole history of the currency.
+     * @param algorithms The algorithms to replay.
+     * @return The accuracy of each algorithm for each horizon, in the order of the algorithms.
+     */
+    public List<BacktestResult> run(Currency currency, RateSeries series, List<ForecastingAlgorithm> algorithms) {
+        return run(Map.of(currency, series), algorithms);
+    }
+
+    /**
+     * Replays the specified algorithms over the histories of several currencies.
+     *
+     * @param histories  The whole history of each currency.
+     * @param algorithms The algorithms to replay.
+     * @return The accuracy of each algorithm for each horizon, grouped by currency and then by algorithm.
+     */
+    public List<BacktestResult> run(Map<Currency, RateSeries> histories, List<ForecastingAlgorithm> algorithms) {
+        final long startTime = System.nanoTime();
+        final int[] horizonDays = HORIZONS.stream().mapToInt(Backtester::getHorizonDays).toArray();
+        final List<BacktestTask> tasks = new ArrayList<>();
+        for (RateSeries series : histories.values()) {
+            final int fromIndex = series.isEmpty() ? 0
+                    : series.floorIndex(series.firstDate().plus(WARM_UP).minusDays(1)) + 1;
+            final int toIndex = Math.max(fromIndex, series.size() - 1);
+            for (ForecastingAlgorithm algorithm : algorithms) {
+                final BacktestTask task = new BacktestTask(series, algorithm, algorithmFactory, seed, horizonDays,
+                        fromIndex, toIndex);
+                pool.execute(task);
+                tasks.add(task);
+            }
+        }
+
+        final List<BacktestResult> results = new ArrayList<>(tasks.size() * HORIZONS.size());
+        int taskIndex = 0;
+        for (Currency currency : histories.keySet()) {
+            for (ForecastingAlgorithm algorithm : algorithms) {
+                final ForecastErrors[] errors = tasks.get(taskIndex++).join();
+                for (int i = 0; i < HORIZONS.size(); i++) {
+                    results.add(errors[i].toResult(currency, algorithm, HORIZONS.get(i)));
+                }
+            }
+        }
+        logger.info("Backtested {} algorithms on {} currencies in {} ms", algorithms.size(), histories.size(),
+                (System.nanoTime() - startTime) / 1_000_000);
+        return results;
+    }
+
+    private static int getHorizonDays(RateType horizon) {
+        return switch (horizon) {
+            case DAY -> 1;
+            case WEEK -> 7;
+            case MONTH -> 30;
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package ru.liga.rateforecaster.backtest;
+
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.model.BacktestResult;
+import ru.liga.rateforecaster.model.Currency;
+
+/**
+ * Running sums of the errors of the forecasts made for one horizon, which can be merged across the parts
+ * of a backtest computed separately.
+ */
+final class ForecastErrors {
+
+    private int forecasts;
+    private int failures;
+    private double absoluteErrorSum;
+    private double absolutePercentageErrorSum;
+    private double errorSum;
+
+    /**
+     * Records a forecast rate compared with the rate published for its date.
+     *
+     * @param forecast  The forecast rate.
+     * @param published The published rate, positive.
+     */
+    void add(double forecast, double published) {
+        final double error = forecast - published;
+        forecasts++;
+        errorSum += error;
+        absoluteErrorSum += Math.abs(error);
+        absolutePercentageErrorSum += Math.abs(error) / published;
+    }
+
+    /**
+     * Records a past day the algorithm failed to forecast from.
+     */
+    void addFailure() {
+        failures++;
+    }
+
+    /**
+     * Adds the errors recorded by another part of the backtest.
+     *
+     * @param other The errors to add.
+     */
+    void merge(ForecastErrors other) {
+        forecasts += other.forecasts;
+        failures += other.failures;
+        absoluteErrorSum += other.absoluteErrorSum;
+        absolutePercentageErrorSum += other.absolutePercentageErrorSum;
+        errorSum += other.errorSum;
+    }
+
+    /**
+     * @return The result of the recorded forecasts; the errors are zero if no forecast was recorded.
+     */
+    BacktestResult toResult(Currency currency, ForecastingAlgorithm algorithm, RateType horizon) {
+        if (forecasts == 0) {
+            return new BacktestResult(currency, algorithm, horizon, 0, failures, 0, 0, 0);
+        }
+        return new BacktestResult(currency, algorithm, horizon, forecasts, failures,
+                absoluteErrorSum / forecasts, 100 * absolutePercentageErrorSum / forecasts, errorSum / forecasts);
+    }
+}
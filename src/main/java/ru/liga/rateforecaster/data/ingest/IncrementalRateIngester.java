@@ -0,0 +1,186 @@
+package ru.liga.rateforecaster.data.ingest;
+
+import com.opencsv.exceptions.CsvValidationException;
+import ru.liga.rateforecaster.data.reader.CbrCsvRateReader;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.OptionalInt;
+
+/**
+ * The IncrementalRateIngester class merges the records added to a rate file since its last checkpoint
+ * into an existing series, without re-reading the records it already holds.
+ * <p>
+ * The CBR exports are newest-first, so a new day is a line inserted right after the header; records can
+ * also be appended at the end of the file. The head of the file is read only until the first record that
+ * is not newer than the series, and the tail is read from the old end of the file, shifted by the size of
+ * the prepended records. The old content is assumed unchanged if the bytes at its shifted end still match
+ * the checkpoint; otherwise, or if the file shrank, the whole file is read again.
+ */
+public class IncrementalRateIngester {
+
+    private static final int FINGERPRINT_LENGTH = 64;
+    private static final int LAST_RECORD_MAX_LENGTH = 16 * 1024;
+
+    /**
+     * Reads the whole file.
+     *
+     * @param file The rate file to read.
+     * @return The series read from the file and its checkpoint.
+     * @throws IOException            If an I/O error occurs while reading the file.
+     * @throws CsvValidationException If the file contains an invalid record.
+     */
+    public IngestionResult readFully(Path file) throws IOException, CsvValidationException {
+        final IngestionCheckpoint checkpoint = checkpoint(file);
+        final RateSeries.Builder builder = RateSeries.builder();
+        try (CbrCsvRateReader reader = new CbrCsvRateReader(Files.newInputStream(file))) {
+            while (reader.readNext()) {
+                builder.add(reader.epochDay(), reader.rate());
+            }
+        }
+        final RateSeries series = builder.build();
+        return new IngestionResult(series, checkpoint, series.size(), true);
+    }
+
+    /**
+     * Merges the records added to the file since the checkpoint into the current series.
+     *
+     * @param file       The rate file to read.
+     * @param current    The series read from the file at the checkpoint.
+     * @param checkpoint The checkpoint of the previous ingestion, or null if there is none.
+     * @return The merged series and the new checkpoint.
+     * @throws IOException            If an I/O error occurs while reading the file.
+     * @throws CsvValidationException If a new record is invalid.
+     */
+    public IngestionResult ingest(Path file, RateSeries current, IngestionCheckpoint checkpoint)
+            throws IOException, CsvValidationException {
+        if (checkpoint == null || current.isEmpty()) {
+            return readFully(file);
+        }
+        final IngestionCheckpoint nextCheckpoint = checkpoint(file);
+        if (nextCheckpoint.fileSize() < checkpoint.fileSize()) {
+            return readFully(file);
+        }
+        final RateSeries.Builder added = RateSeries.builder();
+        final long prependedBytes = readPrepended(file, current.epochDay(current.size() - 1), added);
+        final long oldEnd = checkpoint.fileSize() + prependedBytes;
+        if (prependedBytes < 0 || oldEnd > nextCheckpoint.fileSize()
+                || !Arrays.equals(checkpoint.tailFingerprint(), readBytes(file, oldEnd, checkpoint.tailFingerprint().length))) {
+            return readFully(file);
+        }
+        if (oldEnd < nextCheckpoint.fileSize()) {
+            readAppended(file, oldEnd, added);
+        }
+        if (added.size() == 0) {
+            return new IngestionResult(current, nextCheckpoint, 0, false);
+        }
+        final RateSeries.Builder merged = RateSeries.builder(current.size() + added.size());
+        for (int i = 0; i < current.size(); i++) {
+            merged.add(current.epochDay(i), current.fixedPointRate(i));
+        }
+        final RateSeries newPoints = added.build();
+        for (int i = 0; i < newPoints.size(); i++) {
+            merged.add(newPoints.epochDay(i), newPoints.fixedPointRate(i));
+        }
+        final RateSeries series = merged.build();
+        return new IngestionResult(series, nextCheckpoint, series.size() - current.size(), false);
+    }
+
+    /**
+     * Records the current state of the file.
+     *
+     * @param file The rate file.
+     * @return The checkpoint of the file.
+     * @throws IOException If an I/O error occurs while reading the file.
+     */
+    public IngestionCheckpoint checkpoint(Path file) throws IOException {
+        final long size = Files.size(file);
+        final int length = (int) Math.min(FINGERPRINT_LENGTH, size);
+        return new IngestionCheckpoint(size, readBytes(file, size, length));
+    }
+
+    /**
+     * Reads the date of the last record of the file from its tail, without reading the rest of the file.
+     *
+     * @param file The rate file to read.
+     * @return The date of the last record as a count of days since the epoch, or empty if the file
+     * has no record or its last line is too long to be a record.
+     * @throws IOException            If an I/O error occurs while reading the file.
+     * @throws CsvValidationException If the last record is invalid.
+     */
+    public OptionalInt readLastEpochDay(Path file) throws IOException, CsvValidationException {
+        final long size = Files.size(file);
+        final byte[] tail = readBytes(file, size, (int) Math.min(LAST_RECORD_MAX_LENGTH, size));
+        int end = tail.length;
+        while (end > 0 && (tail[end - 1] == '\n' || tail[end - 1] == '\r')) {
+            end--;
+        }
+        int start = end;
+        while (start > 0 && tail[start - 1] != '\n') {
+            start--;
+        }
+        if (start == 0 || start == end) {
+            return OptionalInt.empty();
+        }
+        try (CbrCsvRateReader reader = new CbrCsvRateReader(new ByteArrayInputStream(tail, start, end - start), false)) {
+            return reader.readNext() ? OptionalInt.of(reader.epochDay()) : OptionalInt.empty();
+        }
+    }
+
+    /**
+     * Reads the records newer than the specified date from the head of the file.
+     *
+     * @return The number of bytes taken by these records, or -1 if no known record was found.
+     */
+    private long readPrepended(Path file, int newestEpochDay, RateSeries.Builder added)
+            throws IOException, CsvValidationException {
+        try (CbrCsvRateReader reader = new CbrCsvRateReader(Files.newInputStream(file))) {
+            long firstRecordOffset = -1;
+            while (reader.readNext()) {
+                if (firstRecordOffset < 0) {
+                    firstRecordOffset = reader.recordOffset();
+                }
+                if (reader.epochDay() <= newestEpochDay) {
+                    return reader.recordOffset() - firstRecordOffset;
+                }
+                added.add(reader.epochDay(), reader.rate());
+            }
+        }
+        return -1;
+    }
+
+    private void readAppended(Path file, long offset, RateSeries.Builder added)
+            throws IOException, CsvValidationException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream tail = Channels.newInputStream(channel.position(offset));
+             CbrCsvRateReader reader = new CbrCsvRateReader(tail, false)) {
+            while (reader.readNext()) {
+                added.add(reader.epochDay(), reader.rate());
+            }
+        }
+    }
+
+    private byte[] readBytes(Path file, long end, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = end - length;
+            while (buffer.hasRemaining()) {
+                final int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.liga.rateforecaster.data.ingest;
+
+/**
+ * The state of a rate file at the time it was last ingested.
+ *
+ * @param fileSize        The size of the file in bytes.
+ * @param tailFingerprint The last bytes of the file, used to check that the old content was not rewritten.
+ */
+public record IngestionCheckpoint(long fileSize, byte[] tailFingerprint) {
+}
@@ -0,0 +1,14 @@
+package ru.liga.rateforecaster.data.ingest;
+
+import ru.liga.rateforecaster.model.RateSeries;
+
+/**
+ * The outcome of ingesting a rate file.
+ *
+ * @param series       The series after ingestion.
+ * @param checkpoint   The checkpoint to use for the next ingestion of the file.
+ * @param mergedPoints The number of points added to the previous series.
+ * @param fullRead     Whether the whole file had to be read instead of only its new records.
+ */
+public record IngestionResult(RateSeries series, IngestionCheckpoint checkpoint, int mergedPoints, boolean fullRead) {
+}
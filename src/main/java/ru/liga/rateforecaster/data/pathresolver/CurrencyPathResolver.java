@@ -1,23 +1,76 @@
 package ru.liga.rateforecaster.data.pathresolver;
 
-import ru.liga.rateforecaster.enums.Currency;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
+import ru.liga.rateforecaster.data.snapshot.RateSnapshotFormat;
+import ru.liga.rateforecaster.model.Currency;
 import ru.liga.rateforecaster.utils.AppConfig;
 
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Path;
+
 public class CurrencyPathResolver {
     private final AppConfig appConfig;
+    private final CurrencyRegistry currencyRegistry;
 
     public CurrencyPathResolver(AppConfig appConfig) {
+        this(appConfig, new CurrencyRegistry(appConfig.getDataDirectory()));
+    }
+
+    public CurrencyPathResolver(AppConfig appConfig, CurrencyRegistry currencyRegistry) {
         this.appConfig = appConfig;
+        this.currencyRegistry = currencyRegistry;
     }
 
+    /**
+     * Resolves the path of the CSV file of the specified currency.
+     *
+     * @param currency The currency whose file path is requested.
+     * @return The classpath location of the file found by the registry, or the location the file would have
+     * in the data directory if the registry does not know the currency.
+     */
     public String getPath(Currency currency) {
-        return switch (currency) {
-            case EUR -> appConfig.getEurFilePath();
-            case TRY -> appConfig.getTryFilePath();
-            case USD -> appConfig.getUsdFilePath();
-            case BGN -> appConfig.getBgnFilePath();
-            case AMD -> appConfig.getAmdFilePath();
-            default -> throw new IllegalArgumentException("Unsupported currency: " + currency);
-        };
+        final String path = currencyRegistry.getPath(currency);
+        return path != null ? path : currencyRegistry.getDataDirectory() + "/" + currency.name() + ".csv";
+    }
+
+    public CurrencyRegistry getCurrencyRegistry() {
+        return currencyRegistry;
+    }
+
+    /**
+     * Resolves the path of the binary snapshot compiled from the CSV file of the specified currency.
+     *
+     * @param currency The currency whose snapshot path is requested.
+     * @return The classpath location of the snapshot, or null if no snapshot directory is configured.
+     */
+    public String getSnapshotPath(Currency currency) {
+        final String snapshotDirectory = appConfig.getSnapshotDirectory();
+        final String csvPath = getPath(currency);
+        if (snapshotDirectory == null || csvPath == null) {
+            return null;
+        }
+        final String fileName = csvPath.substring(csvPath.lastIndexOf('/') + 1);
+        final int extension = fileName.lastIndexOf('.');
+        final String baseName = extension < 0 ? fileName : fileName.substring(0, extension);
+        return snapshotDirectory + "/" + baseName + RateSnapshotFormat.FILE_EXTENSION;
+    }
+
+    /**
+     * Locates a classpath resource on the file system.
+     *
+     * @param resourcePath The classpath location of the resource.
+     * @return The absolute path of the resource, or null if it is missing or packed into an archive.
+     */
+    public Path getFile(String resourcePath) {
+        final URL resource = resourcePath == null ? null : getClass().getResource(resourcePath);
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            return Path.of(resource.toURI()).toAbsolutePath();
+        } catch (URISyntaxException e) {
+            return null;
+        }
     }
 }
@@ -1,19 +1,20 @@
 package ru.liga.rateforecaster.data.processor;
 
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
 import com.opencsv.exceptions.CsvValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.liga.rateforecaster.model.CurrencyData;
-import ru.liga.rateforecaster.utils.DateUtils;
+import ru.liga.rateforecaster.data.ingest.IncrementalRateIngester;
+import ru.liga.rateforecaster.data.reader.CbrCsvRateReader;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.util.LinkedList;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalInt;
 
 /**
  * The CurrencyDataProcessor class is responsible for processing currency data from a CSV file
@@ -21,6 +22,8 @@ import java.util.LinkedList;
  */
 public class CurrencyDataProcessor {
 
+    private static final int EXPECTED_HISTORY_SIZE = 4096;
+
     protected final String filePath;
 
     public CurrencyDataProcessor(String filePath) {
@@ -30,34 +33,80 @@ public class CurrencyDataProcessor {
     /**
      * Reads currency data from a CSV file located in the classpath resources.
      *
-     * @return A linked list of CurrencyData objects containing currency exchange rate data.
+     * @return A RateSeries containing currency exchange rate data sorted by ascending date.
      * @throws CsvValidationException if there is an issue with CSV data validation.
      * @throws IOException            if an I/O error occurs while reading the resource.
      */
-    public LinkedList<CurrencyData> readCurrencyDataFromResources() throws CsvValidationException, IOException {
+    public RateSeries readCurrencyDataFromResources() throws CsvValidationException, IOException {
         final Logger logger = LoggerFactory.getLogger(CurrencyDataProcessor.class);
-        final LinkedList<CurrencyData> currencyDataList = new LinkedList<>();
+        final RateSeries.Builder builder = RateSeries.builder(EXPECTED_HISTORY_SIZE);
         try (InputStream resourceStream = getClass().getResourceAsStream(filePath)) {
             if (resourceStream == null) {
                 logger.error("Failed to open resource stream for file: {}", filePath);
                 throw new IOException("Failed to open resource stream for file: " + filePath);
             }
-            final InputStreamReader reader = new InputStreamReader(resourceStream);
-            final CSVReader csvReader = new CSVReaderBuilder(reader).withSkipLines(1).build();
-            String[] nextRecord;
-            while ((nextRecord = csvReader.readNext()) != null) {
-                final String dateStr = nextRecord[1];
-                final BigDecimal curs = new BigDecimal(nextRecord[2]);
-
-                final LocalDate date = DateUtils.formatDate(dateStr);
+            final CbrCsvRateReader reader = new CbrCsvRateReader(resourceStream);
+            while (reader.readNext()) {
+                builder.add(reader.epochDay(), reader.rate());
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read data from resource: " + e.getMessage(), e);
+            throw new IOException("Failed to read data from resource", e);
+        }
+        return builder.build();
+    }
 
-                final CurrencyData currencyData = new CurrencyData(date, curs);
-                currencyDataList.add(currencyData);
+    /**
+     * Reads the most recent part of the currency data needed to satisfy a requirement. The CBR exports are
+     * sorted from the newest date to the oldest, so reading can stop at the first record that is not needed.
+     * The records after that one are never seen, so the stop is only trusted for a file on the file system
+     * whose last record, read from its tail, is not newer than the record the read stopped at; records
+     * appended at the end of the file fail this check.
+     *
+     * @param requirement The part of the history to read.
+     * @return A RateSeries containing at least the required points sorted by ascending date, or null
+     * if the file is not known to be sorted newest-first and has to be read whole.
+     * @throws CsvValidationException if there is an issue with CSV data validation.
+     * @throws IOException            if an I/O error occurs while reading the resource.
+     */
+    public RateSeries readCurrencyDataFromResources(DataRequirement requirement) throws CsvValidationException, IOException {
+        final Logger logger = LoggerFactory.getLogger(CurrencyDataProcessor.class);
+        final Path file = resolveFile();
+        if (file == null) {
+            return null;
+        }
+        final RateSeries.Builder builder = RateSeries.builder();
+        try (InputStream resourceStream = Files.newInputStream(file)) {
+            final CbrCsvRateReader reader = new CbrCsvRateReader(resourceStream);
+            int previousDay = Integer.MAX_VALUE;
+            while (reader.readNext()) {
+                final int epochDay = reader.epochDay();
+                if (epochDay >= previousDay) {
+                    return null;
+                }
+                previousDay = epochDay;
+                if (requirement.isSatisfied(builder.size(), epochDay)) {
+                    final OptionalInt lastDay = new IncrementalRateIngester().readLastEpochDay(file);
+                    return lastDay.isPresent() && lastDay.getAsInt() <= epochDay ? builder.build() : null;
+                }
+                builder.add(epochDay, reader.rate());
             }
         } catch (IOException e) {
             logger.error("Failed to read data from resource: " + e.getMessage(), e);
             throw new IOException("Failed to read data from resource", e);
         }
-        return currencyDataList;
+        return builder.build();
+    }
+
+    private Path resolveFile() {
+        final URL resource = getClass().getResource(filePath);
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return null;
+        }
+        try {
+            return Path.of(resource.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package ru.liga.rateforecaster.data.processor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.data.snapshot.RateSnapshotFormat;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The RateSnapshotProcessor class reads currency data from a binary snapshot compiled at build time.
+ * Snapshots unpacked on the file system are memory-mapped, snapshots packed into a jar are read into memory.
+ */
+public class RateSnapshotProcessor extends CurrencyDataProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateSnapshotProcessor.class);
+
+    public RateSnapshotProcessor(String filePath) {
+        super(filePath);
+    }
+
+    /**
+     * Reads currency data from a binary snapshot located in the classpath resources.
+     *
+     * @return A RateSeries containing currency exchange rate data sorted by ascending date.
+     * @throws IOException if the snapshot is missing, invalid or cannot be read.
+     */
+    @Override
+    public RateSeries readCurrencyDataFromResources() throws IOException {
+        final URL resource = getClass().getResource(filePath);
+        if (resource == null) {
+            logger.error("Failed to find snapshot resource: {}", filePath);
+            throw new IOException("Failed to find snapshot resource: " + filePath);
+        }
+        if ("file".equals(resource.getProtocol())) {
+            return mapSnapshot(resource);
+        }
+        try (InputStream resourceStream = resource.openStream()) {
+            return RateSnapshotFormat.read(ByteBuffer.wrap(resourceStream.readAllBytes()));
+        }
+    }
+
+    /**
+     * Reads the part of a binary snapshot satisfying a requirement. The snapshot is mapped or read whole,
+     * as it holds no index to seek by, and the result is a view of its latest points.
+     *
+     * @param requirement The part of the history to read.
+     * @return A RateSeries containing at least the required points sorted by ascending date.
+     * @throws IOException if the snapshot is missing, invalid or cannot be read.
+     */
+    @Override
+    public RateSeries readCurrencyDataFromResources(DataRequirement requirement) throws IOException {
+        return readCurrencyDataFromResources().latest(requirement);
+    }
+
+    private RateSeries mapSnapshot(URL resource) throws IOException {
+        final Path path;
+        try {
+            path = Path.of(resource.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid snapshot location: " + resource, e);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return RateSnapshotFormat.read(buffer);
+        }
+    }
+}
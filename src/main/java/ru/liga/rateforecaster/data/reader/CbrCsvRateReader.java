@@ -0,0 +1,269 @@
+package ru.liga.rateforecaster.data.reader;
+
+import com.opencsv.exceptions.CsvValidationException;
+import ru.liga.rateforecaster.model.RateSeries;
+import ru.liga.rateforecaster.utils.DateUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The CbrCsvRateReader class is a forward-only reader for the CBR currency export format
+ * ({@code nominal,data,curs,cdx,...}). It scans the raw bytes, parses the nominal, date and rate columns
+ * directly into primitives and skips the rest of each line (including the padding columns) without
+ * tokenizing it, so reading a record creates no intermediate strings or arrays.
+ * <p>
+ * The reader also tracks the byte offset of each record, which lets callers resume reading a file
+ * in the middle with a reader created for a stream without a header.
+ */
+public class CbrCsvRateReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int UTF8_BOM_FIRST_BYTE = 0xEF;
+    private static final int UTF8_BOM_LENGTH = 3;
+    private static final int EOF = -1;
+
+    private final InputStream inputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private long bufferOffset;
+    private int position;
+    private int limit;
+    private int lineNumber;
+    private boolean headerSkipped;
+    private long recordOffset;
+
+    private int nominal;
+    private int epochDay;
+    private long rate;
+
+    public CbrCsvRateReader(InputStream inputStream) {
+        this(inputStream, true);
+    }
+
+    /**
+     * @param inputStream The stream to read.
+     * @param withHeader  Whether the stream starts with a byte order mark and a header line to skip.
+     */
+    public CbrCsvRateReader(InputStream inputStream, boolean withHeader) {
+        this.inputStream = inputStream;
+        this.headerSkipped = !withHeader;
+    }
+
+    /**
+     * Advances to the next record of the file. The header line, if any, is skipped on the first call.
+     *
+     * @return true if a record was read, false if the end of the stream has been reached.
+     * @throws IOException            If an I/O error occurs while reading the stream.
+     * @throws CsvValidationException If the record does not match the expected format.
+     */
+    public boolean readNext() throws IOException, CsvValidationException {
+        if (!headerSkipped) {
+            skipByteOrderMark();
+            skipLine();
+            headerSkipped = true;
+        }
+        int next = peek();
+        while (next == '\r' || next == '\n') {
+            skipLine();
+            next = peek();
+        }
+        if (next == EOF) {
+            return false;
+        }
+        lineNumber++;
+        recordOffset = bufferOffset + position;
+        nominal = readNominal();
+        epochDay = readDate();
+        rate = readRate();
+        skipLine();
+        return true;
+    }
+
+    /**
+     * @return The nominal of the current record.
+     */
+    public int nominal() {
+        return nominal;
+    }
+
+    /**
+     * @return The date of the current record as a count of days since the epoch.
+     */
+    public int epochDay() {
+        return epochDay;
+    }
+
+    /**
+     * @return The rate of the current record scaled by 10^{@link RateSeries#RATE_SCALE}.
+     */
+    public long rate() {
+        return rate;
+    }
+
+    /**
+     * @return The offset of the first byte of the current record from the start of the stream.
+     */
+    public long recordOffset() {
+        return recordOffset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    private int readNominal() throws IOException, CsvValidationException {
+        boolean quoted = peek() == '"';
+        if (quoted) {
+            read();
+        }
+        int value = 0;
+        int digits = 0;
+        int next;
+        while ((next = read()) != EOF) {
+            if (next >= '0' && next <= '9') {
+                value = value * 10 + (next - '0');
+                digits++;
+            } else if (quoted && next == '"') {
+                quoted = false;
+            } else if (!quoted && next == ',') {
+                break;
+            } else if (!quoted || next != ',') {
+                throw invalidRecord("nominal");
+            }
+        }
+        if (digits == 0 || next != ',') {
+            throw invalidRecord("nominal");
+        }
+        return value;
+    }
+
+    private int readDate() throws IOException, CsvValidationException {
+        final boolean quoted = skipOpeningQuote();
+        final int month = readDateComponent('/');
+        final int day = readDateComponent('/');
+        final int year = readDateComponent(quoted ? '"' : ',');
+        if ((quoted && read() != ',') || !DateUtils.isValidDate(year, month, day)) {
+            throw invalidRecord("date");
+        }
+        return DateUtils.toEpochDay(year, month, day);
+    }
+
+    private int readDateComponent(char separator) throws IOException, CsvValidationException {
+        int value = 0;
+        int digits = 0;
+        int next;
+        while ((next = read()) >= '0' && next <= '9') {
+            value = value * 10 + (next - '0');
+            digits++;
+        }
+        if (digits == 0 || digits > 4 || next != separator) {
+            throw invalidRecord("date");
+        }
+        return value;
+    }
+
+    /**
+     * Reads the rate column. Digits beyond {@link RateSeries#RATE_SCALE} decimal places are rounded half up.
+     */
+    private long readRate() throws IOException, CsvValidationException {
+        final boolean quoted = skipOpeningQuote();
+        long value = 0;
+        int integerDigits = 0;
+        int fractionDigits = -1;
+        int firstDroppedDigit = -1;
+        int next;
+        while ((next = read()) != EOF && next != ',' && next != '\r' && next != '\n' && next != '"') {
+            if (next == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (next < '0' || next > '9') {
+                throw invalidRecord("curs");
+            } else if (fractionDigits < 0) {
+                value = value * 10 + (next - '0');
+                integerDigits++;
+            } else if (fractionDigits < RateSeries.RATE_SCALE) {
+                value = value * 10 + (next - '0');
+                fractionDigits++;
+            } else if (firstDroppedDigit < 0) {
+                firstDroppedDigit = next - '0';
+            }
+        }
+        if (quoted != (next == '"')) {
+            throw invalidRecord("curs");
+        }
+        if (quoted) {
+            next = read();
+            if (next != EOF && next != ',' && next != '\r' && next != '\n') {
+                throw invalidRecord("curs");
+            }
+        }
+        if (integerDigits == 0 || integerDigits > 14) {
+            throw invalidRecord("curs");
+        }
+        if (next == '\r' || next == '\n') {
+            position--;
+        }
+        for (int i = Math.max(fractionDigits, 0); i < RateSeries.RATE_SCALE; i++) {
+            value *= 10;
+        }
+        return firstDroppedDigit >= 5 ? value + 1 : value;
+    }
+
+    private boolean skipOpeningQuote() throws IOException {
+        if (peek() != '"') {
+            return false;
+        }
+        read();
+        return true;
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        if (peek() == UTF8_BOM_FIRST_BYTE) {
+            for (int i = 0; i < UTF8_BOM_LENGTH; i++) {
+                read();
+            }
+        }
+    }
+
+    private void skipLine() throws IOException {
+        while (true) {
+            if (position == limit && !fill()) {
+                return;
+            }
+            for (int i = position; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    position = i + 1;
+                    return;
+                }
+            }
+            position = limit;
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        bufferOffset += limit;
+        final int read = inputStream.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private CsvValidationException invalidRecord(String column) {
+        return new CsvValidationException("Invalid " + column + " value in record " + lineNumber);
+    }
+}
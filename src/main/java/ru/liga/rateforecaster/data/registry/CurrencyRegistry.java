@@ -0,0 +1,154 @@
+package ru.liga.rateforecaster.data.registry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.model.Currency;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * The CurrencyRegistry class knows which currencies the application can forecast. Every file named
+ * {@code <CODE>.csv} in the configured data directory is a currency, where CODE is a three-letter currency code.
+ * The data directory is a classpath location and may lie on the file system or inside the application archive.
+ * <p>
+ * The directory is scanned on first use and again on {@link #refresh()}; the series themselves are loaded
+ * by the repository only when a currency is requested.
+ */
+public class CurrencyRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyRegistry.class);
+    private static final String CSV_EXTENSION = ".csv";
+
+    private final String dataDirectory;
+    private volatile Map<Currency, String> pathByCurrency;
+
+    /**
+     * @param dataDirectory The classpath location of the directory holding the currency files.
+     */
+    public CurrencyRegistry(String dataDirectory) {
+        this.dataDirectory = dataDirectory.endsWith("/")
+                ? dataDirectory.substring(0, dataDirectory.length() - 1)
+                : dataDirectory;
+    }
+
+    public String getDataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * @return The known currencies sorted by code.
+     */
+    public List<Currency> getCurrencies() {
+        return new ArrayList<>(getPathByCurrency().keySet());
+    }
+
+    /**
+     * @param currency The currency to check.
+     * @return true if the data directory holds a file for the currency, false otherwise.
+     */
+    public boolean contains(Currency currency) {
+        return getPathByCurrency().containsKey(currency);
+    }
+
+    /**
+     * Returns the known currency with the specified code.
+     *
+     * @param code The three-letter code of the currency.
+     * @return The currency with this code.
+     * @throws IllegalArgumentException If the code is invalid or the data directory holds no file for it.
+     */
+    public Currency find(String code) {
+        final Currency currency = Currency.valueOf(code);
+        if (!contains(currency)) {
+            throw new IllegalArgumentException("Unknown currency: " + code);
+        }
+        return currency;
+    }
+
+    /**
+     * @param currency The currency whose file is requested.
+     * @return The classpath location of the currency file, or null if the currency is unknown.
+     */
+    public String getPath(Currency currency) {
+        return getPathByCurrency().get(currency);
+    }
+
+    /**
+     * Scans the data directory again, picking up added and removed currency files.
+     *
+     * @return The known currencies sorted by code.
+     */
+    public synchronized List<Currency> refresh() {
+        final Map<Currency, String> scanned = new TreeMap<>();
+        try {
+            scan(scanned);
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            logger.error("Failed to scan currency data directory " + dataDirectory + ": " + e.getMessage(), e);
+        }
+        pathByCurrency = Collections.unmodifiableMap(scanned);
+        logger.info("Found {} currencies in {}: {}", scanned.size(), dataDirectory, scanned.keySet());
+        return new ArrayList<>(scanned.keySet());
+    }
+
+    private Map<Currency, String> getPathByCurrency() {
+        final Map<Currency, String> current = pathByCurrency;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (pathByCurrency == null) {
+                refresh();
+            }
+            return pathByCurrency;
+        }
+    }
+
+    private void scan(Map<Currency, String> scanned) throws IOException, URISyntaxException {
+        final URL resource = getClass().getResource(dataDirectory);
+        if (resource == null) {
+            logger.warn("Currency data directory {} is not on the classpath", dataDirectory);
+            return;
+        }
+        final URI uri = resource.toURI();
+        if ("file".equals(uri.getScheme())) {
+            list(Path.of(uri), scanned);
+            return;
+        }
+        try (FileSystem archive = FileSystems.newFileSystem(uri, Map.of())) {
+            list(archive.getPath(dataDirectory), scanned);
+        } catch (FileSystemAlreadyExistsException e) {
+            list(FileSystems.getFileSystem(uri).getPath(dataDirectory), scanned);
+        }
+    }
+
+    private void list(Path directory, Map<Currency, String> scanned) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                final String fileName = file.getFileName().toString();
+                if (!fileName.endsWith(CSV_EXTENSION)) {
+                    return;
+                }
+                final String code = fileName.substring(0, fileName.length() - CSV_EXTENSION.length());
+                if (Currency.isValidCode(code)) {
+                    scanned.put(Currency.valueOf(code), dataDirectory + "/" + fileName);
+                } else {
+                    logger.debug("Skipping {}: not a currency code", fileName);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.liga.rateforecaster.data.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.model.Currency;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The CurrencyDataPreloader class loads the history of several currencies into a CurrencyDataRepository
+ * concurrently, on a bounded pool of daemon threads, and exposes a readiness gate that opens once every
+ * load has finished, successfully or not.
+ */
+public class CurrencyDataPreloader {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyDataPreloader.class);
+
+    private final CurrencyDataRepository currencyDataRepository;
+    private final int parallelism;
+    private final AtomicInteger loadedCount = new AtomicInteger();
+    private CountDownLatch readiness = new CountDownLatch(0);
+
+    public CurrencyDataPreloader(CurrencyDataRepository currencyDataRepository, int parallelism) {
+        this.currencyDataRepository = currencyDataRepository;
+        this.parallelism = Math.max(parallelism, 1);
+    }
+
+    /**
+     * Starts loading the specified currencies in the background.
+     *
+     * @param currencies The currencies to load.
+     */
+    public synchronized void start(List<Currency> currencies) {
+        readiness = new CountDownLatch(currencies.size());
+        if (currencies.isEmpty()) {
+            return;
+        }
+        final long startTime = System.nanoTime();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, currencies.size()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "currency-preload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        final CountDownLatch latch = readiness;
+        for (Currency currency : currencies) {
+            executor.execute(() -> {
+                try {
+                    currencyDataRepository.getSeries(currency);
+                    loadedCount.incrementAndGet();
+                } catch (Exception e) {
+                    logger.error("Failed to preload " + currency + ": " + e.getMessage(), e);
+                } finally {
+                    latch.countDown();
+                    if (latch.getCount() == 0) {
+                        logger.info("Preloaded {} of {} currencies in {} ms", loadedCount.get(), currencies.size(),
+                                (System.nanoTime() - startTime) / 1_000_000);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Waits until every started load has finished.
+     *
+     * @param timeout The maximum time to wait.
+     * @return true if all loads finished, false if the timeout elapsed first.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        final CountDownLatch latch;
+        synchronized (this) {
+            latch = readiness;
+        }
+        return latch.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return The number of currencies loaded successfully so far.
+     */
+    public int getLoadedCount() {
+        return loadedCount.get();
+    }
+}
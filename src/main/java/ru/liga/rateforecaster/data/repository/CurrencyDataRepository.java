@@ -0,0 +1,485 @@
+package ru.liga.rateforecaster.data.repository;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.data.ingest.IncrementalRateIngester;
+import ru.liga.rateforecaster.data.ingest.IngestionCheckpoint;
+import ru.liga.rateforecaster.data.ingest.IngestionResult;
+import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.processor.CurrencyDataProcessor;
+import ru.liga.rateforecaster.data.processor.RateSnapshotProcessor;
+import ru.liga.rateforecaster.data.stream.RateChunkStage;
+import ru.liga.rateforecaster.data.stream.StreamingRateIngester;
+import ru.liga.rateforecaster.enums.EvictionPolicy;
+import ru.liga.rateforecaster.enums.FillPolicy;
+import ru.liga.rateforecaster.enums.StorageMode;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.DateRange;
+import ru.liga.rateforecaster.model.DenseDailySeries;
+import ru.liga.rateforecaster.model.EncodedRateSeries;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The CurrencyDataRepository class keeps currency history in memory for the whole process.
+ * Each currency is loaded once, on first use, and the resulting immutable series is shared
+ * by all forecast generators. The binary snapshot compiled at build time is preferred;
+ * the CSV file is parsed only when no valid, up-to-date snapshot is available.
+ * <p>
+ * A currency can be reloaded while the application is running: the new series is built first
+ * and then published with a single map update, so readers never block and requests already
+ * running keep the series they started with.
+ * <p>
+ * Each currency is stored either plain, ready for reading, or encoded with {@link EncodedRateSeries}
+ * to keep long histories resident in less memory at the cost of decoding on access. The decoded copy of
+ * an encoded history is kept softly for the next full read, outside the heap budget.
+ * <p>
+ * The estimated heap held by all stored histories can be capped. When a load or reload exceeds the budget,
+ * other histories are dropped according to the {@link EvictionPolicy} until the total fits again; a dropped
+ * currency is loaded again on its next request, and requests still holding its series are not affected.
+ */
+public class CurrencyDataRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyDataRepository.class);
+
+    private final CurrencyPathResolver currencyPathResolver;
+    private final FillPolicy fillPolicy;
+    private final Function<Currency, StorageMode> storageModes;
+    private final long heapBudgetBytes;
+    private final EvictionPolicy evictionPolicy;
+    private final AtomicLong accessClock = new AtomicLong();
+    private final AtomicLong residentBytes = new AtomicLong();
+    private final Map<Currency, StoredSeries> seriesByCurrency = new ConcurrentHashMap<>();
+    private final Map<Currency, Object> loadLocks = new ConcurrentHashMap<>();
+    private final Map<Currency, IngestionCheckpoint> checkpoints = new ConcurrentHashMap<>();
+    private final List<SeriesUpdateListener> updateListeners = new CopyOnWriteArrayList<>();
+    private final IncrementalRateIngester incrementalRateIngester = new IncrementalRateIngester();
+
+    public CurrencyDataRepository(CurrencyPathResolver currencyPathResolver) {
+        this(currencyPathResolver, FillPolicy.PREVIOUS);
+    }
+
+    /**
+     * @param currencyPathResolver The resolver of the currency data locations.
+     * @param fillPolicy           The policy of the dense daily view built for every loaded series.
+     */
+    public CurrencyDataRepository(CurrencyPathResolver currencyPathResolver, FillPolicy fillPolicy) {
+        this(currencyPathResolver, fillPolicy, currency -> StorageMode.PLAIN);
+    }
+
+    /**
+     * @param currencyPathResolver The resolver of the currency data locations.
+     * @param fillPolicy           The policy of the dense daily view built for every plain series.
+     * @param storageModes         The storage mode of each currency.
+     */
+    public CurrencyDataRepository(CurrencyPathResolver currencyPathResolver, FillPolicy fillPolicy,
+                                  Function<Currency, StorageMode> storageModes) {
+        this(currencyPathResolver, fillPolicy, storageModes, Long.MAX_VALUE, EvictionPolicy.LRU);
+    }
+
+    /**
+     * @param currencyPathResolver The resolver of the currency data locations.
+     * @param fillPolicy           The policy of the dense daily view built for every plain series.
+     * @param storageModes         The storage mode of each currency.
+     * @param heapBudgetBytes      The estimated heap all stored histories may take together.
+     * @param evictionPolicy       The policy choosing the histories to drop when the budget is exceeded.
+     */
+    public CurrencyDataRepository(CurrencyPathResolver currencyPathResolver, FillPolicy fillPolicy,
+                                  Function<Currency, StorageMode> storageModes, long heapBudgetBytes,
+                                  EvictionPolicy evictionPolicy) {
+        this.currencyPathResolver = currencyPathResolver;
+        this.fillPolicy = fillPolicy;
+        this.storageModes = storageModes;
+        this.heapBudgetBytes = heapBudgetBytes;
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    /**
+     * Returns the history of the specified currency, loading it from resources on first access.
+     *
+     * @param currency The currency whose history is requested.
+     * @return The immutable series of the currency sorted by ascending date.
+     * @throws CsvValidationException If there is an issue with CSV data validation.
+     * @throws IOException            If an I/O error occurs while reading the resource.
+     */
+    public RateSeries getSeries(Currency currency) throws CsvValidationException, IOException {
+        return getStoredSeries(currency).series();
+    }
+
+    /**
+     * Returns a part of the history of the specified currency satisfying a requirement.
+     * A stored history is used when there is one. Otherwise, a currency with a usable snapshot is loaded
+     * and stored as usual, and a currency read from a newest-first CSV file has only the required part read,
+     * without storing it. Any other CSV file is read whole and stored, so the result never depends on whether
+     * the history was stored before.
+     *
+     * @param currency    The currency whose history is requested.
+     * @param requirement The part of the history needed.
+     * @return A series sorted by ascending date containing at least the required points.
+     * @throws CsvValidationException If there is an issue with CSV data validation.
+     * @throws IOException            If an I/O error occurs while reading the resource.
+     */
+    public RateSeries getSeries(Currency currency, DataRequirement requirement) throws CsvValidationException, IOException {
+        final StoredSeries cached = seriesByCurrency.get(currency);
+        if (cached != null) {
+            cached.touch(accessClock.incrementAndGet());
+            return cached.select(requirement);
+        }
+        if (requirement.isFull() || createSnapshotProcessor(currency) != null) {
+            return getSeries(currency);
+        }
+        final long startTime = System.nanoTime();
+        final RateSeries series = createDataProcessor(currency).readCurrencyDataFromResources(requirement);
+        if (series == null) {
+            logger.info("{} is not known to be sorted newest-first, reading the whole history", currency);
+            return getSeries(currency);
+        }
+        logger.info("Read {} latest rates for {} in {} ms", series.size(), currency,
+                (System.nanoTime() - startTime) / 1_000_000);
+        return series;
+    }
+
+    /**
+     * Returns the most recent part of the history of the specified currency.
+     * For an encoded currency without a decoded copy only the chunks holding these points are decoded.
+     *
+     * @param currency The currency whose history is requested.
+     * @param count    The maximum number of points to return.
+     * @return The series of at most {@code count} latest points sorted by ascending date.
+     * @throws CsvValidationException If there is an issue with CSV data validation.
+     * @throws IOException            If an I/O error occurs while reading the resource.
+     */
+    public RateSeries getLatest(Currency currency, int count) throws CsvValidationException, IOException {
+        return getStoredSeries(currency).latest(count);
+    }
+
+    /**
+     * Returns the history of the specified currency with one rate for every calendar day.
+     * The view is built once for every loaded version of the history. For an encoded currency it is built
+     * on the softly held decoded copy, and is built again if the garbage collector reclaimed that copy.
+     *
+     * @param currency The currency whose history is requested.
+     * @return The dense daily view of the currency filled with the configured policy.
+     * @throws CsvValidationException If there is an issue with CSV data validation.
+     * @throws IOException            If an I/O error occurs while reading the resource.
+     */
+    public DenseDailySeries getDailySeries(Currency currency) throws CsvValidationException, IOException {
+        return getSeries(currency).daily(fillPolicy);
+    }
+
+    /**
+     * Reloads the history of the specified currency and replaces the series held in memory.
+     * When the CSV file lies on the file system and the currency was loaded before, only the records
+     * added to the file since then are read and merged; otherwise the whole file is read.
+     * If the file cannot be read, the current series is kept.
+     *
+     * @param currency The currency to reload.
+     * @return The new series of the currency and the number of merged points.
+     * @throws CsvValidationException If there is an issue with CSV data validation.
+     * @throws IOException            If an I/O error occurs while reading the resource.
+     */
+    public IngestionResult reload(Currency currency) throws CsvValidationException, IOException {
+        final Reload reload = reloadLocked(currency);
+        evictOverBudget(currency);
+        notifyUpdateListeners(currency, reload.changed());
+        return reload.result();
+    }
+
+    private Reload reloadLocked(Currency currency) throws CsvValidationException, IOException {
+        synchronized (loadLocks.computeIfAbsent(currency, key -> new Object())) {
+            final long startTime = System.nanoTime();
+            final Path csvFile = currencyPathResolver.getFile(currencyPathResolver.getPath(currency));
+            final StoredSeries current = seriesByCurrency.get(currency);
+            final RateSeries previous = current == null ? null : current.series();
+            final IngestionResult result;
+            if (csvFile != null) {
+                result = incrementalRateIngester.ingest(csvFile, previous == null ? RateSeries.empty() : previous,
+                        checkpoints.get(currency));
+                checkpoints.put(currency, result.checkpoint());
+            } else {
+                final RateSeries series = createDataProcessor(currency).readCurrencyDataFromResources();
+                result = new IngestionResult(series, null, series.size(), true);
+            }
+            store(currency, result.series());
+            logger.info("Reloaded {} ({} rates, {} merged, full read: {}) in {} ms", currency, result.series().size(),
+                    result.mergedPoints(), result.fullRead(), (System.nanoTime() - startTime) / 1_000_000);
+            return new Reload(result, changedRange(previous, result.series()));
+        }
+    }
+
+    /**
+     * Tells the update listeners that the file of a currency not held in memory has changed. Forecasts may
+     * still have been built from that file, by a partial read that was never stored or before the currency
+     * was evicted, so every date is reported as changed. A loaded currency is reloaded instead.
+     *
+     * @param currency The currency whose file changed.
+     * @throws CsvValidationException If there is an issue with CSV data validation.
+     * @throws IOException            If an I/O error occurs while reading the resource.
+     */
+    public void fileChanged(Currency currency) throws CsvValidationException, IOException {
+        if (isLoaded(currency)) {
+            reload(currency);
+            return;
+        }
+        logger.info("File of {} changed while it is not loaded, dropping everything built from it", currency);
+        notifyUpdateListeners(currency, DateRange.all());
+    }
+
+    /**
+     * Streams the CSV file of the specified currency through an ingestion pipeline and stores the result
+     * in place of the current series. The file checkpoint is dropped, so the next reload reads the whole file.
+     *
+     * @param currency The currency to ingest.
+     * @param ingester The ingester running the pipeline.
+     * @param stages   The stages to apply, created by the ingester for this run.
+     * @return The series of the points that passed all stages.
+     * @throws CsvValidationException If there is an issue with CSV data validation.
+     * @throws IOException            If an I/O error occurs while reading the resource.
+     */
+    public RateSeries ingest(Currency currency, StreamingRateIngester ingester, List<? extends RateChunkStage> stages)
+            throws CsvValidationException, IOException {
+        final String filePath = currencyPathResolver.getPath(currency);
+        final InputStream resourceStream = filePath == null ? null : getClass().getResourceAsStream(filePath);
+        if (resourceStream == null) {
+            throw new IOException("Failed to open resource stream for file: " + filePath);
+        }
+        final long startTime = System.nanoTime();
+        final RateSeries series;
+        final DateRange changed;
+        synchronized (loadLocks.computeIfAbsent(currency, key -> new Object())) {
+            series = ingester.ingest(resourceStream, stages);
+            checkpoints.remove(currency);
+            final StoredSeries current = seriesByCurrency.get(currency);
+            store(currency, series);
+            changed = changedRange(current == null ? null : current.series(), series);
+        }
+        logger.info("Ingested {} rates for {} through {} stages in {} ms", series.size(), currency, stages.size(),
+                (System.nanoTime() - startTime) / 1_000_000);
+        evictOverBudget(currency);
+        notifyUpdateListeners(currency, changed);
+        return series;
+    }
+
+    /**
+     * Checks whether the history of the specified currency is already held in memory.
+     *
+     * @param currency The currency to check.
+     * @return true if the history has been loaded, false otherwise.
+     */
+    public boolean isLoaded(Currency currency) {
+        return seriesByCurrency.containsKey(currency);
+    }
+
+    /**
+     * Registers a listener called on the updating thread every time a reload or an ingestion changes the history
+     * of a currency, after the new series is published. Listeners are called in the order they were added.
+     *
+     * @param listener The listener receiving the updated currency and the changed dates.
+     */
+    public void addUpdateListener(SeriesUpdateListener listener) {
+        updateListeners.add(listener);
+    }
+
+    /**
+     * @return The memory footprint of every loaded currency history.
+     */
+    public List<SeriesStorageStats> getStorageStats() {
+        final List<SeriesStorageStats> stats = new ArrayList<>();
+        seriesByCurrency.forEach((currency, stored) -> stats.add(statsOf(currency, stored)));
+        stats.sort(Comparator.comparing(SeriesStorageStats::currency));
+        return stats;
+    }
+
+    /**
+     * Creates a data processor for the specified currency.
+     *
+     * @param currency The currency for which to create the data processor.
+     * @return A CurrencyDataProcessor for the specified currency.
+     */
+    protected CurrencyDataProcessor createDataProcessor(Currency currency) {
+        try {
+            String filePath = currencyPathResolver.getPath(currency);
+            return new CurrencyDataProcessor(filePath);
+        } catch (RuntimeException e) {
+            logger.error("Failed to create data processor: " + e.getMessage(), e);
+            throw new RuntimeException("Failed to create data processor", e);
+        }
+    }
+
+    /**
+     * Creates a snapshot processor for the specified currency if its snapshot is present in resources
+     * and is not older than the CSV file it was compiled from.
+     *
+     * @param currency The currency for which to create the snapshot processor.
+     * @return A RateSnapshotProcessor, or null if the currency has no usable snapshot.
+     */
+    protected CurrencyDataProcessor createSnapshotProcessor(Currency currency) {
+        final String snapshotPath = currencyPathResolver.getSnapshotPath(currency);
+        if (snapshotPath == null || getClass().getResource(snapshotPath) == null) {
+            return null;
+        }
+        final String csvPath = currencyPathResolver.getPath(currency);
+        if (isNewer(csvPath, snapshotPath)) {
+            logger.info("Snapshot for {} is older than {}, reading CSV", currency, csvPath);
+            return null;
+        }
+        return new RateSnapshotProcessor(snapshotPath);
+    }
+
+    private boolean isNewer(String firstPath, String secondPath) {
+        final Path first = currencyPathResolver.getFile(firstPath);
+        final Path second = currencyPathResolver.getFile(secondPath);
+        if (first == null || second == null) {
+            return false;
+        }
+        try {
+            return Files.getLastModifiedTime(first).compareTo(Files.getLastModifiedTime(second)) > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private RateSeries loadCurrencyData(Currency currency) throws CsvValidationException, IOException {
+        final long startTime = System.nanoTime();
+        final Path csvFile = currencyPathResolver.getFile(currencyPathResolver.getPath(currency));
+        if (csvFile != null) {
+            checkpoints.put(currency, incrementalRateIngester.checkpoint(csvFile));
+        }
+        final RateSeries series = readCurrencyData(currency);
+        logger.info("Loaded {} rates for {} in {} ms", series.size(), currency,
+                (System.nanoTime() - startTime) / 1_000_000);
+        return series;
+    }
+
+    private StoredSeries getStoredSeries(Currency currency) throws CsvValidationException, IOException {
+        final StoredSeries cached = seriesByCurrency.get(currency);
+        if (cached != null) {
+            cached.touch(accessClock.incrementAndGet());
+            return cached;
+        }
+        final StoredSeries stored;
+        synchronized (loadLocks.computeIfAbsent(currency, key -> new Object())) {
+            final StoredSeries loaded = seriesByCurrency.get(currency);
+            if (loaded != null) {
+                loaded.touch(accessClock.incrementAndGet());
+                return loaded;
+            }
+            stored = store(currency, loadCurrencyData(currency));
+        }
+        evictOverBudget(currency);
+        return stored;
+    }
+
+    private StoredSeries store(Currency currency, RateSeries series) {
+        final StoredSeries stored = StoredSeries.of(series, storageModes.apply(currency));
+        if (stored.storageMode() == StorageMode.PLAIN) {
+            series.daily(fillPolicy);
+        }
+        stored.touch(accessClock.incrementAndGet());
+        final StoredSeries previous = seriesByCurrency.put(currency, stored);
+        residentBytes.addAndGet(stored.sizeInBytes() - (previous == null ? 0 : previous.sizeInBytes()));
+        final SeriesStorageStats stats = statsOf(currency, stored);
+        logger.info("Stored {} rates for {} as {} in {} bytes ({} bytes/point)", stats.points(), currency,
+                stats.storageMode(), stats.bytes(), String.format("%.2f", stats.bytesPerPoint()));
+        return stored;
+    }
+
+    /**
+     * Drops stored histories other than the specified one until the stored total fits the heap budget.
+     * Each history is dropped under its own load lock, so no thread ever holds two of them.
+     *
+     * @param keep The currency just loaded, which is never dropped.
+     */
+    private void evictOverBudget(Currency keep) {
+        while (residentBytes.get() > heapBudgetBytes) {
+            final Currency victim = chooseVictim(keep);
+            if (victim == null) {
+                return;
+            }
+            synchronized (loadLocks.computeIfAbsent(victim, key -> new Object())) {
+                final StoredSeries stored = seriesByCurrency.remove(victim);
+                if (stored != null) {
+                    residentBytes.addAndGet(-stored.sizeInBytes());
+                    checkpoints.remove(victim);
+                    logger.info("Evicted {} ({} bytes) to keep currency histories within {} bytes", victim,
+                            stored.sizeInBytes(), heapBudgetBytes);
+                }
+            }
+        }
+    }
+
+    private Currency chooseVictim(Currency keep) {
+        final long now = accessClock.get();
+        Currency victim = null;
+        double victimScore = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<Currency, StoredSeries> entry : seriesByCurrency.entrySet()) {
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+            final StoredSeries stored = entry.getValue();
+            final long idle = now - stored.lastAccess();
+            final double score = evictionPolicy == EvictionPolicy.SIZE_WEIGHTED
+                    ? (double) stored.sizeInBytes() * (idle + 1)
+                    : idle;
+            if (score > victimScore) {
+                victim = entry.getKey();
+                victimScore = score;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * @return The range of the dates that differ between the series, the whole range if the previous series
+     * is unknown, or null if nothing changed.
+     */
+    private static DateRange changedRange(RateSeries previous, RateSeries series) {
+        return previous == null ? DateRange.all() : previous.changedRange(series);
+    }
+
+    private void notifyUpdateListeners(Currency currency, DateRange changed) {
+        if (changed == null) {
+            return;
+        }
+        for (SeriesUpdateListener listener : updateListeners) {
+            try {
+                listener.onUpdate(currency, changed);
+            } catch (RuntimeException e) {
+                logger.warn("Update listener failed for " + currency + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static SeriesStorageStats statsOf(Currency currency, StoredSeries stored) {
+        return new SeriesStorageStats(currency, stored.storageMode(), stored.size(), stored.sizeInBytes());
+    }
+
+    private RateSeries readCurrencyData(Currency currency) throws CsvValidationException, IOException {
+        final CurrencyDataProcessor snapshotProcessor = createSnapshotProcessor(currency);
+        if (snapshotProcessor != null) {
+            try {
+                return snapshotProcessor.readCurrencyDataFromResources();
+            } catch (IOException e) {
+                logger.warn("Failed to read snapshot for " + currency + ", falling back to CSV: " + e.getMessage(), e);
+            }
+        }
+        return createDataProcessor(currency).readCurrencyDataFromResources();
+    }
+
+    private record Reload(IngestionResult result, DateRange changed) {
+    }
+}
@@ -0,0 +1,19 @@
+package ru.liga.rateforecaster.data.repository;
+
+import ru.liga.rateforecaster.enums.StorageMode;
+import ru.liga.rateforecaster.model.Currency;
+
+/**
+ * The memory footprint of a currency history held by the CurrencyDataRepository.
+ *
+ * @param currency    The currency.
+ * @param storageMode The way the history is stored.
+ * @param points      The number of points in the history.
+ * @param bytes       An estimate of the heap retained by the history.
+ */
+public record SeriesStorageStats(Currency currency, StorageMode storageMode, int points, long bytes) {
+
+    public double bytesPerPoint() {
+        return points == 0 ? 0 : (double) bytes / points;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.liga.rateforecaster.data.repository;
+
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.DateRange;
+
+/**
+ * A listener notified when the history of a currency held by the {@link CurrencyDataRepository} changes.
+ */
+@FunctionalInterface
+public interface SeriesUpdateListener {
+
+    /**
+     * Called after the new history of the currency has been published.
+     *
+     * @param currency The currency whose history changed.
+     * @param changed  The range from the first to the last date whose point was added, removed or changed.
+     */
+    void onUpdate(Currency currency, DateRange changed);
+}
@@ -0,0 +1,105 @@
+package ru.liga.rateforecaster.data.repository;
+
+import ru.liga.rateforecaster.enums.StorageMode;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.EncodedRateSeries;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.lang.ref.SoftReference;
+
+/**
+ * A currency history as held by the repository, either plain or encoded.
+ * <p>
+ * The first whole-history read of an encoded history keeps the decoded copy behind a soft reference,
+ * so later full reads, and the dense daily view built on that copy, are reused until the garbage collector
+ * needs the memory. The copy is not counted in {@link #sizeInBytes()}; a new history is stored
+ * as a new instance, so the copy never outlives the version it was decoded from.
+ */
+final class StoredSeries {
+
+    private final RateSeries plain;
+    private final EncodedRateSeries encoded;
+    private volatile SoftReference<RateSeries> decoded = new SoftReference<>(null);
+    private volatile long lastAccess;
+
+    private StoredSeries(RateSeries plain, EncodedRateSeries encoded) {
+        this.plain = plain;
+        this.encoded = encoded;
+    }
+
+    static StoredSeries of(RateSeries series, StorageMode storageMode) {
+        return storageMode == StorageMode.ENCODED
+                ? new StoredSeries(null, EncodedRateSeries.encode(series))
+                : new StoredSeries(series, null);
+    }
+
+    StorageMode storageMode() {
+        return plain != null ? StorageMode.PLAIN : StorageMode.ENCODED;
+    }
+
+    /**
+     * @return The whole history; an encoded history is decoded unless its decoded copy is still held.
+     */
+    RateSeries series() {
+        if (plain != null) {
+            return plain;
+        }
+        RateSeries series = decoded.get();
+        if (series == null) {
+            series = encoded.decode();
+            decoded = new SoftReference<>(series);
+        }
+        return series;
+    }
+
+    /**
+     * @return The most recent points; an encoded history without a decoded copy decodes only the chunks holding them.
+     */
+    RateSeries latest(int count) {
+        final RateSeries series = plain != null ? plain : decoded.get();
+        return series != null ? series.latest(count) : encoded.latest(count);
+    }
+
+    /**
+     * Returns a part of the history satisfying the requirement. A plain history is returned whole, since
+     * views cost nothing; an encoded history takes a view of its decoded copy if it is still held, and
+     * otherwise decodes latest chunks until the requirement is met.
+     */
+    RateSeries select(DataRequirement requirement) {
+        if (plain != null || requirement.isFull()) {
+            return series();
+        }
+        final RateSeries series = decoded.get();
+        if (series != null) {
+            return series.latest(requirement);
+        }
+        int count = Math.max(requirement.latestPoints(), 1);
+        RateSeries latest = encoded.latest(count);
+        while (latest.size() < encoded.size() && !requirement.isSatisfied(latest.size(), latest.epochDay(0) - 1L)) {
+            count = (int) Math.min(2L * count, encoded.size());
+            latest = encoded.latest(count);
+        }
+        return latest;
+    }
+
+    int size() {
+        return plain != null ? plain.size() : encoded.size();
+    }
+
+    /**
+     * Records a use of this history for eviction.
+     *
+     * @param tick The value of the repository access clock at the time of use.
+     */
+    void touch(long tick) {
+        lastAccess = tick;
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    long sizeInBytes() {
+        return plain != null ? plain.sizeInBytes() : encoded.sizeInBytes();
+    }
+}
@@ -0,0 +1,76 @@
+package ru.liga.rateforecaster.data.snapshot;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.data.reader.CbrCsvRateReader;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Build-time tool that compiles every CSV rate file of a directory into a binary snapshot.
+ * It is run by Maven during the process-classes phase, see pom.xml.
+ */
+public final class RateSnapshotCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateSnapshotCompiler.class);
+    private static final String CSV_EXTENSION = ".csv";
+
+    private RateSnapshotCompiler() {
+    }
+
+    /**
+     * @param args The directory containing the CSV files and the directory to write the snapshots to.
+     * @throws IOException            If a file cannot be read or written.
+     * @throws CsvValidationException If a CSV file contains an invalid record.
+     */
+    public static void main(String[] args) throws IOException, CsvValidationException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: RateSnapshotCompiler <csv directory> <snapshot directory>");
+        }
+        compileDirectory(Path.of(args[0]), Path.of(args[1]));
+    }
+
+    /**
+     * Compiles all CSV files of the source directory into snapshots with the same base name.
+     *
+     * @param sourceDirectory The directory containing the CSV files.
+     * @param targetDirectory The directory to write the snapshots to, created if missing.
+     * @return The number of compiled files.
+     * @throws IOException            If a file cannot be read or written.
+     * @throws CsvValidationException If a CSV file contains an invalid record.
+     */
+    public static int compileDirectory(Path sourceDirectory, Path targetDirectory)
+            throws IOException, CsvValidationException {
+        Files.createDirectories(targetDirectory);
+        int compiled = 0;
+        try (DirectoryStream<Path> csvFiles = Files.newDirectoryStream(sourceDirectory, "*" + CSV_EXTENSION)) {
+            for (Path csvFile : csvFiles) {
+                final String fileName = csvFile.getFileName().toString();
+                final String baseName = fileName.substring(0, fileName.length() - CSV_EXTENSION.length());
+                final Path snapshot = targetDirectory.resolve(baseName + RateSnapshotFormat.FILE_EXTENSION);
+                final RateSeries series = readCsv(csvFile);
+                RateSnapshotFormat.write(series, snapshot);
+                logger.info("Compiled {} rates from {} into {}", series.size(), csvFile, snapshot);
+                compiled++;
+            }
+        }
+        return compiled;
+    }
+
+    private static RateSeries readCsv(Path csvFile) throws IOException, CsvValidationException {
+        final RateSeries.Builder builder = RateSeries.builder();
+        try (InputStream input = Files.newInputStream(csvFile)) {
+            final CbrCsvRateReader reader = new CbrCsvRateReader(input);
+            while (reader.readNext()) {
+                builder.add(reader.epochDay(), reader.rate());
+            }
+        }
+        return builder.build();
+    }
+}
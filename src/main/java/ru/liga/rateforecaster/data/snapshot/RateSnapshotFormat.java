@@ -0,0 +1,93 @@
+package ru.liga.rateforecaster.data.snapshot;
+
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility class describing the binary snapshot format of a rate series.
+ * <p>
+ * A snapshot is a big-endian file made of a 16-byte header (magic, format version, rate scale, point count),
+ * a column of {@code int} epoch days sorted in ascending order, padding to an 8-byte boundary and a column of
+ * {@code long} fixed-point rates. Both columns can be copied in bulk from a memory-mapped file.
+ */
+public final class RateSnapshotFormat {
+
+    public static final String FILE_EXTENSION = ".rates";
+    public static final int MAGIC = 0x52415445;
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    private RateSnapshotFormat() {
+    }
+
+    /**
+     * Writes the specified series to a snapshot file, replacing any existing file.
+     *
+     * @param series The series to write.
+     * @param path   The path of the snapshot file.
+     * @throws IOException If an I/O error occurs while writing the file.
+     */
+    public static void write(RateSeries series, Path path) throws IOException {
+        final int count = series.size();
+        final ByteBuffer buffer = ByteBuffer.allocate((int) fileSize(count));
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(RateSeries.RATE_SCALE).putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putInt(series.epochDay(i));
+        }
+        buffer.position(ratesOffset(count));
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(series.fixedPointRate(i));
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Decodes a snapshot from the specified buffer.
+     *
+     * @param buffer A buffer positioned at the start of the snapshot, usually a mapped file.
+     * @return The decoded series.
+     * @throws IOException If the buffer does not contain a valid snapshot of the supported version.
+     */
+    public static RateSeries read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a rate snapshot");
+        }
+        final int version = buffer.getInt(Integer.BYTES);
+        final int scale = buffer.getInt(2 * Integer.BYTES);
+        final int count = buffer.getInt(3 * Integer.BYTES);
+        if (version != FORMAT_VERSION || scale != RateSeries.RATE_SCALE) {
+            throw new IOException("Unsupported rate snapshot version " + version + " with scale " + scale);
+        }
+        if (count < 0 || buffer.remaining() < fileSize(count)) {
+            throw new IOException("Truncated rate snapshot with " + count + " points");
+        }
+        final int[] epochDays = new int[count];
+        final long[] rates = new long[count];
+        buffer.position(HEADER_SIZE);
+        buffer.asIntBuffer().get(epochDays);
+        buffer.position(ratesOffset(count));
+        buffer.asLongBuffer().get(rates);
+        return RateSeries.of(epochDays, rates);
+    }
+
+    private static int ratesOffset(int count) {
+        final int daysEnd = HEADER_SIZE + count * Integer.BYTES;
+        return (daysEnd + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+    }
+
+    private static long fileSize(int count) {
+        return ratesOffset(count) + (long) count * Long.BYTES;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.liga.rateforecaster.data.stream;
+
+import java.time.LocalDate;
+import java.util.concurrent.Executor;
+
+/**
+ * A pipeline stage that keeps only the points dated between two dates, inclusive.
+ */
+public class DateRangeFilter extends RateChunkStage {
+
+    private final long fromDay;
+    private final long toDay;
+
+    public DateRangeFilter(LocalDate from, LocalDate to, Executor executor, int bufferedChunks) {
+        super(executor, bufferedChunks);
+        this.fromDay = from.toEpochDay();
+        this.toDay = to.toEpochDay();
+    }
+
+    @Override
+    protected RateChunk transform(RateChunk chunk) {
+        final int[] epochDays = new int[chunk.size()];
+        final long[] rates = new long[chunk.size()];
+        int size = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            final int day = chunk.epochDay(i);
+            if (day >= fromDay && day <= toDay) {
+                epochDays[size] = day;
+                rates[size] = chunk.rate(i);
+                size++;
+            }
+        }
+        return new RateChunk(epochDays, rates, size);
+    }
+}
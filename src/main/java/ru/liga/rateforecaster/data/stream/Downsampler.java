@@ -0,0 +1,42 @@
+package ru.liga.rateforecaster.data.stream;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * A pipeline stage that keeps one point per period of a fixed number of days: the first point read in
+ * each period. Periods are counted from the epoch, and for the newest-first CBR exports the kept point
+ * is the latest rate of its period.
+ * <p>
+ * The stage remembers the periods already seen, so its memory grows with the number of kept points only.
+ */
+public class Downsampler extends RateChunkStage {
+
+    private final int periodDays;
+    private final Set<Integer> seenPeriods = new HashSet<>();
+
+    public Downsampler(int periodDays, Executor executor, int bufferedChunks) {
+        super(executor, bufferedChunks);
+        if (periodDays < 1) {
+            throw new IllegalArgumentException("Downsampling period must be positive: " + periodDays);
+        }
+        this.periodDays = periodDays;
+    }
+
+    @Override
+    protected RateChunk transform(RateChunk chunk) {
+        final int[] epochDays = new int[chunk.size()];
+        final long[] rates = new long[chunk.size()];
+        int size = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            final int day = chunk.epochDay(i);
+            if (seenPeriods.add(Math.floorDiv(day, periodDays))) {
+                epochDays[size] = day;
+                rates[size] = chunk.rate(i);
+                size++;
+            }
+        }
+        return new RateChunk(epochDays, rates, size);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.liga.rateforecaster.data.stream;
+
+/**
+ * A batch of rate points passed between the stages of a streaming ingestion pipeline.
+ * A chunk is handed over to the next stage and never modified afterwards.
+ *
+ * @param epochDays The dates of the points as counts of days since the epoch, in file order.
+ * @param rates     The rates of the points scaled by 10^{@link ru.liga.rateforecaster.model.RateSeries#RATE_SCALE}.
+ * @param size      The number of points held, which may be less than the length of the arrays.
+ */
+public record RateChunk(int[] epochDays, long[] rates, int size) {
+
+    public int epochDay(int index) {
+        return epochDays[index];
+    }
+
+    public long rate(int index) {
+        return rates[index];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.liga.rateforecaster.data.stream;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * A stage of a streaming ingestion pipeline that transforms each chunk it receives and publishes the result.
+ * <p>
+ * The stage requests one chunk at a time and publishes with a blocking submit, so a slow downstream stage
+ * stops it from requesting more: at most {@code bufferedChunks} chunks wait between two stages. A stage can
+ * take part in a single pipeline run only.
+ */
+public abstract class RateChunkStage extends SubmissionPublisher<RateChunk> implements Flow.Processor<RateChunk, RateChunk> {
+
+    private Flow.Subscription subscription;
+
+    protected RateChunkStage(Executor executor, int bufferedChunks) {
+        super(executor, bufferedChunks);
+    }
+
+    /**
+     * Transforms a chunk.
+     *
+     * @param chunk The chunk received from the previous stage.
+     * @return The chunk to publish, possibly empty.
+     */
+    protected abstract RateChunk transform(RateChunk chunk);
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(RateChunk chunk) {
+        final RateChunk transformed = transform(chunk);
+        if (!transformed.isEmpty()) {
+            submit(transformed);
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        close();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.liga.rateforecaster.data.stream;
+
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * The last stage of a streaming ingestion pipeline, collecting the points it receives into a RateSeries.
+ */
+public class RateSeriesSink implements Flow.Subscriber<RateChunk> {
+
+    private final RateSeries.Builder builder = RateSeries.builder();
+    private final CompletableFuture<RateSeries> result = new CompletableFuture<>();
+    private Flow.Subscription subscription;
+
+    /**
+     * @return The series collected once the pipeline completes, or the error that stopped it.
+     */
+    public CompletableFuture<RateSeries> result() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(RateChunk chunk) {
+        for (int i = 0; i < chunk.size(); i++) {
+            builder.add(chunk.epochDay(i), chunk.rate(i));
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        result.complete(builder.build());
+    }
+}
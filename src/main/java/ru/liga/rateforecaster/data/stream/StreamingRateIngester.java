@@ -0,0 +1,160 @@
+package ru.liga.rateforecaster.data.stream;
+
+import com.opencsv.exceptions.CsvValidationException;
+import ru.liga.rateforecaster.data.reader.CbrCsvRateReader;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * The StreamingRateIngester class reads a rate file as a stream of chunks pushed through a pipeline of
+ * {@link RateChunkStage}s into a {@link RateSeriesSink}, built on {@link java.util.concurrent.Flow}.
+ * <p>
+ * The file is parsed on the calling thread and each chunk is published with a blocking submit, so parsing
+ * waits whenever a stage falls behind. The memory held by the pipeline is bounded by the chunk size, the
+ * number of buffered chunks and the number of stages, whatever the size of the file; only the points that
+ * reach the sink are kept. Filtering and downsampling stages make it possible to load histories that would
+ * not fit in memory in full.
+ */
+public class StreamingRateIngester {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+    public static final int DEFAULT_BUFFERED_CHUNKS = 4;
+
+    private final int chunkSize;
+    private final int bufferedChunks;
+    private final Executor executor;
+
+    public StreamingRateIngester() {
+        this(DEFAULT_CHUNK_SIZE, DEFAULT_BUFFERED_CHUNKS, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param chunkSize      The number of points in a chunk.
+     * @param bufferedChunks The number of chunks that may wait between two stages.
+     * @param executor       The executor delivering chunks to the stages.
+     */
+    public StreamingRateIngester(int chunkSize, int bufferedChunks, Executor executor) {
+        if (chunkSize < 1 || bufferedChunks < 1) {
+            throw new IllegalArgumentException("Chunk size and buffered chunks must be positive");
+        }
+        this.chunkSize = chunkSize;
+        this.bufferedChunks = bufferedChunks;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a stage keeping only the points dated between two dates, inclusive.
+     *
+     * @param from The first date to keep.
+     * @param to   The last date to keep.
+     * @return A new stage for a single run of this ingester.
+     */
+    public DateRangeFilter filter(LocalDate from, LocalDate to) {
+        return new DateRangeFilter(from, to, executor, bufferedChunks);
+    }
+
+    /**
+     * Creates a stage keeping one point per period of the specified length.
+     *
+     * @param periodDays The length of a period in days.
+     * @return A new stage for a single run of this ingester.
+     */
+    public Downsampler downsample(int periodDays) {
+        return new Downsampler(periodDays, executor, bufferedChunks);
+    }
+
+    /**
+     * Streams a rate file through the specified stages.
+     *
+     * @param file   The rate file to read.
+     * @param stages The stages to apply, in order; each stage can be used once.
+     * @return The series of the points that passed all stages.
+     * @throws IOException            If an I/O error occurs while reading the file.
+     * @throws CsvValidationException If the file contains an invalid record.
+     */
+    public RateSeries ingest(Path file, List<? extends RateChunkStage> stages) throws IOException, CsvValidationException {
+        return ingest(Files.newInputStream(file), stages);
+    }
+
+    /**
+     * Streams a rate file through the specified stages. The stream is closed when the file is read.
+     *
+     * @param inputStream The content of the rate file, starting with its header.
+     * @param stages      The stages to apply, in order; each stage can be used once.
+     * @return The series of the points that passed all stages.
+     * @throws IOException            If an I/O error occurs while reading the stream.
+     * @throws CsvValidationException If the stream contains an invalid record.
+     */
+    public RateSeries ingest(InputStream inputStream, List<? extends RateChunkStage> stages)
+            throws IOException, CsvValidationException {
+        final RateSeriesSink sink = new RateSeriesSink();
+        try (CbrCsvRateReader reader = new CbrCsvRateReader(inputStream);
+             SubmissionPublisher<RateChunk> source = new SubmissionPublisher<>(executor, bufferedChunks)) {
+            Flow.Publisher<RateChunk> upstream = source;
+            for (RateChunkStage stage : stages) {
+                upstream.subscribe(stage);
+                upstream = stage;
+            }
+            upstream.subscribe(sink);
+            try {
+                publish(reader, source, sink);
+            } catch (IOException | CsvValidationException | RuntimeException e) {
+                source.closeExceptionally(e);
+                throw e;
+            }
+        }
+        return await(sink);
+    }
+
+    private void publish(CbrCsvRateReader reader, SubmissionPublisher<RateChunk> source, RateSeriesSink sink)
+            throws IOException, CsvValidationException {
+        int[] epochDays = new int[chunkSize];
+        long[] rates = new long[chunkSize];
+        int size = 0;
+        while (!sink.result().isDone() && reader.readNext()) {
+            epochDays[size] = reader.epochDay();
+            rates[size] = reader.rate();
+            if (++size == chunkSize) {
+                source.submit(new RateChunk(epochDays, rates, size));
+                epochDays = new int[chunkSize];
+                rates = new long[chunkSize];
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            source.submit(new RateChunk(epochDays, rates, size));
+        }
+    }
+
+    private static RateSeries await(RateSeriesSink sink) throws IOException, CsvValidationException {
+        try {
+            return sink.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the ingestion pipeline");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CsvValidationException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IOException("Ingestion pipeline failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ru.liga.rateforecaster.data.watcher;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
+import ru.liga.rateforecaster.model.Currency;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CurrencyFileWatcher class watches the directories of the currency CSV files and reloads
+ * a currency in the background when its file is created or modified.
+ * <p>
+ * Only files unpacked on the file system can be watched; currencies packed into a jar are skipped.
+ * Events are collected for a short quiet period before reloading, so a file written in several
+ * steps is read once. Currencies that are not loaded are not read: their next load reads the current
+ * file anyway, and the repository only tells its listeners that every date of the currency may have
+ * changed, so forecasts built from the old file are dropped. A currency file created in a watched directory is added to the
+ * currency registry, so the new currency becomes available without a restart.
+ */
+public class CurrencyFileWatcher implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyFileWatcher.class);
+    private static final long QUIET_PERIOD_MILLIS = 500;
+
+    private final CurrencyDataRepository currencyDataRepository;
+    private final CurrencyPathResolver currencyPathResolver;
+    private final Map<Path, Currency> currencyByFile = new HashMap<>();
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    public CurrencyFileWatcher(CurrencyDataRepository currencyDataRepository,
+                               CurrencyPathResolver currencyPathResolver) {
+        this.currencyDataRepository = currencyDataRepository;
+        this.currencyPathResolver = currencyPathResolver;
+    }
+
+    /**
+     * Registers the directories of all resolvable currency files and starts the watcher thread.
+     *
+     * @return true if at least one currency file is watched, false otherwise.
+     * @throws IOException If the watch service cannot be created or a directory cannot be registered.
+     */
+    public synchronized boolean start() throws IOException {
+        if (watcherThread != null) {
+            return true;
+        }
+        registerCurrencyFiles();
+        if (currencyByFile.isEmpty()) {
+            logger.info("No currency files on the file system, hot reload is disabled");
+            return false;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        final Set<Path> directories = new HashSet<>();
+        for (Path file : currencyByFile.keySet()) {
+            directories.add(file.getParent());
+        }
+        for (Path directory : directories) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            logger.info("Watching {} for currency file changes", directory);
+        }
+        watcherThread = new Thread(this::watch, "currency-file-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        return true;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            watcherThread = null;
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final Set<Currency> changed = new HashSet<>();
+                boolean added = collectChanges(watchService.take(), changed);
+                WatchKey next;
+                while ((next = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    added |= collectChanges(next, changed);
+                }
+                if (added) {
+                    currencyPathResolver.getCurrencyRegistry().refresh();
+                    registerCurrencyFiles();
+                }
+                changed.forEach(this::reload);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            logger.info("Currency file watcher stopped");
+        }
+    }
+
+    /**
+     * Collects the currencies whose files changed.
+     *
+     * @param key     The signalled key of a watched directory.
+     * @param changed The set to add the changed currencies to.
+     * @return true if a file of a currency unknown so far was created, false otherwise.
+     */
+    private boolean collectChanges(WatchKey key, Set<Currency> changed) {
+        final Path directory = (Path) key.watchable();
+        boolean added = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path fileName) {
+                final Currency currency = currencyByFile.get(directory.resolve(fileName));
+                if (currency != null) {
+                    changed.add(currency);
+                } else if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && isCurrencyFile(fileName)) {
+                    added = true;
+                }
+            }
+        }
+        key.reset();
+        return added;
+    }
+
+    private void registerCurrencyFiles() {
+        for (Currency currency : currencyPathResolver.getCurrencyRegistry().getCurrencies()) {
+            final Path file = resolveFile(currency);
+            if (file != null) {
+                currencyByFile.putIfAbsent(file, currency);
+            }
+        }
+    }
+
+    private static boolean isCurrencyFile(Path fileName) {
+        final String name = fileName.toString();
+        return name.endsWith(".csv") && Currency.isValidCode(name.substring(0, name.length() - ".csv".length()));
+    }
+
+    private void reload(Currency currency) {
+        try {
+            currencyDataRepository.fileChanged(currency);
+        } catch (Exception e) {
+            logger.error("Failed to reload " + currency + ", keeping the previous data: " + e.getMessage(), e);
+        }
+    }
+
+    private Path resolveFile(Currency currency) {
+        return currencyPathResolver.getFile(currencyPathResolver.getPath(currency));
+    }
+}
@@ -1,12 +0,0 @@
-package ru.liga.rateforecaster.enums;
-
-/**
- * An enum representing currency types.
- */
-public enum Currency {
-    EUR,
-    TRY,
-    USD,
-    BGN,
-    AMD
-}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package ru.liga.rateforecaster.enums;
+
+/**
+ * An enum representing the ways of choosing which currency history to drop when the heap budget is exceeded:
+ * LRU drops the least recently used history, SIZE_WEIGHTED drops the one with the largest product of its size
+ * and the time since its last use.
+ */
+public enum EvictionPolicy {
+    LRU,
+    SIZE_WEIGHTED
+}
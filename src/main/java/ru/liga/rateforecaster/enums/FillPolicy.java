@@ -0,0 +1,10 @@
+package ru.liga.rateforecaster.enums;
+
+/**
+ * An enum representing the ways to fill calendar days without a published rate:
+ * PREVIOUS repeats the latest published rate, LINEAR interpolates between the rates around the gap.
+ */
+public enum FillPolicy {
+    PREVIOUS,
+    LINEAR
+}
@@ -7,5 +7,16 @@ public enum ForecastingAlgorithm {
     AVERAGE,
     YEAR,
     MIST,
-    MOON
-}
\ No newline at end of file
+    MOON,
+    /**
+     * Runs AVERAGE, YEAR, MOON and MIST together and shows their forecasts side by side with their mean.
+     */
+    ENSEMBLE;
+
+    /**
+     * @return true if the forecasts of the algorithm are random unless the request fixes a seed, false otherwise.
+     */
+    public boolean isRandomized() {
+        return this == MIST || this == ENSEMBLE;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.liga.rateforecaster.enums;
+
+/**
+ * An enum representing the arithmetic used for forecasts: FIXED_POINT computes with rates scaled to long values
+ * and creates BigDecimal only for the results, BIG_DECIMAL computes with BigDecimal throughout.
+ */
+public enum NumericMode {
+    FIXED_POINT,
+    BIG_DECIMAL
+}
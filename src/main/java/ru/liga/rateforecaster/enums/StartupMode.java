@@ -0,0 +1,11 @@
+package ru.liga.rateforecaster.enums;
+
+/**
+ * An enum representing the ways the application can start:
+ * EAGER loads the currency data before registering the bot, LAZY registers the bot first and warms up
+ * the data, the algorithms and the chart stack in the background.
+ */
+public enum StartupMode {
+    EAGER,
+    LAZY
+}
@@ -0,0 +1,10 @@
+package ru.liga.rateforecaster.enums;
+
+/**
+ * An enum representing the ways a currency history can be kept in memory:
+ * PLAIN keeps the columnar series ready for reading, ENCODED keeps it compressed and decodes it on access.
+ */
+public enum StorageMode {
+    PLAIN,
+    ENCODED
+}
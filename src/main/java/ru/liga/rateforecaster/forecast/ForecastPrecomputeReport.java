@@ -0,0 +1,14 @@
+package ru.liga.rateforecaster.forecast;
+
+import java.time.Duration;
+
+/**
+ * The outcome of a forecast precomputation run.
+ *
+ * @param currencies The number of currencies precomputed.
+ * @param forecasts  The number of forecasts computed and stored in the cache.
+ * @param failures   The number of forecasts that ended with an error and were not stored.
+ * @param elapsed    The wall-clock time the run took.
+ */
+public record ForecastPrecomputeReport(int currencies, int forecasts, int failures, Duration elapsed) {
+}
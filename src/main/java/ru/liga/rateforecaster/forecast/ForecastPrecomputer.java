@@ -0,0 +1,226 @@
+package ru.liga.rateforecaster.forecast;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.OutputType;
+import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.FormattedResult;
+import ru.liga.rateforecaster.model.ParsedRequest;
+import ru.liga.rateforecaster.utils.DateUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ForecastPrecomputer class answers the bot's standard requests before they are asked: for every currency,
+ * cacheable algorithm and period it computes the forecast for tomorrow, the next week and the next month in
+ * every output offered for the period, renders the charts to PNG, and stores the results in the forecast cache.
+ * <p>
+ * These forecasts change only when the calendar day or the data changes, so everything is precomputed on start
+ * and right after midnight, and the currencies whose history was replaced are precomputed again once their
+ * updates have settled. Runs never overlap. The forecasts of a run are computed on a fixed number of
+ * minimum-priority daemon threads, which caps the share of the processors taken from interactive requests.
+ * Forecasts of the randomized MIST and ENSEMBLE algorithms are not cacheable and are left out.
+ */
+public class ForecastPrecomputer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForecastPrecomputer.class);
+    private static final Duration ROLLOVER_DELAY = Duration.ofSeconds(1);
+    private static final Duration UPDATE_QUIET_PERIOD = Duration.ofSeconds(2);
+    private static final Duration TIME_TO_LIVE_MARGIN = Duration.ofHours(1);
+
+    private final UserRequestForecastGenerator userRequestForecastGenerator;
+    private final CurrencyRegistry currencyRegistry;
+    private final int parallelism;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final Set<Currency> updatedCurrencies = new TreeSet<>();
+    private volatile ForecastPrecomputeReport lastReport;
+
+    /**
+     * @param userRequestForecastGenerator The generator storing its results in the forecast cache.
+     * @param currencyRegistry             The registry of the currencies to precompute.
+     * @param parallelism                  The number of threads computing forecasts.
+     */
+    public ForecastPrecomputer(UserRequestForecastGenerator userRequestForecastGenerator,
+                               CurrencyRegistry currencyRegistry, int parallelism) {
+        this.userRequestForecastGenerator = userRequestForecastGenerator;
+        this.currencyRegistry = currencyRegistry;
+        this.parallelism = Math.max(parallelism, 1);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "forecast-precompute-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "forecast-precompute-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Precomputes every currency in the background now and after every following midnight.
+     */
+    public void start() {
+        scheduler.execute(this::precomputeAll);
+        scheduleRollover();
+    }
+
+    /**
+     * Schedules the precomputation of a currency whose history was replaced. Updates arriving within a short
+     * quiet period are precomputed together.
+     *
+     * @param currency The updated currency.
+     */
+    public void onDataUpdate(Currency currency) {
+        synchronized (updatedCurrencies) {
+            if (updatedCurrencies.add(currency) && updatedCurrencies.size() == 1) {
+                scheduler.schedule(this::precomputeUpdated, UPDATE_QUIET_PERIOD.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Precomputes the forecasts of the specified currencies and waits for them.
+     *
+     * @param currencies The currencies to precompute.
+     * @return The report of the run.
+     */
+    public ForecastPrecomputeReport precompute(List<Currency> currencies) {
+        final long startTime = System.nanoTime();
+        final Duration timeToLive = Duration.between(LocalDateTime.now(), nextRollover()).plus(TIME_TO_LIVE_MARGIN);
+        final List<Future<FormattedResult>> futures = new ArrayList<>();
+        for (ParsedRequest request : createRequests(currencies)) {
+            futures.add(workers.submit(() -> precomputeForecast(request, timeToLive)));
+        }
+        int forecasts = 0;
+        int failures = 0;
+        for (Future<FormattedResult> future : futures) {
+            try {
+                if (future.get().getErrorMessage() == null) {
+                    forecasts++;
+                } else {
+                    failures++;
+                }
+            } catch (ExecutionException e) {
+                logger.warn("Failed to precompute a forecast: " + e.getCause().getMessage(), e.getCause());
+                failures++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                break;
+            }
+        }
+        final ForecastPrecomputeReport report = new ForecastPrecomputeReport(currencies.size(), forecasts, failures,
+                Duration.ofNanos(System.nanoTime() - startTime));
+        logger.info("Precomputed {} forecasts for {} currencies in {} ms on {} threads ({} failed)", report.forecasts(),
+                report.currencies(), report.elapsed().toMillis(), parallelism, report.failures());
+        lastReport = report;
+        return report;
+    }
+
+    /**
+     * @return The report of the last finished run, or null if no run has finished yet.
+     */
+    public ForecastPrecomputeReport getLastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void precomputeAll() {
+        try {
+            precompute(currencyRegistry.getCurrencies());
+        } catch (RuntimeException e) {
+            logger.error("Failed to precompute forecasts: " + e.getMessage(), e);
+        }
+    }
+
+    private void precomputeUpdated() {
+        final List<Currency> currencies;
+        synchronized (updatedCurrencies) {
+            currencies = new ArrayList<>(updatedCurrencies);
+            updatedCurrencies.clear();
+        }
+        try {
+            precompute(currencies);
+        } catch (RuntimeException e) {
+            logger.error("Failed to precompute updated forecasts: " + e.getMessage(), e);
+        }
+    }
+
+    private void scheduleRollover() {
+        final long delay = Duration.between(LocalDateTime.now(), nextRollover()).toMillis();
+        scheduler.schedule(() -> {
+            scheduleRollover();
+            precomputeAll();
+        }, Math.max(delay, 0), TimeUnit.MILLISECONDS);
+    }
+
+    private static LocalDateTime nextRollover() {
+        return DateUtils.getTomorrowDate().atStartOfDay().plus(ROLLOVER_DELAY);
+    }
+
+    private FormattedResult precomputeForecast(ParsedRequest request, Duration timeToLive) throws IOException {
+        final FormattedResult result = userRequestForecastGenerator.precomputeForecast(request, timeToLive);
+        result.getChartPng();
+        return result;
+    }
+
+    /**
+     * Builds the requests the bot makes for a currency: a forecast for tomorrow as a list, and forecasts for
+     * the next week and month in every output type.
+     */
+    private List<ParsedRequest> createRequests(List<Currency> currencies) {
+        final LocalDate tomorrow = DateUtils.getTomorrowDate();
+        final List<ParsedRequest> requests = new ArrayList<>();
+        for (Currency currency : currencies) {
+            for (ForecastingAlgorithm algorithm : ForecastingAlgorithm.values()) {
+                for (RateType rateType : RateType.values()) {
+                    for (OutputType outputType : getOutputTypes(rateType)) {
+                        final ParsedRequest request = ParsedRequest.builder()
+                                .currencies(List.of(currency))
+                                .date(rateType == RateType.DAY ? Optional.of(tomorrow) : Optional.empty())
+                                .rateType(rateType)
+                                .algorithm(algorithm)
+                                .outputType(outputType)
+                                .build();
+                        if (userRequestForecastGenerator.isCacheable(request)) {
+                            requests.add(request);
+                        }
+                    }
+                }
+            }
+        }
+        return requests;
+    }
+
+    private static List<OutputType> getOutputTypes(RateType rateType) {
+        return rateType == RateType.DAY ? List.of(OutputType.LIST) : List.of(OutputType.values());
+    }
+}
@@ -0,0 +1,129 @@
+package ru.liga.rateforecaster.forecast;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.OutputType;
+import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.FormattedResult;
+import ru.liga.rateforecaster.telegrambot.model.BotState;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The ForecastWarmUp class pays the first-use cost of the forecast path in the background: it loads the
+ * history of a known currency, runs every algorithm through the UserRequestForecastGenerator, and renders
+ * a chart to PNG, which loads JFreeChart, the AWT fonts and the ImageIO writers.
+ * <p>
+ * The synthetic forecasts are discarded. Readiness is reported once all of them have run, whether or not
+ * they succeeded, since a failed warm-up only means the first real request pays the cost.
+ */
+public class ForecastWarmUp {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForecastWarmUp.class);
+
+    private final UserRequestForecastGenerator userRequestForecastGenerator;
+    private final CurrencyRegistry currencyRegistry;
+    private final CompletableFuture<Duration> readiness = new CompletableFuture<>();
+    private Thread warmUpThread;
+
+    public ForecastWarmUp(UserRequestForecastGenerator userRequestForecastGenerator, CurrencyRegistry currencyRegistry) {
+        this.userRequestForecastGenerator = userRequestForecastGenerator;
+        this.currencyRegistry = currencyRegistry;
+    }
+
+    /**
+     * Starts the warm-up on a daemon thread.
+     *
+     * @param beforeForecasts The work to do on the warm-up thread before the first forecast, such as preloading data.
+     */
+    public synchronized void start(Runnable beforeForecasts) {
+        if (warmUpThread != null) {
+            return;
+        }
+        warmUpThread = new Thread(() -> {
+            try {
+                beforeForecasts.run();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to prepare forecast warm-up: " + e.getMessage(), e);
+            }
+            run();
+        }, "forecast-warm-up");
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+    }
+
+    /**
+     * Runs the warm-up on the calling thread.
+     */
+    public void run() {
+        final long startTime = System.nanoTime();
+        final List<Currency> currencies = currencyRegistry.getCurrencies();
+        if (currencies.isEmpty()) {
+            logger.warn("No currencies known, skipping forecast warm-up");
+        } else {
+            for (ForecastingAlgorithm algorithm : ForecastingAlgorithm.values()) {
+                warmUp(currencies.get(0), algorithm);
+            }
+        }
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+        logger.info("Forecast warm-up finished in {} ms", elapsed.toMillis());
+        readiness.complete(elapsed);
+    }
+
+    public boolean isReady() {
+        return readiness.isDone();
+    }
+
+    /**
+     * Waits until the warm-up has finished.
+     *
+     * @param timeout The maximum time to wait.
+     * @return true if the warm-up finished, false if the timeout elapsed first.
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     */
+    public boolean awaitReady(Duration timeout) throws InterruptedException {
+        try {
+            readiness.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    private void warmUp(Currency currency, ForecastingAlgorithm algorithm) {
+        final long startTime = System.nanoTime();
+        try {
+            final FormattedResult list = userRequestForecastGenerator.proceedUserRequest(
+                    createRequest(currency, algorithm, RateType.WEEK, OutputType.LIST));
+            final FormattedResult chart = userRequestForecastGenerator.proceedUserRequest(
+                    createRequest(currency, algorithm, RateType.MONTH, OutputType.GRAPH));
+            chart.getChartPng();
+            logger.info("Warmed up {} on {} in {} ms (errors: {})", algorithm, currency,
+                    (System.nanoTime() - startTime) / 1_000_000,
+                    list.getErrorMessage() != null || chart.getErrorMessage() != null);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to warm up " + algorithm + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static BotState createRequest(Currency currency, ForecastingAlgorithm algorithm, RateType rateType,
+                                          OutputType outputType) {
+        final BotState botState = new BotState();
+        botState.getCurrencies().add(currency);
+        botState.setAlgorithm(algorithm);
+        botState.setPeriod(rateType);
+        botState.setOutputType(outputType);
+        return botState;
+    }
+}
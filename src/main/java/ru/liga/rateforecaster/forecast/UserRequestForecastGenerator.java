@@ -3,36 +3,65 @@ package ru.liga.rateforecaster.forecast;
 import com.opencsv.exceptions.CsvValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
 import ru.liga.rateforecaster.forecast.algorithm.factory.GenericPredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.cache.ForecastCache;
+import ru.liga.rateforecaster.forecast.cache.ForecastKey;
 import ru.liga.rateforecaster.forecast.generator.CurrencyForecastGenerator;
 import ru.liga.rateforecaster.forecast.generator.factory.CurrencyForecastGeneratorFactoryImpl;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.DateRange;
 import ru.liga.rateforecaster.model.ErrorMessage;
 import ru.liga.rateforecaster.model.FormattedResult;
 import ru.liga.rateforecaster.model.ParsedRequest;
 import ru.liga.rateforecaster.telegrambot.model.BotState;
+import ru.liga.rateforecaster.utils.DateUtils;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 /**
  * UserRequestForecastGenerator is responsible for processing user requests,
  * parsing them, generating forecasts, and handling errors.
+ * <p>
+ * When a {@link ForecastCache} is given, successful results are kept in it together with the date ranges of the
+ * currency histories they were computed from, and repeated requests are answered from it. Forecasts of the
+ * randomized algorithms, MIST and the ENSEMBLE including it, are cached only when the request fixes a seed.
  */
 public class UserRequestForecastGenerator {
     private static final Logger logger = LoggerFactory.getLogger(UserRequestForecastGenerator.class);
     private final ResourceBundle resourceBundle;
 
     private final GenericPredictionAlgorithm genericPredictionAlgorithm;
-    private final CurrencyPathResolver currencyPathResolver;
+    private final CurrencyDataRepository currencyDataRepository;
+    private final ForecastCache forecastCache;
 
     public UserRequestForecastGenerator(ResourceBundle resourceBundle,
                                         GenericPredictionAlgorithm genericPredictionAlgorithm,
-                                        CurrencyPathResolver currencyPathResolver) {
+                                        CurrencyDataRepository currencyDataRepository) {
+        this(resourceBundle, genericPredictionAlgorithm, currencyDataRepository, null);
+    }
+
+    /**
+     * @param resourceBundle             The bundle with error messages.
+     * @param genericPredictionAlgorithm The factory of prediction algorithms.
+     * @param currencyDataRepository     The repository of currency histories.
+     * @param forecastCache              The cache of formatted results, or null to compute every request.
+     */
+    public UserRequestForecastGenerator(ResourceBundle resourceBundle,
+                                        GenericPredictionAlgorithm genericPredictionAlgorithm,
+                                        CurrencyDataRepository currencyDataRepository,
+                                        ForecastCache forecastCache) {
         this.resourceBundle = resourceBundle;
         this.genericPredictionAlgorithm = genericPredictionAlgorithm;
-        this.currencyPathResolver = currencyPathResolver;
+        this.currencyDataRepository = currencyDataRepository;
+        this.forecastCache = forecastCache;
     }
     /**
      * Proceeds with the user's request, generates a forecast, and returns a FormattedResult.
@@ -51,16 +80,85 @@ public class UserRequestForecastGenerator {
     }
 
     /**
-     * Generates a forecast based on the user's parsed request.
+     * Generates a forecast based on the user's parsed request, using the cache when there is one.
      *
      * @param parsedRequest The parsed user request.
      * @return A FormattedResult containing the forecast or an error message.
      */
-    private FormattedResult generateForecast(ParsedRequest parsedRequest) {
+    public FormattedResult generateForecast(ParsedRequest parsedRequest) {
+        final ForecastKey key = isCacheable(parsedRequest) ? createCacheKey(parsedRequest) : null;
+        if (key == null) {
+            return computeForecast(parsedRequest, new HashMap<>());
+        }
+        final FormattedResult cached = forecastCache.get(key);
+        if (cached != null) {
+            logger.debug("Answered {} from the forecast cache", key);
+            return cached;
+        }
+        final long invalidationCount = forecastCache.getInvalidationCount();
+        final Map<Currency, List<DateRange>> dependencies = new HashMap<>();
+        final FormattedResult result = computeForecast(parsedRequest, dependencies);
+        if (result.getErrorMessage() == null) {
+            forecastCache.put(key, result, dependencies, invalidationCount);
+        }
+        return result;
+    }
+
+    /**
+     * Computes a forecast ahead of the request for it and stores the result in the cache. A result already
+     * cached is still valid, since results depending on changed data are dropped, and is kept as it is.
+     *
+     * @param parsedRequest The request to answer in advance.
+     * @param timeToLive    How long a newly stored result stays valid.
+     * @return A FormattedResult containing the forecast or an error message.
+     * @throws IllegalStateException If the request cannot be cached.
+     */
+    public FormattedResult precomputeForecast(ParsedRequest parsedRequest, Duration timeToLive) {
+        if (!isCacheable(parsedRequest)) {
+            throw new IllegalStateException("Request is not cacheable: " + parsedRequest);
+        }
+        final ForecastKey key = createCacheKey(parsedRequest);
+        final FormattedResult cached = forecastCache.peek(key);
+        if (cached != null) {
+            return cached;
+        }
+        final long invalidationCount = forecastCache.getInvalidationCount();
+        final Map<Currency, List<DateRange>> dependencies = new HashMap<>();
+        final FormattedResult result = computeForecast(parsedRequest, dependencies);
+        if (result.getErrorMessage() == null) {
+            forecastCache.put(key, result, dependencies, invalidationCount, timeToLive);
+        }
+        return result;
+    }
+
+    /**
+     * @param parsedRequest The request to check.
+     * @return true if the result of the request is kept in the cache, false otherwise.
+     */
+    public boolean isCacheable(ParsedRequest parsedRequest) {
+        return forecastCache != null && parsedRequest.currencies() != null && parsedRequest.algorithm() != null
+                && (!parsedRequest.algorithm().isRandomized() || parsedRequest.seed().isPresent());
+    }
+
+    private ForecastKey createCacheKey(ParsedRequest parsedRequest) {
+        final LocalDate targetDate = parsedRequest.date() == null || parsedRequest.date().isEmpty()
+                ? DateUtils.getCurrentDate()
+                : parsedRequest.date().get();
+        return new ForecastKey(List.copyOf(parsedRequest.currencies()), parsedRequest.algorithm(),
+                parsedRequest.rateType(), targetDate, parsedRequest.outputType(), parsedRequest.seed());
+    }
+
+    /**
+     * Computes a forecast, collecting the date ranges of each currency history it depends on.
+     */
+    private FormattedResult computeForecast(ParsedRequest parsedRequest,
+                                            Map<Currency, List<DateRange>> dependencies) {
         try {
             final CurrencyForecastGenerator forecast = new CurrencyForecastGeneratorFactoryImpl(
-                    genericPredictionAlgorithm, currencyPathResolver).createGenerator(parsedRequest, resourceBundle);
-            return forecast.generateForecast(parsedRequest);
+                    genericPredictionAlgorithm, currencyDataRepository).createGenerator(parsedRequest, resourceBundle);
+            final FormattedResult result = forecast.generateForecast(parsedRequest);
+            dependencies.putAll(forecast.getDependencies());
+            return result;
         } catch (CsvValidationException e) {
             logger.error("CSV validation error: ", e.getMessage());
             return new FormattedResult(new ErrorMessage(resourceBundle.getString("csvValidationError")));
@@ -0,0 +1,23 @@
+package ru.liga.rateforecaster.forecast.algorithm;
+
+import ru.liga.rateforecaster.model.CurrencyData;
+
+import java.time.LocalDate;
+
+/**
+ * Calculates the rates of a forecast horizon one date after another, in ascending order. The caller walks the
+ * series alongside the horizon and passes the position of each published date, so that one walk can serve
+ * several algorithms.
+ */
+@FunctionalInterface
+public interface HorizonSweep {
+
+    /**
+     * Calculates the rate for the next date of the horizon.
+     *
+     * @param date  The date to calculate the rate for, after the previous one.
+     * @param index The position of the date in the series, or -1 if no rate was published on it.
+     * @return The calculated currency data for the date.
+     */
+    CurrencyData rateFor(LocalDate date, int index);
+}
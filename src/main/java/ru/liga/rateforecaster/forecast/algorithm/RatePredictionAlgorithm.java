@@ -1,37 +1,131 @@
 package ru.liga.rateforecaster.forecast.algorithm;
 
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.DateRange;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * The RatePredictionAlgorithm class is an abstract base class for rate prediction algorithms.
- * It provides common methods for retrieving a rate for a specific date and calculating rates for a given date.
+ * It provides common methods for retrieving a rate for a specific date and calculating rates for a given date
+ * or for a whole forecast horizon.
  */
 public abstract class RatePredictionAlgorithm {
 
 
     /**
-     * Retrieves the rate data for the specified target date from the given list of currency data.
+     * Retrieves the rate data for the specified target date from the given rate series.
+     * The lookup goes through the date index of the series and takes constant time.
      *
-     * @param currencyDataList The list of currency data to search for the rate.
-     * @param targetDate       The target date for which the rate is sought.
+     * @param series     The rate series to search for the rate.
+     * @param targetDate The target date for which the rate is sought.
      * @return The currency data for the specified target date, or null if not found.
      */
-    public CurrencyData getRateForDate(List<CurrencyData> currencyDataList, LocalDate targetDate) {
-        return currencyDataList.stream()
-                .filter(data -> data.date().isEqual(targetDate))
-                .findFirst()
-                .orElse(null);
+    public CurrencyData getRateForDate(RateSeries series, LocalDate targetDate) {
+        final int index = series.indexOf(targetDate);
+        return index < 0 ? null : series.get(index);
     }
+
     /**
-     * Calculates the rate for the specified date using the provided list of currency data.
+     * Declares the part of the history the algorithm reads to calculate rates for the dates from the specified
+     * one onwards, so that only this part has to be loaded. The whole history is required by default.
      *
-     * @param currencyDataList The list of currency data for rate calculation.
-     * @param currentDate      The date for which the rate should be calculated.
+     * @param firstTargetDate The earliest date the rate will be calculated for.
+     * @return The part of the history needed.
+     */
+    public DataRequirement getDataRequirement(LocalDate firstTargetDate) {
+        return DataRequirement.full();
+    }
+
+    /**
+     * Declares the dates of the history the rates for the specified horizon are calculated from: adding, removing
+     * or changing a point dated within one of the returned ranges may change the rates, while a change anywhere
+     * else cannot. By default the rates depend on every date from the start of the part of the series
+     * {@link #getDataRequirement} selects, so the whole history if it requires all of it.
+     *
+     * @param series The rate series the rates were calculated from.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The ranges of dates the rates depend on.
+     */
+    public List<DateRange> getDependencies(RateSeries series, LocalDate from, LocalDate to) {
+        final DataRequirement requirement = getDataRequirement(from);
+        if (requirement.isFull() || series.size() <= requirement.latestPoints()) {
+            return List.of(DateRange.all());
+        }
+        LocalDate start = requirement.since();
+        if (requirement.latestPoints() > 0) {
+            final LocalDate latestStart = series.date(series.size() - requirement.latestPoints());
+            start = latestStart.isBefore(start) ? latestStart : start;
+        }
+        return List.of(DateRange.since(start));
+    }
+
+    /**
+     * Calculates the rate for the specified date using the provided rate series.
+     *
+     * @param series      The rate series for rate calculation.
+     * @param currentDate The date for which the rate should be calculated.
      * @return The calculated currency data for the specified date.
      */
-    public abstract CurrencyData calculateRateForDate(List<CurrencyData> currencyDataList, LocalDate currentDate);
+    public abstract CurrencyData calculateRateForDate(RateSeries series, LocalDate currentDate);
+
+    /**
+     * Calculates the rates for every date of the specified horizon. The series is walked alongside the horizon
+     * once, so each published date is matched without a lookup, and every date gets the rate the
+     * {@link #sweep} of the horizon calculates for it.
+     *
+     * @param series The rate series for rate calculation.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The calculated currency data sorted by ascending date.
+     * @throws IllegalArgumentException If the first date is after the last one.
+     */
+    public List<CurrencyData> forecastRange(RateSeries series, LocalDate from, LocalDate to) {
+        final List<CurrencyData> forecast = new ArrayList<>(horizonLength(from, to));
+        final HorizonSweep sweep = sweep(series, from, to);
+        int published = series.floorIndex(from.minusDays(1)) + 1;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (published < series.size() && series.epochDay(published) == date.toEpochDay()) {
+                forecast.add(sweep.rateFor(date, published++));
+            } else {
+                forecast.add(sweep.rateFor(date, -1));
+            }
+        }
+        return forecast;
+    }
+
+    /**
+     * Prepares the calculation of the rates for the dates of the specified horizon. The rate of each date is
+     * the one {@link #calculateRateForDate} returns for it; algorithms override this method to share the work
+     * between the dates instead of repeating it for each one.
+     *
+     * @param series The rate series for rate calculation.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The sweep calculating the rate of each date of the horizon.
+     */
+    public HorizonSweep sweep(RateSeries series, LocalDate from, LocalDate to) {
+        return (date, index) -> calculateRateForDate(series, date);
+    }
+
+    /**
+     * Returns the number of dates in the specified horizon.
+     *
+     * @param from The first date of the horizon, inclusive.
+     * @param to   The last date of the horizon, inclusive.
+     * @return The number of dates between the first and the last one, both included.
+     * @throws IllegalArgumentException If the first date is after the last one.
+     */
+    protected static int horizonLength(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Forecast horizon starts after it ends: " + from + " - " + to);
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 8, to.toEpochDay() - from.toEpochDay() + 1);
+    }
 
 }
@@ -1,104 +1,205 @@
 package ru.liga.rateforecaster.forecast.algorithm.average;
 
+import ru.liga.rateforecaster.enums.NumericMode;
 import ru.liga.rateforecaster.exception.DataFillFailureException;
 import ru.liga.rateforecaster.exception.InvalidPredictionDataException;
+import ru.liga.rateforecaster.forecast.algorithm.HorizonSweep;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.RateSeries;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.liga.rateforecaster.utils.DateUtils;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.LinkedList;
-import java.util.List;
-
-import static java.util.Objects.nonNull;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 
 /**
  * The AveragePredictionAlgorithm class represents an algorithm for calculating currency rates based on a 7-day average.
  * It extends the RatePredictionAlgorithm class and provides the logic for calculating rates and filling missing data.
+ * <p>
+ * Starting from the latest published date, every day up to the target date gets the average of the previous
+ * positive rates in the window, published or already projected, rounded to 2 decimal places. The projection walks
+ * forward once through a {@link RollingAverage}, taking constant time per day, and is kept between calls for the
+ * same series: a weekly or monthly forecast costs one projection to its furthest date. An instance is meant to
+ * serve a single request.
+ * <p>
+ * In the FIXED_POINT numeric mode the averages are computed from the fixed-point rates with integer arithmetic;
+ * in the BIG_DECIMAL mode they are reduced with {@link BigDecimal#add} and divided with {@link RoundingMode#HALF_UP}.
+ * Both give the same results.
  */
 public class AveragePredictionAlgorithm extends RatePredictionAlgorithm {
     private static final Logger logger = LoggerFactory.getLogger(AveragePredictionAlgorithm.class);
-    private static final int AVERAGE_CALCULATION_WINDOW = 7;
+    private static final int DEFAULT_WINDOW_SIZE = 7;
+    private static final int AVERAGE_SCALE = 2;
+    private static final long AVERAGE_TO_RATE_FACTOR = 100;
+
+    private final int windowSize;
+    private final NumericMode numericMode;
+    private RateSeries projectedSeries;
+    private RollingAverage rollingAverage;
+    private long[] projectedAverages;
+    private int projectedDays;
+
+    public AveragePredictionAlgorithm() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize The number of rates averaged for each day.
+     */
+    public AveragePredictionAlgorithm(int windowSize) {
+        this(windowSize, NumericMode.FIXED_POINT);
+    }
+
+    /**
+     * @param windowSize  The number of rates averaged for each day.
+     * @param numericMode The arithmetic used to compute the averages.
+     */
+    public AveragePredictionAlgorithm(int windowSize, NumericMode numericMode) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Average window size must be positive: " + windowSize);
+        }
+        this.windowSize = windowSize;
+        this.numericMode = numericMode;
+    }
 
     /**
-     * Calculates the currency rate for the specified date using a 7-day average rate.
+     * Calculates the currency rate for the specified date using the average of the rates in the window.
+     * Dates before the latest published date are not projected: their published rate is returned.
      *
-     * @param currencyData  The list of currency data for which the rate is calculated.
-     * @param targetDate    The target date for rate calculation.
+     * @param series     The rate series for which the rate is calculated.
+     * @param targetDate The target date for rate calculation.
      * @return The currency data for the specified date.
      */
     @Override
-    public CurrencyData calculateRateForDate(List<CurrencyData> currencyData, LocalDate targetDate) {
-        if (currencyData == null || currencyData.isEmpty()) {
+    public CurrencyData calculateRateForDate(RateSeries series, LocalDate targetDate) {
+        if (series == null || series.isEmpty()) {
             throw new IllegalArgumentException("currencyData cannot be null or empty.");
         }
-        BigDecimal rateForDate;
-        LinkedList<CurrencyData> currencyDataLinkedList = new LinkedList<>(currencyData);
-        if (nonNull(currencyData.get(0))) {
-            currencyData = fillMissingDates(currencyDataLinkedList, currencyData.get(0).date(), targetDate);
-            rateForDate = getAverage(currencyData, targetDate);
-        } else {
-            throw new IllegalArgumentException("currencyData's first element is null.");
+        if (targetDate.isBefore(series.lastDate())) {
+            final CurrencyData publishedRate = getRateForDate(series, targetDate);
+            if (publishedRate == null) {
+                throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
+            }
+            return publishedRate;
         }
+        return new CurrencyData(targetDate, BigDecimal.valueOf(projectAverage(series, targetDate), AVERAGE_SCALE));
+    }
 
-
-        if (rateForDate != null) {
-            return currencyData.stream().filter(data -> data.date().equals(targetDate)).findAny().orElseThrow(
-                    () -> new InvalidPredictionDataException("Failed to calculate the rate for the specified date"));
-        } else {
-            throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
+    /**
+     * Prepares the rates for every date of the horizon, extending the projection to its last date once.
+     * Published dates before the latest one are read by their position in the series.
+     *
+     * @param series The rate series for rate calculation.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The sweep calculating the rate of each date of the horizon.
+     */
+    @Override
+    public HorizonSweep sweep(RateSeries series, LocalDate from, LocalDate to) {
+        if (series == null || series.isEmpty()) {
+            throw new IllegalArgumentException("currencyData cannot be null or empty.");
+        }
+        if (!to.isBefore(series.lastDate())) {
+            projectAverage(series, to);
         }
+        return (date, index) -> {
+            if (date.isBefore(series.lastDate())) {
+                if (index < 0) {
+                    throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
+                }
+                return series.get(index);
+            }
+            return new CurrencyData(date, BigDecimal.valueOf(projectAverage(series, date), AVERAGE_SCALE));
+        };
     }
 
-    private BigDecimal getAverage(List<CurrencyData> currencyDataList, LocalDate targetDate) {
-        try {
-            final List<CurrencyData> previousData = currencyDataList.stream()
-                    .filter(data -> data.rate().compareTo(BigDecimal.ZERO) > 0 &&
-                            data.date().isBefore(targetDate))
-                    .limit(AVERAGE_CALCULATION_WINDOW)
-                    .toList();
+    /**
+     * Requires the published rates of the target dates and the rates of the window preceding the latest one.
+     *
+     * @param firstTargetDate The earliest date the rate will be calculated for.
+     * @return The part of the history needed.
+     */
+    @Override
+    public DataRequirement getDataRequirement(LocalDate firstTargetDate) {
+        return DataRequirement.latest(windowSize + 1).and(DataRequirement.since(firstTargetDate));
+    }
 
-            if (previousData.size() < AVERAGE_CALCULATION_WINDOW) {
-                logger.warn("Insufficient data for calculating based on 7-day average rate.");
-                throw new InvalidPredictionDataException("Insufficient data for calculating based on 7-day average rate.");
+    /**
+     * Returns the average projected for the target date, extending the kept projection up to it.
+     *
+     * @return The average for the target date scaled by 10^{@code AVERAGE_SCALE}.
+     */
+    private synchronized long projectAverage(RateSeries series, LocalDate targetDate) {
+        final long days = ChronoUnit.DAYS.between(series.lastDate(), targetDate);
+        if (days >= Integer.MAX_VALUE - 1) {
+            throw new InvalidPredictionDataException("Target date is too far from the latest published date");
+        }
+        if (series != projectedSeries) {
+            startProjection(series);
+        }
+        if (days >= projectedAverages.length) {
+            projectedAverages = Arrays.copyOf(projectedAverages,
+                    (int) Math.min(Integer.MAX_VALUE - 8, Math.max(days + 1, 2L * projectedAverages.length)));
+        }
+        while (projectedDays <= days) {
+            final long previous = projectedAverages[projectedDays - 1];
+            if (previous > 0) {
+                rollingAverage.push(previous * AVERAGE_TO_RATE_FACTOR);
             }
-
-            return previousData.stream()
-                    .map(CurrencyData::rate)
-                    .filter(rate -> rate.compareTo(BigDecimal.ZERO) > 0)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    .divide(BigDecimal.valueOf(previousData.size()), 2, RoundingMode.HALF_UP);
-        } catch (RuntimeException e) {
-            logger.error("Failed to calculate the rate for the specified date: " + e.getMessage(), e);
-            throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
+            projectedAverages[projectedDays++] = average(rollingAverage);
         }
+        return projectedAverages[(int) days];
     }
 
-
-
-    private LinkedList<CurrencyData> fillMissingDates(LinkedList<CurrencyData> currencyDataList,
-                                                     LocalDate currentCurrencyDataListDate,
-                                                     LocalDate targetDate) {
-        try {
-            if (currentCurrencyDataListDate.isEqual(targetDate.plusDays(1))) {
-                return currencyDataList;
-            } else {
-                final BigDecimal averageRate = getAverage(currencyDataList, currentCurrencyDataListDate);
-                currencyDataList.addFirst(new CurrencyData(currentCurrencyDataListDate, averageRate));
-                final LocalDate nextDate = DateUtils.getNextDate(currentCurrencyDataListDate);
-                final List<CurrencyData> filledCurrencyData = fillMissingDates(currencyDataList, nextDate, targetDate);
-                final LinkedList<CurrencyData> result = new LinkedList<>();
-                result.add(new CurrencyData(currentCurrencyDataListDate, averageRate));
-                result.addAll(filledCurrencyData);
-                return result;
+    /**
+     * Fills the window with the positive rates preceding the latest one and projects the latest date.
+     */
+    private void startProjection(RateSeries series) {
+        final int latestIndex = series.size() - 1;
+        final RollingAverage window = new RollingAverage(windowSize);
+        int first = latestIndex;
+        int filled = 0;
+        while (first > 0 && filled < windowSize) {
+            if (series.fixedPointRate(--first) > 0) {
+                filled++;
             }
-        } catch (RuntimeException e) {
-            logger.error("Failed to fill missing dates: " + e.getMessage(), e);
+        }
+        if (filled < windowSize) {
+            logger.warn("Insufficient data for calculating based on {}-day average rate.", windowSize);
             throw new DataFillFailureException("Failed to fill missing dates for average forecast generation.");
         }
+        for (int i = first; i < latestIndex; i++) {
+            if (series.fixedPointRate(i) > 0) {
+                window.push(series.fixedPointRate(i));
+            }
+        }
+        projectedAverages = new long[32];
+        projectedAverages[0] = average(window);
+        if (series.fixedPointRate(latestIndex) > 0) {
+            window.push(series.fixedPointRate(latestIndex));
+        }
+        rollingAverage = window;
+        projectedDays = 1;
+        projectedSeries = series;
+    }
+
+    /**
+     * @return The average of the window scaled by 10^{@code AVERAGE_SCALE}, rounded half up.
+     */
+    private long average(RollingAverage window) {
+        if (numericMode == NumericMode.FIXED_POINT) {
+            return window.average(AVERAGE_TO_RATE_FACTOR);
+        }
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = 0; i < window.count(); i++) {
+            sum = sum.add(RateSeries.fromFixedPoint(window.get(i)));
+        }
+        return sum.divide(BigDecimal.valueOf(window.size()), AVERAGE_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue().longValueExact();
     }
-}
\ No newline at end of file
+}
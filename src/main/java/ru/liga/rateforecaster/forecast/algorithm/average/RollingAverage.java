@@ -0,0 +1,78 @@
+package ru.liga.rateforecaster.forecast.algorithm.average;
+
+/**
+ * A fixed-size window of fixed-point values kept in a ring buffer with a running sum,
+ * so that adding a value and reading the sum both take constant time.
+ */
+public final class RollingAverage {
+
+    private final long[] window;
+    private int oldest;
+    private int count;
+    private long sum;
+
+    /**
+     * @param size The number of values kept in the window.
+     */
+    public RollingAverage(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be positive: " + size);
+        }
+        this.window = new long[size];
+    }
+
+    /**
+     * Adds a value to the window, replacing the oldest one once the window is full.
+     *
+     * @param value The value to add.
+     */
+    public void push(long value) {
+        if (count == window.length) {
+            sum -= window[oldest];
+        } else {
+            count++;
+        }
+        window[oldest] = value;
+        sum += value;
+        oldest = (oldest + 1) % window.length;
+    }
+
+    public int size() {
+        return window.length;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @param index The position of the value in the window, 0 being the oldest one.
+     * @return The value at this position.
+     */
+    public long get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for count " + count);
+        }
+        final int first = count == window.length ? oldest : 0;
+        return window[(first + index) % window.length];
+    }
+
+    public boolean isFull() {
+        return count == window.length;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the mean of the window divided by a factor, rounded half up.
+     *
+     * @param divisor The factor the mean is divided by, such as the ratio between two fixed-point scales.
+     * @return The rounded value of {@code sum / (size * divisor)}.
+     */
+    public long average(long divisor) {
+        final long totalDivisor = window.length * divisor;
+        return (2 * sum + totalDivisor) / (2 * totalDivisor);
+    }
+}
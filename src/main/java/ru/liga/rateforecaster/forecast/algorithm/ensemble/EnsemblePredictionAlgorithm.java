@@ -0,0 +1,173 @@
+package ru.liga.rateforecaster.forecast.algorithm.ensemble;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.exception.InvalidPredictionDataException;
+import ru.liga.rateforecaster.forecast.algorithm.HorizonSweep;
+import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
+import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.DateRange;
+import ru.liga.rateforecaster.model.EnsembleForecast;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The EnsemblePredictionAlgorithm class runs several prediction algorithms over the same horizon and combines
+ * their rates into their mean.
+ * <p>
+ * The algorithms share the work that does not depend on them: the series is read once with the union of their
+ * data requirements, and the horizon is walked once, each published date being matched by position for all of
+ * them. Every algorithm prepares its own {@link HorizonSweep}, so an ensemble costs about as much as its
+ * slowest member rather than the sum of separate runs. An algorithm that fails is left out of the forecast
+ * instead of failing it.
+ */
+public class EnsemblePredictionAlgorithm extends RatePredictionAlgorithm {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnsemblePredictionAlgorithm.class);
+
+    private final Map<ForecastingAlgorithm, RatePredictionAlgorithm> members;
+
+    /**
+     * @param members The algorithms to combine, in the order their forecasts are shown.
+     */
+    public EnsemblePredictionAlgorithm(Map<ForecastingAlgorithm, RatePredictionAlgorithm> members) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("Ensemble must combine at least one algorithm");
+        }
+        this.members = Collections.unmodifiableMap(new LinkedHashMap<>(members));
+    }
+
+    /**
+     * Calculates the mean of the rates the algorithms predict for the specified date.
+     *
+     * @param series     The historical rate series.
+     * @param targetDate The target date for which the rate is predicted.
+     * @return The combined currency rate for the target date.
+     */
+    @Override
+    public CurrencyData calculateRateForDate(RateSeries series, LocalDate targetDate) {
+        return forecastRange(series, targetDate, targetDate).get(0);
+    }
+
+    /**
+     * Calculates the mean of the rates the algorithms predict for every date of the horizon.
+     *
+     * @param series The historical rate series.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The combined currency rates sorted by ascending date.
+     */
+    @Override
+    public List<CurrencyData> forecastRange(RateSeries series, LocalDate from, LocalDate to) {
+        return forecast(series, from, to).combined();
+    }
+
+    /**
+     * Calculates the rates of every algorithm for the dates of the horizon in a single walk of the series,
+     * along with their mean.
+     *
+     * @param series The historical rate series.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The combined rates and the rates of each algorithm that completed the forecast.
+     * @throws InvalidPredictionDataException If none of the algorithms completed the forecast.
+     */
+    public EnsembleForecast forecast(RateSeries series, LocalDate from, LocalDate to) {
+        final int length = horizonLength(from, to);
+        final Map<ForecastingAlgorithm, HorizonSweep> sweeps = new LinkedHashMap<>();
+        final Map<ForecastingAlgorithm, List<CurrencyData>> forecasts = new LinkedHashMap<>();
+        for (Map.Entry<ForecastingAlgorithm, RatePredictionAlgorithm> member : members.entrySet()) {
+            try {
+                sweeps.put(member.getKey(), member.getValue().sweep(series, from, to));
+                forecasts.put(member.getKey(), new ArrayList<>(length));
+            } catch (RuntimeException e) {
+                logger.warn("{} left out of the ensemble forecast: {}", member.getKey(), e.getMessage());
+            }
+        }
+
+        int published = series.floorIndex(from.minusDays(1)) + 1;
+        for (LocalDate date = from; !date.isAfter(to) && !sweeps.isEmpty(); date = date.plusDays(1)) {
+            int index = -1;
+            if (published < series.size() && series.epochDay(published) == date.toEpochDay()) {
+                index = published++;
+            }
+            final Iterator<Map.Entry<ForecastingAlgorithm, HorizonSweep>> iterator = sweeps.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<ForecastingAlgorithm, HorizonSweep> sweep = iterator.next();
+                try {
+                    forecasts.get(sweep.getKey()).add(sweep.getValue().rateFor(date, index));
+                } catch (RuntimeException e) {
+                    logger.warn("{} left out of the ensemble forecast: {}", sweep.getKey(), e.getMessage());
+                    iterator.remove();
+                    forecasts.remove(sweep.getKey());
+                }
+            }
+        }
+        if (forecasts.isEmpty()) {
+            throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
+        }
+        return new EnsembleForecast(combine(forecasts.values(), from, length), Collections.unmodifiableMap(forecasts));
+    }
+
+    /**
+     * Requires every part of the history one of the algorithms requires.
+     *
+     * @param firstTargetDate The earliest date the rate will be calculated for.
+     * @return The part of the history needed.
+     */
+    @Override
+    public DataRequirement getDataRequirement(LocalDate firstTargetDate) {
+        DataRequirement requirement = null;
+        for (RatePredictionAlgorithm member : members.values()) {
+            final DataRequirement memberRequirement = member.getDataRequirement(firstTargetDate);
+            requirement = requirement == null ? memberRequirement : requirement.and(memberRequirement);
+        }
+        return requirement;
+    }
+
+    /**
+     * Declares every date one of the algorithms depends on.
+     *
+     * @param series The rate series the rates were calculated from.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The ranges of dates the rates depend on.
+     */
+    @Override
+    public List<DateRange> getDependencies(RateSeries series, LocalDate from, LocalDate to) {
+        final List<DateRange> dependencies = new ArrayList<>();
+        for (RatePredictionAlgorithm member : members.values()) {
+            dependencies.addAll(member.getDependencies(series, from, to));
+        }
+        return dependencies;
+    }
+
+    /**
+     * @return The mean of the rates of each date, rounded half up to {@link RateSeries#RATE_SCALE} decimal places.
+     */
+    private static List<CurrencyData> combine(Iterable<List<CurrencyData>> forecasts, LocalDate from, int length) {
+        final List<CurrencyData> combined = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            BigDecimal sum = BigDecimal.ZERO;
+            int count = 0;
+            for (List<CurrencyData> forecast : forecasts) {
+                sum = sum.add(forecast.get(i).rate());
+                count++;
+            }
+            combined.add(new CurrencyData(from.plusDays(i),
+                    sum.divide(BigDecimal.valueOf(count), RateSeries.RATE_SCALE, RoundingMode.HALF_UP)));
+        }
+        return combined;
+    }
+}
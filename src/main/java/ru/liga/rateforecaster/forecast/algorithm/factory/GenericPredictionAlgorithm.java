@@ -1,19 +1,64 @@
 package ru.liga.rateforecaster.forecast.algorithm.factory;
 
+import ru.liga.rateforecaster.enums.FillPolicy;
 import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.NumericMode;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
 import ru.liga.rateforecaster.forecast.algorithm.average.AveragePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.ensemble.EnsemblePredictionAlgorithm;
 import ru.liga.rateforecaster.forecast.algorithm.mist.MistPredictionAlgorithm;
 import ru.liga.rateforecaster.forecast.algorithm.moon.MoonPredictionAlgorithm;
 import ru.liga.rateforecaster.forecast.algorithm.year.YearPredictionAlgorithm;
 import ru.liga.rateforecaster.model.ParsedRequest;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
 /**
  * The GenericPredictionAlgorithm class is a factory for creating rate prediction algorithms based on the specified algorithm type.
  * It provides a method to create a specific prediction algorithm according to the user's request.
  */
 public class GenericPredictionAlgorithm {
 
+    private static final int DEFAULT_AVERAGE_WINDOW_DAYS = 7;
+    private static final List<ForecastingAlgorithm> ENSEMBLE_MEMBERS = List.of(ForecastingAlgorithm.AVERAGE,
+            ForecastingAlgorithm.YEAR, ForecastingAlgorithm.MOON, ForecastingAlgorithm.MIST);
+
+    private final FillPolicy fillPolicy;
+    private final int averageWindowDays;
+    private final NumericMode numericMode;
+
+    public GenericPredictionAlgorithm() {
+        this(FillPolicy.PREVIOUS);
+    }
+
+    /**
+     * @param fillPolicy The policy used by the algorithms that read rates by calendar day.
+     */
+    public GenericPredictionAlgorithm(FillPolicy fillPolicy) {
+        this(fillPolicy, DEFAULT_AVERAGE_WINDOW_DAYS);
+    }
+
+    /**
+     * @param fillPolicy        The policy used by the algorithms that read rates by calendar day.
+     * @param averageWindowDays The number of rates averaged by the AVERAGE algorithm.
+     */
+    public GenericPredictionAlgorithm(FillPolicy fillPolicy, int averageWindowDays) {
+        this(fillPolicy, averageWindowDays, NumericMode.FIXED_POINT);
+    }
+
+    /**
+     * @param fillPolicy        The policy used by the algorithms that read rates by calendar day.
+     * @param averageWindowDays The number of rates averaged by the AVERAGE algorithm.
+     * @param numericMode       The arithmetic used by the algorithms that compute new rates.
+     */
+    public GenericPredictionAlgorithm(FillPolicy fillPolicy, int averageWindowDays, NumericMode numericMode) {
+        this.fillPolicy = fillPolicy;
+        this.averageWindowDays = averageWindowDays;
+        this.numericMode = numericMode;
+    }
 
     /**
      * Creates a rate prediction algorithm based on the specified parsed request.
@@ -23,14 +68,27 @@ public class GenericPredictionAlgorithm {
      * @throws IllegalArgumentException if the specified algorithm type is invalid.
      */
     public RatePredictionAlgorithm createAlgorithm(ParsedRequest parsedRequest) {
-        ForecastingAlgorithm algorithm = parsedRequest.algorithm();
+        return createAlgorithm(parsedRequest.algorithm(), parsedRequest.seed());
+    }
 
+    private RatePredictionAlgorithm createAlgorithm(ForecastingAlgorithm algorithm, OptionalLong seed) {
         return switch (algorithm) {
-            case AVERAGE -> new AveragePredictionAlgorithm();
-            case YEAR -> new YearPredictionAlgorithm();
-            case MIST -> new MistPredictionAlgorithm();
-            case MOON -> new MoonPredictionAlgorithm();
+            case AVERAGE -> new AveragePredictionAlgorithm(averageWindowDays, numericMode);
+            case YEAR -> new YearPredictionAlgorithm(fillPolicy);
+            case MIST -> seed.isPresent()
+                    ? new MistPredictionAlgorithm(seed.getAsLong())
+                    : new MistPredictionAlgorithm();
+            case MOON -> new MoonPredictionAlgorithm(numericMode);
+            case ENSEMBLE -> createEnsemble(seed);
             default -> throw new IllegalArgumentException("Invalid algorithm: " + algorithm);
         };
     }
+
+    private RatePredictionAlgorithm createEnsemble(OptionalLong seed) {
+        final Map<ForecastingAlgorithm, RatePredictionAlgorithm> members = new LinkedHashMap<>();
+        for (ForecastingAlgorithm member : ENSEMBLE_MEMBERS) {
+            members.put(member, createAlgorithm(member, seed));
+        }
+        return new EnsemblePredictionAlgorithm(members);
+    }
 }
@@ -1,14 +1,39 @@
 package ru.liga.rateforecaster.forecast.algorithm.mist;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 
 /**
  * The DefaultRandomNumberGenerator class is an implementation of the {@link RandomNumberGenerator} interface.
- * It provides random number generation functionality using the Java built-in Random class.
+ * Every thread draws from its own {@link SplittableRandom} stream split from a common root, so threads sharing
+ * a generator never contend on it. A generator created with a seed gives the same numbers on every run
+ * when it is used by a single thread, as it is within one request.
  */
 class DefaultRandomNumberGenerator implements RandomNumberGenerator {
-    private final Random random = new Random();
+
+    /**
+     * The unseeded generator shared by all requests that do not ask for reproducible results.
+     */
+    static final DefaultRandomNumberGenerator SHARED = new DefaultRandomNumberGenerator();
+
+    private final SplittableRandom root;
+    private final ThreadLocal<SplittableRandom> streams = ThreadLocal.withInitial(this::split);
+
+    /**
+     * Creates a generator seeded from system entropy.
+     */
+    DefaultRandomNumberGenerator() {
+        this.root = new SplittableRandom();
+    }
+
+    /**
+     * Creates a generator giving a reproducible sequence of numbers.
+     *
+     * @param seed The seed of the sequence.
+     */
+    DefaultRandomNumberGenerator(long seed) {
+        this.root = new SplittableRandom(seed);
+    }
 
     /**
      * Generates a random integer within the specified bound.
@@ -18,10 +43,12 @@ class DefaultRandomNumberGenerator implements RandomNumberGenerator {
      */
     @Override
     public int nextInt(int bound) {
-        return random.nextInt(bound);
+        return streams.get().nextInt(bound);
     }
-}
-
-
-
 
+    private SplittableRandom split() {
+        synchronized (root) {
+            return root.split();
+        }
+    }
+}
@@ -4,17 +4,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import ru.liga.rateforecaster.exception.InvalidPredictionDataException;
 import ru.liga.rateforecaster.forecast.algorithm.average.AveragePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.HorizonSweep;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Optional;
 
 
 /**
  * The MistPredictionAlgorithm class represents a prediction algorithm that uses a randomized approach.
- * It generates forecasts based on random data from the provided currency data list.
+ * It generates forecasts based on random data from the provided currency data list, picking a random point
+ * of the series by index in constant time.
  */
 public class MistPredictionAlgorithm extends RatePredictionAlgorithm {
 
@@ -23,10 +25,19 @@ public class MistPredictionAlgorithm extends RatePredictionAlgorithm {
     private final RandomNumberGenerator randomNumberGenerator;
 
     /**
-     * Creates a MistPredictionAlgorithm with a default random number generator.
+     * Creates a MistPredictionAlgorithm with the default random number generator shared across threads.
      */
     public MistPredictionAlgorithm() {
-        this.randomNumberGenerator = new DefaultRandomNumberGenerator();
+        this.randomNumberGenerator = DefaultRandomNumberGenerator.SHARED;
+    }
+
+    /**
+     * Creates a MistPredictionAlgorithm whose forecasts are reproducible for the same seed and history.
+     *
+     * @param seed The seed of the random number generator.
+     */
+    public MistPredictionAlgorithm(long seed) {
+        this.randomNumberGenerator = new DefaultRandomNumberGenerator(seed);
     }
 
     /**
@@ -41,30 +52,52 @@ public class MistPredictionAlgorithm extends RatePredictionAlgorithm {
     /**
      * Calculates the currency rate for the specified target date using the Mist prediction algorithm.
      *
-     * @param currencyDataList The list of currency data to use for prediction.
-     * @param targetDate       The target date for the prediction.
+     * @param series     The rate series to use for prediction.
+     * @param targetDate The target date for the prediction.
      * @return The calculated CurrencyData for the target date.
      */
     @Override
-    public CurrencyData calculateRateForDate(List<CurrencyData> currencyDataList, LocalDate targetDate) {
+    public CurrencyData calculateRateForDate(RateSeries series, LocalDate targetDate) {
         try {
-            Optional<CurrencyData> currentYearRate = findTargetDateRate(currencyDataList, targetDate);
+            Optional<CurrencyData> currentYearRate = findTargetDateRate(series, targetDate);
             if (currentYearRate.isPresent()) {
                 return currentYearRate.get();
             }
 
-            int randomIndex = randomNumberGenerator.nextInt(currencyDataList.size());
+            int randomIndex = randomNumberGenerator.nextInt(series.size());
 
-            return currencyDataList.get(randomIndex);
+            return series.get(series.size() - 1 - randomIndex);
         } catch (RuntimeException e) {
             logger.error("Failed to calculate the rate for the specified date: " + e.getMessage(), e);
             throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
         }
     }
 
-    private Optional<CurrencyData> findTargetDateRate(List<CurrencyData> currencyDataList, LocalDate date) {
-        return currencyDataList.stream()
-                .filter(data -> data.date().isEqual(date))
-                .findFirst();
+    /**
+     * Prepares the rates for every date of the horizon. Published dates keep their rate, found by their position
+     * in the series instead of a lookup, and the other dates get a random point of the series.
+     *
+     * @param series The rate series to use for prediction.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The sweep calculating the rate of each date of the horizon.
+     */
+    @Override
+    public HorizonSweep sweep(RateSeries series, LocalDate from, LocalDate to) {
+        return (date, index) -> {
+            try {
+                if (index >= 0) {
+                    return series.get(index);
+                }
+                return series.get(series.size() - 1 - randomNumberGenerator.nextInt(series.size()));
+            } catch (RuntimeException e) {
+                logger.error("Failed to calculate the rate for the specified date: " + e.getMessage(), e);
+                throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
+            }
+        };
+    }
+
+    private Optional<CurrencyData> findTargetDateRate(RateSeries series, LocalDate date) {
+        return Optional.ofNullable(getRateForDate(series, date));
     }
 }
\ No newline at end of file
@@ -75,6 +75,47 @@ public class LinearRegression {
         svar0 = svar/n + xbar*xbar*svar1;
     }
 
+    private LinearRegression(double intercept, double slope, double r2, double svar0, double svar1) {
+        this.intercept = intercept;
+        this.slope = slope;
+        this.r2 = r2;
+        this.svar0 = svar0;
+        this.svar1 = svar1;
+    }
+
+    /**
+     * Performs a linear regression from the sums of integer data points in constant time.
+     * The centered sums are computed exactly before the division, so a constant response gives a zero slope.
+     *
+     * @param  n      the number of data points
+     * @param  sumX   the sum of the predictor values
+     * @param  sumY   the sum of the response values
+     * @param  sumXY  the sum of the products of the predictor and response values
+     * @param  sumX2  the sum of the squared predictor values
+     * @param  sumY2  the sum of the squared response values
+     * @param  yScale the factor the response values are divided by before the fit
+     * @return the regression of the data points
+     */
+    static LinearRegression fromSums(long n, long sumX, long sumY, long sumXY, long sumX2, long sumY2, double yScale) {
+        // n times the centered sums of squares and products
+        long sxx = n * sumX2 - sumX * sumX;
+        long sxy = n * sumXY - sumX * sumY;
+        double syy = ((double) n * sumY2 - (double) sumY * sumY) / (yScale * yScale);
+
+        double slope = sxy / yScale / sxx;
+        double intercept = (sumY / yScale - slope * sumX) / n;
+        double xbar = (double) sumX / n;
+        double xxbar = (double) sxx / n;
+        double ssr = slope * slope * xxbar;     // regression sum of squares
+        double rss = syy / n - ssr;             // residual sum of squares
+
+        double r2 = ssr / (syy / n);
+        double svar = rss / (n - 2);
+        double svar1 = svar / xxbar;
+        double svar0 = svar / n + xbar * xbar * svar1;
+        return new LinearRegression(intercept, slope, r2, svar0, svar1);
+    }
+
     /**
      * Returns the <em>y</em>-intercept &alpha; of the best of the best-fit line <em>y</em> = &alpha; + &beta; <em>x</em>.
      *
@@ -2,78 +2,185 @@ package ru.liga.rateforecaster.forecast.algorithm.moon;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.enums.NumericMode;
 import ru.liga.rateforecaster.exception.InvalidPredictionDataException;
+import ru.liga.rateforecaster.forecast.algorithm.HorizonSweep;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.RateSeries;
 import ru.liga.rateforecaster.utils.DateUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * The MoonPredictionAlgorithm class is responsible for predicting currency rates based on the moon phases.
+ * <p>
+ * Regressions are fitted from the {@link RegressionPrefixSums} of the series, built once per series from the
+ * earliest point the target dates can reach, so fitting the window of any date takes constant time and a long
+ * history is not accumulated beyond its last month or 30 rates.
+ * <p>
+ * In the FIXED_POINT numeric mode predictions are truncated to {@link RateSeries#RATE_SCALE} decimal places, so
+ * that rounding them half up to fewer places gives the same result as rounding the exact prediction. In the
+ * BIG_DECIMAL mode predictions keep every digit of the computed double.
  */
 public class MoonPredictionAlgorithm extends RatePredictionAlgorithm {
 
     private static final Logger logger = LoggerFactory.getLogger(MoonPredictionAlgorithm.class);
     private static final int DAYS_IN_MONTH = 30;
+    private static final double RATE_FACTOR = Math.pow(10, RateSeries.RATE_SCALE);
+
+    private final NumericMode numericMode;
+    private RateSeries summedSeries;
+    private RegressionPrefixSums prefixSums;
+
+    public MoonPredictionAlgorithm() {
+        this(NumericMode.FIXED_POINT);
+    }
+
+    /**
+     * @param numericMode The representation of the predicted rates.
+     */
+    public MoonPredictionAlgorithm(NumericMode numericMode) {
+        this.numericMode = numericMode;
+    }
 
     /**
      * Calculates the currency rate for a specific target date using moon phase prediction.
      *
-     * @param currencyDataList The list of historical currency data.
-     * @param targetDate       The target date for which the rate is predicted.
+     * @param series     The historical rate series.
+     * @param targetDate The target date for which the rate is predicted.
      * @return The predicted currency rate for the target date.
      */
     @Override
-    public CurrencyData calculateRateForDate(List<CurrencyData> currencyDataList, LocalDate targetDate) {
+    public CurrencyData calculateRateForDate(RateSeries series, LocalDate targetDate) {
         logger.info("Calculating currency rate for date: {}", targetDate);
         try {
-            List<CurrencyData> lastMonthData = getLastMonthData(currencyDataList, targetDate);
-            int n = lastMonthData.size();
-            double[] x = new double[n];
-            double[] y = new double[n];
-            for (int i = 0; i < n; i++) {
-                x[i] = lastMonthData.get(i).date().getDayOfMonth();
-                y[i] = lastMonthData.get(i).rate().doubleValue();
-            }
-            LinearRegression linearRegression = new LinearRegression(x, y);
-
-            double predictedRate = linearRegression.predict(targetDate.getDayOfMonth());
+            final CurrencyData result = predict(fitLastMonth(series, getPrefixSums(series, targetDate), targetDate),
+                    targetDate);
             logger.info("Currency rate calculated successfully.");
-            return new CurrencyData(targetDate, BigDecimal.valueOf(predictedRate));
+            return result;
+        } catch (RuntimeException e) {
+            logger.error("Failed to calculate the rate for the specified date: " + e.getMessage(), e);
+            throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
+        }
+    }
+
+    /**
+     * Calculates the rates for every date of the horizon.
+     *
+     * @param series The historical rate series.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The predicted currency rates sorted by ascending date.
+     */
+    @Override
+    public List<CurrencyData> forecastRange(RateSeries series, LocalDate from, LocalDate to) {
+        logger.info("Calculating currency rates from {} to {}", from, to);
+        final List<CurrencyData> forecast = super.forecastRange(series, from, to);
+        logger.info("Currency rates calculated successfully.");
+        return forecast;
+    }
+
+    /**
+     * Prepares the rates for every date of the horizon. The dates without a published rate share the regression
+     * over the last 30 rates, which is fitted once.
+     *
+     * @param series The historical rate series.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The sweep calculating the rate of each date of the horizon.
+     */
+    @Override
+    public HorizonSweep sweep(RateSeries series, LocalDate from, LocalDate to) {
+        final RegressionPrefixSums sums;
+        try {
+            sums = getPrefixSums(series, from);
         } catch (RuntimeException e) {
             logger.error("Failed to calculate the rate for the specified date: " + e.getMessage(), e);
             throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
         }
+        final LinearRegression[] latestMonthRegression = new LinearRegression[1];
+        return (date, index) -> {
+            try {
+                if (index >= 0) {
+                    return predict(sums.fit(getLastMonthFromIndex(series, date, true), series.size()), date);
+                }
+                if (latestMonthRegression[0] == null) {
+                    latestMonthRegression[0] = sums.fit(getLastMonthFromIndex(series, date, false), series.size());
+                }
+                return predict(latestMonthRegression[0], date);
+            } catch (RuntimeException e) {
+                logger.error("Failed to calculate the rate for the specified date: " + e.getMessage(), e);
+                throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
+            }
+        };
+    }
+
+    /**
+     * Requires the last 30 rates and every rate published within a month before the target dates.
+     *
+     * @param firstTargetDate The earliest date the rate will be calculated for.
+     * @return The part of the history needed.
+     */
+    @Override
+    public DataRequirement getDataRequirement(LocalDate firstTargetDate) {
+        return DataRequirement.latest(DAYS_IN_MONTH)
+                .and(DataRequirement.since(DateUtils.getLastMonthDate(firstTargetDate)));
+    }
+
+    /**
+     * Returns the prefix sums of the series covering the windows of the specified date and of every later one.
+     */
+    private synchronized RegressionPrefixSums getPrefixSums(RateSeries series, LocalDate firstTargetDate) {
+        final int fromIndex = Math.min(series.floorIndex(DateUtils.getLastMonthDate(firstTargetDate)) + 1,
+                Math.max(0, series.size() - DAYS_IN_MONTH));
+        if (series != summedSeries || fromIndex < prefixSums.fromIndex()) {
+            prefixSums = new RegressionPrefixSums(series, fromIndex);
+            summedSeries = series;
+        }
+        return prefixSums;
+    }
+
+    private LinearRegression fitLastMonth(RateSeries series, RegressionPrefixSums sums, LocalDate targetDate) {
+        return sums.fit(getLastMonthFromIndex(series, targetDate, series.indexOf(targetDate) >= 0), series.size());
+    }
+
+    private CurrencyData predict(LinearRegression linearRegression, LocalDate targetDate) {
+        final double predictedRate = linearRegression.predict(targetDate.getDayOfMonth());
+        if (numericMode == NumericMode.BIG_DECIMAL) {
+            return new CurrencyData(targetDate, BigDecimal.valueOf(predictedRate));
+        }
+        return new CurrencyData(targetDate, RateSeries.fromFixedPoint(truncateToFixedPoint(predictedRate)));
+    }
+
+    private static long truncateToFixedPoint(double rate) {
+        final double scaled = rate * RATE_FACTOR;
+        if (!Double.isFinite(scaled) || Math.abs(scaled) >= Long.MAX_VALUE) {
+            throw new ArithmeticException("Predicted rate is out of range: " + rate);
+        }
+        return (long) scaled;
     }
 
     /**
-     * Retrieves the currency data for the last month before the target date.
-     * If the target date is not found in the data, the method returns data for the last 30 days.
+     * Finds where the currency data for the last month before the target date starts.
+     * If the target date is not found in the data, the data of the last 30 days is used.
      *
-     * @param currencyDataList The list of historical currency data.
+     * @param series           The historical rate series.
      * @param targetDate       The target date for which the data is retrieved.
-     * @return A list of currency data for the last month before the target date or the last 30 days if the target date is not found.
+     * @param targetDateExists Whether a rate was published on the target date.
+     * @return The index of the first point of the last month before the target date, or of the last 30 days
+     * if the target date is not found. The data extends to the end of the series.
      */
-    private List<CurrencyData> getLastMonthData(List<CurrencyData> currencyDataList, LocalDate targetDate) {
+    private int getLastMonthFromIndex(RateSeries series, LocalDate targetDate, boolean targetDateExists) {
         logger.info("Retrieving data for the last month before target date: {}", targetDate);
-        boolean targetDateExists = currencyDataList.stream()
-                .anyMatch(data -> data.date().isEqual(targetDate));
 
         if (targetDateExists) {
-            LocalDate lastMonthDate = DateUtils.getLastMonthDate(targetDate);
-            return currencyDataList.stream()
-                    .filter(data -> data.date().isAfter(lastMonthDate))
-                    .collect(Collectors.toList());
+            return series.floorIndex(DateUtils.getLastMonthDate(targetDate)) + 1;
         } else {
-            return currencyDataList.stream()
-                    .sorted(Comparator.comparing(CurrencyData::date).reversed())
-                    .limit(DAYS_IN_MONTH)
-                    .collect(Collectors.toList());
+            return Math.max(0, series.size() - DAYS_IN_MONTH);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package ru.liga.rateforecaster.forecast.algorithm.moon;
+
+import ru.liga.rateforecaster.model.RateSeries;
+
+/**
+ * Cumulative regression sums over a rate series, where x is the day of month of a point and y its fixed-point rate.
+ * Built in one pass, they give the regression of any contiguous range of points in constant time. The sums may
+ * start from a later point, so that only the part of a long series the regressions can reach is accumulated.
+ */
+public final class RegressionPrefixSums {
+
+    private static final double RATE_FACTOR = Math.pow(10, RateSeries.RATE_SCALE);
+
+    private final int fromIndex;
+    private final long[] sumX;
+    private final long[] sumY;
+    private final long[] sumXY;
+    private final long[] sumX2;
+    private final long[] sumY2;
+
+    /**
+     * @param series The series to accumulate.
+     */
+    public RegressionPrefixSums(RateSeries series) {
+        this(series, 0);
+    }
+
+    /**
+     * @param series    The series to accumulate.
+     * @param fromIndex The index of the first point accumulated.
+     */
+    public RegressionPrefixSums(RateSeries series, int fromIndex) {
+        if (fromIndex < 0 || fromIndex > series.size()) {
+            throw new IndexOutOfBoundsException("Index " + fromIndex + " out of bounds for size " + series.size());
+        }
+        this.fromIndex = fromIndex;
+        final int size = series.size() - fromIndex;
+        sumX = new long[size + 1];
+        sumY = new long[size + 1];
+        sumXY = new long[size + 1];
+        sumX2 = new long[size + 1];
+        sumY2 = new long[size + 1];
+        for (int i = 0; i < size; i++) {
+            final long x = series.date(fromIndex + i).getDayOfMonth();
+            final long y = series.fixedPointRate(fromIndex + i);
+            sumX[i + 1] = sumX[i] + x;
+            sumY[i + 1] = sumY[i] + y;
+            sumXY[i + 1] = sumXY[i] + x * y;
+            sumX2[i + 1] = sumX2[i] + x * x;
+            sumY2[i + 1] = sumY2[i] + y * y;
+        }
+    }
+
+    /**
+     * @return The index of the first accumulated point.
+     */
+    public int fromIndex() {
+        return fromIndex;
+    }
+
+    /**
+     * @return The size of the accumulated series, which is the index after the last accumulated point.
+     */
+    public int size() {
+        return fromIndex + sumX.length - 1;
+    }
+
+    /**
+     * Returns the sums of the points between the specified indexes.
+     *
+     * @param fromIndex The index of the first point in the series, inclusive, not before the first accumulated one.
+     * @param toIndex   The index of the last point in the series, exclusive.
+     * @return The sums of the selected points, which can be updated as the window slides.
+     */
+    public RegressionSums sums(int fromIndex, int toIndex) {
+        if (fromIndex < this.fromIndex || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid range [" + fromIndex + ", " + toIndex + ") of ["
+                    + this.fromIndex + ", " + size() + ")");
+        }
+        final int from = fromIndex - this.fromIndex;
+        final int to = toIndex - this.fromIndex;
+        return new RegressionSums(to - from,
+                sumX[to] - sumX[from],
+                sumY[to] - sumY[from],
+                sumXY[to] - sumXY[from],
+                sumX2[to] - sumX2[from],
+                sumY2[to] - sumY2[from]);
+    }
+
+    /**
+     * Fits the regression of the rates between the specified indexes against their day of month.
+     *
+     * @param fromIndex The index of the first point in the series, inclusive, not before the first accumulated one.
+     * @param toIndex   The index of the last point in the series, exclusive.
+     * @return The regression of the selected points.
+     */
+    public LinearRegression fit(int fromIndex, int toIndex) {
+        return sums(fromIndex, toIndex).fit(RATE_FACTOR);
+    }
+}
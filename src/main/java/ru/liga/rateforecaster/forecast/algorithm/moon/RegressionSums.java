@@ -0,0 +1,72 @@
+package ru.liga.rateforecaster.forecast.algorithm.moon;
+
+/**
+ * The running sums a simple linear regression is fitted from: the number of points and the sums of
+ * x, y, xy, x^2 and y^2. Points are integers, so the sums are exact, and they can be added and removed
+ * one by one as a window slides over a series.
+ */
+public final class RegressionSums {
+
+    private long count;
+    private long sumX;
+    private long sumY;
+    private long sumXY;
+    private long sumX2;
+    private long sumY2;
+
+    public RegressionSums() {
+    }
+
+    RegressionSums(long count, long sumX, long sumY, long sumXY, long sumX2, long sumY2) {
+        this.count = count;
+        this.sumX = sumX;
+        this.sumY = sumY;
+        this.sumXY = sumXY;
+        this.sumX2 = sumX2;
+        this.sumY2 = sumY2;
+    }
+
+    /**
+     * Adds a point to the sums, as when it enters the window.
+     *
+     * @param x The value of the predictor variable.
+     * @param y The value of the response variable.
+     */
+    public void add(long x, long y) {
+        count++;
+        sumX += x;
+        sumY += y;
+        sumXY += x * y;
+        sumX2 += x * x;
+        sumY2 += y * y;
+    }
+
+    /**
+     * Removes a point previously added to the sums, as when it leaves the window.
+     *
+     * @param x The value of the predictor variable.
+     * @param y The value of the response variable.
+     */
+    public void remove(long x, long y) {
+        count--;
+        sumX -= x;
+        sumY -= y;
+        sumXY -= x * y;
+        sumX2 -= x * x;
+        sumY2 -= y * y;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Fits the regression of the points in the sums in constant time.
+     *
+     * @param yScale The factor the response values were multiplied by, such as 10^4 for fixed-point rates.
+     * @return The regression of the points with the response values divided by the scale.
+     */
+    public LinearRegression fit(double yScale) {
+        return LinearRegression.fromSums(count, sumX, sumY, sumXY, sumX2, sumY2, yScale);
+    }
+}
@@ -2,88 +2,172 @@ package ru.liga.rateforecaster.forecast.algorithm.year;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.enums.FillPolicy;
 import ru.liga.rateforecaster.exception.InvalidPredictionDataException;
+import ru.liga.rateforecaster.forecast.algorithm.HorizonSweep;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.DateRange;
+import ru.liga.rateforecaster.model.DenseDailySeries;
+import ru.liga.rateforecaster.model.RateSeries;
 import ru.liga.rateforecaster.utils.DateUtils;
 
 import javax.validation.constraints.NotNull;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.Period;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * The YearPredictionAlgorithm class is responsible for predicting currency rates based on historical data from the same date in the previous year.
+ * Weekends and holidays are read from the dense daily view of the series instead of walking back day by day.
  */
 public class YearPredictionAlgorithm extends RatePredictionAlgorithm {
     private static final Logger logger = LoggerFactory.getLogger(YearPredictionAlgorithm.class);
     private static final int MAX_ATTEMPTS = 2;
 
+    private final FillPolicy fillPolicy;
+
+    /**
+     * Creates a YearPredictionAlgorithm that repeats the latest published rate over weekends and holidays.
+     */
+    public YearPredictionAlgorithm() {
+        this(FillPolicy.PREVIOUS);
+    }
+
+    /**
+     * Creates a YearPredictionAlgorithm with a custom fill policy for weekends and holidays.
+     *
+     * @param fillPolicy The policy used for the days without a published rate.
+     */
+    public YearPredictionAlgorithm(FillPolicy fillPolicy) {
+        this.fillPolicy = fillPolicy;
+    }
+
     /**
      * Calculates the currency rate for a specific target date based on historical data from the same date in the previous year.
      *
-     * @param currencyDataList The list of historical currency data.
-     * @param targetDate       The target date for which the rate is predicted.
+     * @param series     The historical rate series.
+     * @param targetDate The target date for which the rate is predicted.
      * @return The predicted currency rate for the target date.
      */
     @Override
-    public CurrencyData calculateRateForDate(List<CurrencyData> currencyDataList, LocalDate targetDate) {
-        return findTargetDateRate(currencyDataList, targetDate)
-                .orElseGet(() -> getDefaultCurrencyData(currencyDataList, targetDate));
+    public CurrencyData calculateRateForDate(RateSeries series, LocalDate targetDate) {
+        return findTargetDateRate(series, targetDate)
+                .orElseGet(() -> getDefaultCurrencyData(series, targetDate));
+    }
+
+    /**
+     * Prepares the rates for every date of the horizon. Published dates keep their rate, and the other dates read
+     * the rate of the year before from the dense daily view of the series, which is built once.
+     *
+     * @param series The historical rate series.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The sweep calculating the rate of each date of the horizon.
+     */
+    @Override
+    public HorizonSweep sweep(RateSeries series, LocalDate from, LocalDate to) {
+        final DenseDailySeries dailySeries = series.isEmpty() ? null : series.daily(fillPolicy);
+        return (date, index) -> index >= 0 ? series.get(index) : getDefaultCurrencyData(series, dailySeries, date);
+    }
+
+    /**
+     * Declares the horizon itself, whose published dates are returned as they are, and the same dates of every
+     * year before, widened by the days a weekend or holiday rate may be taken from. With the LINEAR fill policy
+     * a filled rate also depends on the next published rate, so each year-ago range extends to it. Points added
+     * before the first one change how many years are searched, so the dates up to it are declared as well.
+     *
+     * @param series The rate series the rates were calculated from.
+     * @param from   The first date of the horizon, inclusive.
+     * @param to     The last date of the horizon, inclusive.
+     * @return The ranges of dates the rates depend on.
+     */
+    @Override
+    public List<DateRange> getDependencies(RateSeries series, LocalDate from, LocalDate to) {
+        if (series.isEmpty()) {
+            return List.of(DateRange.all());
+        }
+        final List<DateRange> dependencies = new ArrayList<>();
+        dependencies.add(new DateRange(LocalDate.MIN, series.firstDate()));
+        dependencies.add(new DateRange(from, to));
+        final int years = calculateYearDifferenceBetweenDates(series, to) + 1;
+        for (int year = 1; year <= years; year++) {
+            // a chained year-ago date may land a day earlier than the direct one when it passes a 29 February
+            final LocalDate rangeStart = from.minusYears(year).minusDays(MAX_ATTEMPTS + 1);
+            LocalDate rangeEnd = to.minusYears(year);
+            if (rangeEnd.isBefore(series.firstDate())) {
+                break;
+            }
+            if (fillPolicy == FillPolicy.LINEAR) {
+                final int next = series.floorIndex(rangeEnd) + 1;
+                rangeEnd = next < series.size() ? series.date(next) : LocalDate.MAX;
+            }
+            dependencies.add(new DateRange(rangeStart, rangeEnd));
+        }
+        return dependencies;
+    }
+
+    @NotNull
+    private CurrencyData getDefaultCurrencyData(RateSeries series, LocalDate targetDate) {
+        return getDefaultCurrencyData(series, series.isEmpty() ? null : series.daily(fillPolicy), targetDate);
     }
 
     @NotNull
-    private CurrencyData getDefaultCurrencyData(List<CurrencyData> currencyDataList, LocalDate targetDate) {
+    private CurrencyData getDefaultCurrencyData(RateSeries series, DenseDailySeries dailySeries, LocalDate targetDate) {
         try {
-            return findLastYearRate(currencyDataList, targetDate);
+            return findLastYearRate(series, dailySeries, targetDate);
         } catch (InvalidPredictionDataException e) {
             logger.error("Failed to calculate the rate for the specified date: " + e.getMessage(), e);
             throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
         }
     }
 
-    private CurrencyData findLastYearRate(List<CurrencyData> currencyDataList, LocalDate targetDate) {
+    private CurrencyData findLastYearRate(RateSeries series, DenseDailySeries dailySeries, LocalDate targetDate) {
 
-        if (currencyDataList.isEmpty()) {
+        if (series.isEmpty()) {
             throw new InvalidPredictionDataException("Failed to calculate the rate for the specified date");
         }
 
-        Optional<CurrencyData> lastYearRate = Optional.empty();
         LocalDate targetDateNew = targetDate;
-        int maxAttemptsAccordingToNumberOfYears = calculateYearDifferenceBetweenDates(currencyDataList, targetDate);
+        int maxAttemptsAccordingToNumberOfYears = calculateYearDifferenceBetweenDates(series, targetDate);
         for (int yearIterationAttempts = 0; yearIterationAttempts <= maxAttemptsAccordingToNumberOfYears;
              yearIterationAttempts++) {
-            int attemptsDueToEmptyWeekendRate = 0;
             targetDateNew = DateUtils.getLastYearDate(targetDateNew);
-            LocalDate targerDateLetAloneWeekend = targetDateNew;
-            lastYearRate = findTargetDateRate(currencyDataList, targerDateLetAloneWeekend);
+            Optional<BigDecimal> lastYearRate = findRateLetAloneWeekend(dailySeries, targetDateNew);
             if (lastYearRate.isPresent()) {
-                return new CurrencyData(targetDate, lastYearRate.get().rate());
-            }
-            while (attemptsDueToEmptyWeekendRate <= MAX_ATTEMPTS) {
-                lastYearRate = findTargetDateRate(currencyDataList, targerDateLetAloneWeekend);
-                if (lastYearRate.isPresent()) {
-                    return new CurrencyData(targetDate, lastYearRate.get().rate());
-                }
-                targerDateLetAloneWeekend = DateUtils.getPreviousDate(targerDateLetAloneWeekend);
-                attemptsDueToEmptyWeekendRate++;
+                return new CurrencyData(targetDate, lastYearRate.get());
             }
         }
         throw new InvalidPredictionDataException("Failed to find the exchange rate for the specified date.");
     }
 
-    private Optional<CurrencyData> findTargetDateRate(List<CurrencyData> currencyDataList, LocalDate date) {
-        return currencyDataList.stream()
-                .filter(data -> data.date().isEqual(date))
-                .findFirst();
+    /**
+     * Finds the rate of the date, accepting a rate published at most {@code MAX_ATTEMPTS} days earlier
+     * so that weekends and holidays are skipped.
+     */
+    private Optional<BigDecimal> findRateLetAloneWeekend(DenseDailySeries dailySeries, LocalDate date) {
+        if (dailySeries.isEmpty() || date.isBefore(dailySeries.firstDate())) {
+            return Optional.empty();
+        }
+        final LocalDate availableDate = date.isAfter(dailySeries.lastDate()) ? dailySeries.lastDate() : date;
+        final long daysSincePublication = dailySeries.daysSinceObservation(availableDate)
+                + ChronoUnit.DAYS.between(availableDate, date);
+        if (daysSincePublication > MAX_ATTEMPTS) {
+            return Optional.empty();
+        }
+        return Optional.of(dailySeries.rate(availableDate));
+    }
+
+    private Optional<CurrencyData> findTargetDateRate(RateSeries series, LocalDate date) {
+        return Optional.ofNullable(getRateForDate(series, date));
     }
 
-    private int calculateYearDifferenceBetweenDates(List<CurrencyData> currencyDataList, LocalDate targetDate) {
-        LocalDate oldestDate = currencyDataList.stream()
-                .map(CurrencyData::date)
-                .min(LocalDate::compareTo)
-                .orElse(targetDate);
+    private int calculateYearDifferenceBetweenDates(RateSeries series, LocalDate targetDate) {
+        LocalDate oldestDate = series.isEmpty() ? targetDate : series.firstDate();
         return Period.between(oldestDate, targetDate).getYears();
     }
 
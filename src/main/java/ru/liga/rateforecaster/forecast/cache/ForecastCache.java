@@ -0,0 +1,252 @@
+package ru.liga.rateforecaster.forecast.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.DateRange;
+import ru.liga.rateforecaster.model.FormattedResult;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * The ForecastCache class keeps the formatted results of recent forecasts so that repeated requests are answered
+ * from memory.
+ * <p>
+ * The cache holds at most {@code capacity} entries, each living for the configured time to live. When it is full,
+ * a new result is admitted only if its key was requested more often than the key of the least recently used entry,
+ * which it then replaces; request frequencies are estimated by a {@link FrequencySketch}. This keeps one-off
+ * requests from pushing popular forecasts out. Precomputed results are never requested before they are stored,
+ * so they bypass admission and always replace the least recently used entry.
+ * <p>
+ * Every entry records the date ranges of each currency history its forecast was computed from. When the history
+ * of a currency changes, {@link #invalidate} drops only the entries depending on the changed dates, so the rest
+ * stay cached through updates. A result computed while the data changes could miss such an invalidation, so
+ * callers read {@link #getInvalidationCount()} before reading the data, and a result is not stored if an
+ * invalidation happened since.
+ */
+public class ForecastCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForecastCache.class);
+
+    private final int capacity;
+    private final long timeToLiveNanos;
+    private final LongSupplier clock;
+    private final FrequencySketch frequencySketch;
+    private final LinkedHashMap<ForecastKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+    private long invalidations;
+    private long invalidationCount;
+
+    /**
+     * @param capacity   The maximum number of cached results.
+     * @param timeToLive How long a result stays valid after it is stored.
+     */
+    public ForecastCache(int capacity, Duration timeToLive) {
+        this(capacity, timeToLive, System::nanoTime);
+    }
+
+    /**
+     * @param capacity   The maximum number of cached results.
+     * @param timeToLive How long a result stays valid after it is stored.
+     * @param clock      The source of the current time in nanoseconds.
+     */
+    public ForecastCache(int capacity, Duration timeToLive, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.clock = clock;
+        this.frequencySketch = new FrequencySketch(capacity);
+    }
+
+    /**
+     * Returns the cached result for the specified key and counts the request towards the key's frequency.
+     *
+     * @param key The key of the forecast.
+     * @return The cached result, or null if there is no live entry for the key.
+     */
+    public synchronized FormattedResult get(ForecastKey key) {
+        frequencySketch.increment(key);
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.expiresAt - clock.getAsLong() <= 0) {
+            entries.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result;
+    }
+
+    /**
+     * Returns the cached result for the specified key without counting a request towards its frequency
+     * or the hit rate.
+     *
+     * @param key The key of the forecast.
+     * @return The cached result, or null if there is no live entry for the key.
+     */
+    public synchronized FormattedResult peek(ForecastKey key) {
+        final Entry entry = entries.get(key);
+        return entry != null && entry.expiresAt - clock.getAsLong() > 0 ? entry.result : null;
+    }
+
+    /**
+     * Stores the result of a forecast depending on the whole history of every currency of its key,
+     * subject to admission when the cache is full.
+     *
+     * @param key    The key of the forecast.
+     * @param result The formatted result to keep.
+     * @return true if the result was stored, false if it was not admitted.
+     */
+    public synchronized boolean put(ForecastKey key, FormattedResult result) {
+        final Map<Currency, List<DateRange>> dependencies = new HashMap<>();
+        for (Currency currency : key.currencies()) {
+            dependencies.put(currency, List.of(DateRange.all()));
+        }
+        return put(key, result, dependencies, invalidationCount, timeToLiveNanos, true);
+    }
+
+    /**
+     * Stores the result of a forecast, subject to admission when the cache is full.
+     *
+     * @param key               The key of the forecast.
+     * @param result            The formatted result to keep.
+     * @param dependencies      The date ranges of each currency history the forecast was computed from.
+     * @param invalidationCount The {@link #getInvalidationCount() invalidation count} read before the data was.
+     * @return true if the result was stored, false if it was not admitted or may be stale.
+     */
+    public boolean put(ForecastKey key, FormattedResult result, Map<Currency, List<DateRange>> dependencies,
+                       long invalidationCount) {
+        return put(key, result, dependencies, invalidationCount, timeToLiveNanos, true);
+    }
+
+    /**
+     * Stores a precomputed result of a forecast for a specific time, so that it stays until the next precomputation
+     * replaces it. Admission is bypassed: when the cache is full, the result replaces the least recently used entry.
+     *
+     * @param key               The key of the forecast.
+     * @param result            The formatted result to keep.
+     * @param dependencies      The date ranges of each currency history the forecast was computed from.
+     * @param invalidationCount The {@link #getInvalidationCount() invalidation count} read before the data was.
+     * @param timeToLive        How long the result stays valid.
+     * @return true if the result was stored, false if it may be stale.
+     */
+    public boolean put(ForecastKey key, FormattedResult result, Map<Currency, List<DateRange>> dependencies,
+                       long invalidationCount, Duration timeToLive) {
+        return put(key, result, dependencies, invalidationCount, timeToLive.toNanos(), false);
+    }
+
+    private synchronized boolean put(ForecastKey key, FormattedResult result,
+                                     Map<Currency, List<DateRange>> dependencies, long readInvalidationCount,
+                                     long timeToLiveNanos, boolean admit) {
+        if (readInvalidationCount != invalidationCount) {
+            logger.debug("Forecast {} not stored: the data changed while it was computed", key);
+            return false;
+        }
+        final long now = clock.getAsLong();
+        final Entry entry = new Entry(result, now + timeToLiveNanos, Map.copyOf(dependencies));
+        if (entries.containsKey(key) || entries.size() < capacity || removeExpired(now)) {
+            entries.put(key, entry);
+            return true;
+        }
+        final Map.Entry<ForecastKey, Entry> victim = entries.entrySet().iterator().next();
+        if (admit && frequencySketch.frequency(key) <= frequencySketch.frequency(victim.getKey())) {
+            rejections++;
+            logger.debug("Forecast {} not admitted to the cache", key);
+            return false;
+        }
+        entries.remove(victim.getKey());
+        evictions++;
+        entries.put(key, entry);
+        return true;
+    }
+
+    /**
+     * Drops the results depending on any of the specified dates of a currency history.
+     *
+     * @param currency The currency whose history changed.
+     * @param changed  The range of the changed dates.
+     * @return The number of dropped results.
+     */
+    public synchronized int invalidate(Currency currency, DateRange changed) {
+        invalidationCount++;
+        int removed = 0;
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().dependsOn(currency, changed)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        invalidations += removed;
+        logger.info("Invalidated {} of {} cached forecasts after {} changed from {} to {}", removed,
+                entries.size() + removed, currency, changed.from(), changed.to());
+        return removed;
+    }
+
+    /**
+     * @return The number of invalidations so far, including clears.
+     */
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public synchronized void clear() {
+        invalidationCount++;
+        entries.clear();
+    }
+
+    /**
+     * @return The counters of this cache.
+     */
+    public synchronized ForecastCacheStats getStats() {
+        return new ForecastCacheStats(hits, misses, evictions, rejections, invalidations, entries.size());
+    }
+
+    /**
+     * @return true if at least one expired entry was removed, false otherwise.
+     */
+    private boolean removeExpired(long now) {
+        boolean removed = false;
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt - now <= 0) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    private record Entry(FormattedResult result, long expiresAt, Map<Currency, List<DateRange>> dependencies) {
+
+        private boolean dependsOn(Currency currency, DateRange changed) {
+            final List<DateRange> ranges = dependencies.get(currency);
+            if (ranges == null) {
+                return false;
+            }
+            for (DateRange range : ranges) {
+                if (range.overlaps(changed)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
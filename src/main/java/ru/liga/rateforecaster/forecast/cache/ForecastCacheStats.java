@@ -0,0 +1,24 @@
+package ru.liga.rateforecaster.forecast.cache;
+
+/**
+ * A record representing the counters of a {@link ForecastCache} since it was created.
+ *
+ * @param hits          The number of lookups that found a live entry.
+ * @param misses        The number of lookups that found no entry or an expired one.
+ * @param evictions     The number of entries dropped to make room for new ones.
+ * @param rejections    The number of results not admitted because they were requested less often than the entry
+ *                      they would replace.
+ * @param invalidations The number of entries dropped because the data they depend on changed.
+ * @param size          The current number of entries.
+ */
+public record ForecastCacheStats(long hits, long misses, long evictions, long rejections, long invalidations,
+                                 int size) {
+
+    /**
+     * @return The share of lookups that were hits, or 0 if there were none.
+     */
+    public double hitRate() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
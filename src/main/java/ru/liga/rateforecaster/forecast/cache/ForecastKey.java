@@ -0,0 +1,25 @@
+package ru.liga.rateforecaster.forecast.cache;
+
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.OutputType;
+import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.model.Currency;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * A record identifying a cached forecast: what was asked for and the date the forecast was resolved against.
+ * Changes to the currency data are handled by invalidating the entries that depend on them, see {@link ForecastCache}.
+ *
+ * @param currencies   The requested currencies in request order.
+ * @param algorithm    The forecasting algorithm.
+ * @param rateType     The forecast period.
+ * @param targetDate   The requested date, or the current date when the request has none.
+ * @param outputType   The output type of the result.
+ * @param seed         The seed of a randomized algorithm, if any.
+ */
+public record ForecastKey(List<Currency> currencies, ForecastingAlgorithm algorithm, RateType rateType,
+                          LocalDate targetDate, OutputType outputType, OptionalLong seed) {
+}
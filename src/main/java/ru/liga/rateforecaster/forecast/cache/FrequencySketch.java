@@ -0,0 +1,67 @@
+package ru.liga.rateforecaster.forecast.cache;
+
+/**
+ * A count-min sketch estimating how often keys were requested recently, in constant space.
+ * Counters saturate at 15 and are all halved once the number of recorded requests reaches ten times
+ * the cache capacity, so that old popularity fades.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final int[] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        final int width = Integer.highestOneBit(Math.max(16, capacity * 2 - 1)) << 1;
+        this.counters = new int[width * DEPTH];
+        this.mask = width - 1;
+        this.sampleSize = Math.max(10 * capacity, 16);
+    }
+
+    void increment(Object key) {
+        final int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            final int slot = slot(hash, row);
+            if (counters[slot] < MAX_COUNT) {
+                counters[slot]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        final int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters[slot(hash, row)]);
+        }
+        return frequency;
+    }
+
+    private int slot(int hash, int row) {
+        final int rowHash = spread(hash * SEEDS[row]);
+        return row * (mask + 1) + (rowHash & mask);
+    }
+
+    private void reset() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>>= 1;
+        }
+        additions /= 2;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45D9F3B;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,30 +1,44 @@
 package ru.liga.rateforecaster.forecast.generator;
 
 import com.opencsv.exceptions.CsvValidationException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
-import ru.liga.rateforecaster.data.processor.CurrencyDataProcessor;
-import ru.liga.rateforecaster.enums.Currency;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.ensemble.EnsemblePredictionAlgorithm;
+import ru.liga.rateforecaster.formatter.model.CurrencyDataForResultOutput;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.DateRange;
+import ru.liga.rateforecaster.model.EnsembleForecast;
 import ru.liga.rateforecaster.model.FormattedResult;
 import ru.liga.rateforecaster.model.ParsedRequest;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The CurrencyForecastGenerator class represents an abstract generator for currency forecasts.
- * It provides methods to create forecasts and fill in missing data in currency data lists.
+ * It provides methods to create forecasts and access the shared currency history.
  * Subclasses of this class implement specific forecast generation logic.
+ * <p>
+ * While generating a forecast, subclasses record the dates of each currency history it was computed from,
+ * so that a kept result can be dropped when only these dates change.
  */
 public abstract class CurrencyForecastGenerator {
 
-    private static final Logger logger = LoggerFactory.getLogger(CurrencyForecastGenerator.class);
+    private final CurrencyDataRepository currencyDataRepository;
+    private final Map<Currency, List<DateRange>> dependencies = new LinkedHashMap<>();
 
-    private final CurrencyPathResolver currencyPathResolver;
-
-    protected CurrencyForecastGenerator(CurrencyPathResolver currencyPathResolver) {
-        this.currencyPathResolver = currencyPathResolver;
+    protected CurrencyForecastGenerator(CurrencyDataRepository currencyDataRepository) {
+        this.currencyDataRepository = currencyDataRepository;
     }
 
 
@@ -42,18 +56,72 @@ public abstract class CurrencyForecastGenerator {
             CsvValidationException;
 
     /**
-     * Creates a data processor for the specified currency.
+     * Returns the shared history of the specified currency from the repository.
+     *
+     * @param currency The currency whose history is requested.
+     * @return The immutable series of the currency sorted by ascending date.
+     * @throws CsvValidationException If a CSV validation error occurs.
+     * @throws IOException            If an IO error occurs.
+     */
+    protected RateSeries getSeries(Currency currency) throws CsvValidationException, IOException {
+        return currencyDataRepository.getSeries(currency);
+    }
+
+    /**
+     * Returns a part of the history of the specified currency from the repository.
+     *
+     * @param currency    The currency whose history is requested.
+     * @param requirement The part of the history needed by the forecast.
+     * @return A series sorted by ascending date containing at least the required points.
+     * @throws CsvValidationException If a CSV validation error occurs.
+     * @throws IOException            If an IO error occurs.
+     */
+    protected RateSeries getSeries(Currency currency, DataRequirement requirement) throws CsvValidationException, IOException {
+        return currencyDataRepository.getSeries(currency, requirement);
+    }
+
+    /**
+     * Calculates the rates of a currency for every date of the horizon. The forecast of an ensemble carries
+     * the forecasts of the algorithms it combines, calculated in the same walk, to show them side by side.
      *
-     * @param currency The currency for which to create the data processor.
-     * @return A CurrencyDataProcessor for the specified currency.
+     * @param currency  The currency of the history.
+     * @param algorithm The algorithm calculating the rates.
+     * @param series    The rate history of the currency.
+     * @param from      The first date of the horizon, inclusive.
+     * @param to        The last date of the horizon, inclusive.
+     * @return The forecast of the currency sorted by descending date.
      */
-    protected CurrencyDataProcessor createDataProcessor(Currency currency) {
-        try {
-            String filePath = currencyPathResolver.getPath(currency);
-            return new CurrencyDataProcessor(filePath);
-        } catch (RuntimeException e) {
-            logger.error("Failed to create data processor: " + e.getMessage(), e);
-            throw new RuntimeException("Failed to create data processor", e);
+    protected CurrencyDataForResultOutput forecastRange(Currency currency, RatePredictionAlgorithm algorithm,
+                                                        RateSeries series, LocalDate from, LocalDate to) {
+        if (algorithm instanceof EnsemblePredictionAlgorithm ensemble) {
+            final EnsembleForecast forecast = ensemble.forecast(series, from, to);
+            final Map<ForecastingAlgorithm, List<CurrencyData>> memberForecasts = new LinkedHashMap<>();
+            forecast.members().forEach((member, forecastData) -> memberForecasts.put(member, newestFirst(forecastData)));
+            return new CurrencyDataForResultOutput(currency, newestFirst(forecast.combined()), memberForecasts);
         }
+        return new CurrencyDataForResultOutput(currency, newestFirst(algorithm.forecastRange(series, from, to)));
+    }
+
+    /**
+     * @return The date ranges of each currency history the last generated forecast depends on.
+     */
+    public Map<Currency, List<DateRange>> getDependencies() {
+        return Collections.unmodifiableMap(dependencies);
+    }
+
+    /**
+     * Records that the forecast being generated depends on the specified dates of a currency history.
+     *
+     * @param currency The currency whose history is read.
+     * @param ranges   The ranges of dates read.
+     */
+    protected void addDependencies(Currency currency, List<DateRange> ranges) {
+        dependencies.computeIfAbsent(currency, key -> new ArrayList<>()).addAll(ranges);
+    }
+
+    private static List<CurrencyData> newestFirst(List<CurrencyData> forecastData) {
+        final List<CurrencyData> reversed = new ArrayList<>(forecastData);
+        Collections.reverse(reversed);
+        return reversed;
     }
 }
@@ -4,19 +4,19 @@ package ru.liga.rateforecaster.forecast.generator;
 import com.opencsv.exceptions.CsvValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
-import ru.liga.rateforecaster.enums.Currency;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
 import ru.liga.rateforecaster.formatter.ResultFormatter;
 import ru.liga.rateforecaster.formatter.model.CurrencyDataForResultOutput;
-import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.DataRequirement;
 import ru.liga.rateforecaster.model.FormattedResult;
 import ru.liga.rateforecaster.model.ParsedRequest;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,8 +35,8 @@ public class DateCurrencyForecastGenerator extends CurrencyForecastGenerator {
 
     public DateCurrencyForecastGenerator(ResultFormatter resultFormatter,
                                          RatePredictionAlgorithm ratePredictionAlgorithm,
-                                         CurrencyPathResolver currencyPathResolver) {
-        super(currencyPathResolver);
+                                         CurrencyDataRepository currencyDataRepository) {
+        super(currencyDataRepository);
         this.resultFormatter = resultFormatter;
         this.ratePredictionAlgorithm = ratePredictionAlgorithm;
     }
@@ -52,10 +52,12 @@ public class DateCurrencyForecastGenerator extends CurrencyForecastGenerator {
     @Override
     public FormattedResult generateForecast(ParsedRequest parsedRequest) throws CsvValidationException, IOException {
         final List<CurrencyDataForResultOutput> currencyDataForResultOutputs = new ArrayList<>();
+        final DataRequirement requirement = parsedRequest.date()
+                .map(ratePredictionAlgorithm::getDataRequirement)
+                .orElseGet(DataRequirement::full);
         for (Currency currency : parsedRequest.currencies()) {
-            final LinkedList<CurrencyData> currencyDataList = createDataProcessor(currency).readCurrencyDataFromResources();
-            final CurrencyData forecastCurs = calculateForecastForDate(currencyDataList, parsedRequest);
-            currencyDataForResultOutputs.add(new CurrencyDataForResultOutput(currency, List.of(forecastCurs)));
+            final RateSeries series = getSeries(currency, requirement);
+            currencyDataForResultOutputs.add(calculateForecastForDate(currency, series, parsedRequest));
         }
         return resultFormatter.format(currencyDataForResultOutputs, parsedRequest);
     }
@@ -63,18 +65,22 @@ public class DateCurrencyForecastGenerator extends CurrencyForecastGenerator {
     /**
      * Calculates the currency forecast for the specified date.
      *
-     * @param currencyData  The currency data for the specific currency.
+     * @param currency      The currency of the history.
+     * @param series        The rate history of the specific currency.
      * @param parsedRequest The parsed user request.
-     * @return The calculated CurrencyData representing the currency forecast.
+     * @return The currency forecast for the date.
      * @throws ArithmeticException If an arithmetic exception occurs during the calculation.
      */
-    private CurrencyData calculateForecastForDate(LinkedList<CurrencyData> currencyData, ParsedRequest parsedRequest) throws ArithmeticException {
+    private CurrencyDataForResultOutput calculateForecastForDate(Currency currency, RateSeries series, ParsedRequest parsedRequest)
+            throws ArithmeticException {
         LocalDate targetDate = parsedRequest.date().orElseThrow(() -> {
             String errorMessage = "Target date not specified in the parsed request.";
             logger.error(errorMessage);
             return new IllegalArgumentException(errorMessage);
         });
-        return Optional.ofNullable(ratePredictionAlgorithm.getRateForDate(currencyData, targetDate))
-                .orElseGet(() -> ratePredictionAlgorithm.calculateRateForDate(currencyData, targetDate));
+        addDependencies(currency, ratePredictionAlgorithm.getDependencies(series, targetDate, targetDate));
+        return Optional.ofNullable(ratePredictionAlgorithm.getRateForDate(series, targetDate))
+                .map(publishedRate -> new CurrencyDataForResultOutput(currency, List.of(publishedRate)))
+                .orElseGet(() -> forecastRange(currency, ratePredictionAlgorithm, series, targetDate, targetDate));
     }
 }
@@ -3,20 +3,22 @@ package ru.liga.rateforecaster.forecast.generator;
 import com.opencsv.exceptions.CsvValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
-import ru.liga.rateforecaster.enums.Currency;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
 import ru.liga.rateforecaster.formatter.ResultFormatter;
 import ru.liga.rateforecaster.formatter.model.CurrencyDataForResultOutput;
+import ru.liga.rateforecaster.model.Currency;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.DateRange;
 import ru.liga.rateforecaster.model.FormattedResult;
 import ru.liga.rateforecaster.model.ParsedRequest;
+import ru.liga.rateforecaster.model.RateSeries;
 import ru.liga.rateforecaster.utils.DateUtils;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -32,8 +34,8 @@ public class MonthForecastGenerator extends CurrencyForecastGenerator {
 
     public MonthForecastGenerator(ResultFormatter resultFormatter,
                                   RatePredictionAlgorithm ratePredictionAlgorithm,
-                                  CurrencyPathResolver currencyPathResolver) {
-        super(currencyPathResolver);
+                                  CurrencyDataRepository currencyDataRepository) {
+        super(currencyDataRepository);
         this.resultFormatter = resultFormatter;
         this.ratePredictionAlgorithm = ratePredictionAlgorithm;
     }
@@ -51,10 +53,12 @@ public class MonthForecastGenerator extends CurrencyForecastGenerator {
         logger.info("Generating monthly forecast...");
         final LocalDate forecastStartEnd = DateUtils.getLastDayOfMonthForecast(parsedRequest.date().orElseGet(DateUtils::getCurrentDate));
         final List<CurrencyDataForResultOutput> currencyDataForResultOutputs = new ArrayList<>();
+        final DataRequirement requirement = ratePredictionAlgorithm
+                .getDataRequirement(forecastStartEnd.minusDays(DAYS_IN_MONTH_FORECAST - 1))
+                .and(DataRequirement.latest(DAYS_IN_MONTH_FORECAST));
         for (Currency currency : parsedRequest.currencies()) {
-            final LinkedList<CurrencyData> currencyDataList = createDataProcessor(currency).readCurrencyDataFromResources();
-            List<CurrencyData> forecastData = calculateMonthlyForecast(currencyDataList, forecastStartEnd);
-            currencyDataForResultOutputs.add(new CurrencyDataForResultOutput(currency, forecastData));
+            final RateSeries series = getSeries(currency, requirement);
+            currencyDataForResultOutputs.add(calculateMonthlyForecast(currency, series, forecastStartEnd));
         }
         logger.info("Monthly forecast generated successfully.");
         return resultFormatter.format(currencyDataForResultOutputs, parsedRequest);
@@ -63,28 +67,25 @@ public class MonthForecastGenerator extends CurrencyForecastGenerator {
     /**
      * Calculates the currency forecast for a month.
      *
-     * @param currencyDataList  The list of currency data.
+     * @param currency          The currency of the history.
+     * @param series            The rate history of the currency.
      * @param forecastPeriodEnd The end date of the forecast period.
-     * @return A list of CurrencyData representing the currency forecasts for the month.
+     * @return The currency forecast for the month, newest first.
      */
-    private List<CurrencyData> calculateMonthlyForecast(LinkedList<CurrencyData> currencyDataList, LocalDate forecastPeriodEnd) {
+    private CurrencyDataForResultOutput calculateMonthlyForecast(Currency currency, RateSeries series, LocalDate forecastPeriodEnd) {
         logger.info("Calculating monthly forecast...");
-        final CurrencyData rateForDate = ratePredictionAlgorithm.getRateForDate(currencyDataList, forecastPeriodEnd);
+        final CurrencyData rateForDate = ratePredictionAlgorithm.getRateForDate(series, forecastPeriodEnd);
+        final LocalDate forecastPeriodStart = forecastPeriodEnd.minusDays(DAYS_IN_MONTH_FORECAST - 1);
+        addDependencies(currency, ratePredictionAlgorithm.getDependencies(series, forecastPeriodStart, forecastPeriodEnd));
 
         if (rateForDate == null) {
-            List<CurrencyData> resultData = new ArrayList<>();
-            List<LocalDate> targetDates = new ArrayList<>();
-            LocalDate currentDate = forecastPeriodEnd;
-            for (int i = 0; i < DAYS_IN_MONTH_FORECAST; i++) {
-                targetDates.add(currentDate);
-                currentDate = DateUtils.getPreviousDate(currentDate);
-            }
-            for (LocalDate date : targetDates) {
-                resultData.add(ratePredictionAlgorithm.calculateRateForDate(currencyDataList, date));
-            }
+            final CurrencyDataForResultOutput resultData = forecastRange(currency, ratePredictionAlgorithm, series,
+                    forecastPeriodStart, forecastPeriodEnd);
             return resultData;
         }
         logger.info("Monthly forecast calculated successfully.");
-        return currencyDataList.subList(0, DAYS_IN_MONTH_FORECAST);
+        final RateSeries latest = series.latest(DAYS_IN_MONTH_FORECAST);
+        addDependencies(currency, List.of(DateRange.since(latest.firstDate())));
+        return new CurrencyDataForResultOutput(currency, latest.toCurrencyDataListNewestFirst());
     }
 }
\ No newline at end of file
@@ -4,20 +4,22 @@ package ru.liga.rateforecaster.forecast.generator;
 import com.opencsv.exceptions.CsvValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
-import ru.liga.rateforecaster.enums.Currency;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
 import ru.liga.rateforecaster.formatter.ResultFormatter;
 import ru.liga.rateforecaster.formatter.model.CurrencyDataForResultOutput;
+import ru.liga.rateforecaster.model.Currency;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.DateRange;
 import ru.liga.rateforecaster.model.FormattedResult;
 import ru.liga.rateforecaster.model.ParsedRequest;
+import ru.liga.rateforecaster.model.RateSeries;
 import ru.liga.rateforecaster.utils.DateUtils;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -33,8 +35,8 @@ public class WeeklyCurrencyForecastGenerator extends CurrencyForecastGenerator {
 
     public WeeklyCurrencyForecastGenerator(ResultFormatter resultFormatter,
                                            RatePredictionAlgorithm ratePredictionAlgorithm,
-                                           CurrencyPathResolver currencyPathResolver) {
-        super(currencyPathResolver);
+                                           CurrencyDataRepository currencyDataRepository) {
+        super(currencyDataRepository);
         this.resultFormatter = resultFormatter;
         this.ratePredictionAlgorithm = ratePredictionAlgorithm;
     }
@@ -51,10 +53,12 @@ public class WeeklyCurrencyForecastGenerator extends CurrencyForecastGenerator {
     public FormattedResult generateForecast(ParsedRequest parsedRequest) throws CsvValidationException, IOException {
         final LocalDate forecastPeriodEnd = DateUtils.getLastDayOfWeekForecast(parsedRequest.date().orElseGet(DateUtils::getCurrentDate));
         final List<CurrencyDataForResultOutput> currencyDataForResultOutputs = new ArrayList<>();
+        final DataRequirement requirement = ratePredictionAlgorithm
+                .getDataRequirement(forecastPeriodEnd.minusDays(NUMBER_OF_DAYS_IN_A_WEEK - 1))
+                .and(DataRequirement.latest(NUMBER_OF_DAYS_IN_A_WEEK));
         for (Currency currency : parsedRequest.currencies()) {
-            final LinkedList<CurrencyData> currencyDataList = createDataProcessor(currency).readCurrencyDataFromResources();
-            List<CurrencyData> forecastData = calculateWeeklyForecast(currencyDataList, forecastPeriodEnd);
-            currencyDataForResultOutputs.add(new CurrencyDataForResultOutput(currency, forecastData));
+            final RateSeries series = getSeries(currency, requirement);
+            currencyDataForResultOutputs.add(calculateWeeklyForecast(currency, series, forecastPeriodEnd));
         }
 
         return resultFormatter.format(currencyDataForResultOutputs, parsedRequest);
@@ -63,28 +67,25 @@ public class WeeklyCurrencyForecastGenerator extends CurrencyForecastGenerator {
     /**
      * Calculates a weekly currency forecast based on the currency data list and the target date.
      *
-     * @param currencyDataList  The list of currency data for which the forecast is calculated.
+     * @param currency          The currency of the history.
+     * @param series            The rate history for which the forecast is calculated.
      * @param forecastPeriodEnd The target date for the forecast.
-     * @return A list of currency data representing the weekly forecast.
+     * @return The weekly forecast of the currency, newest first.
      */
-    private List<CurrencyData> calculateWeeklyForecast(LinkedList<CurrencyData> currencyDataList, LocalDate forecastPeriodEnd) {
-        final CurrencyData rateForDate = ratePredictionAlgorithm.getRateForDate(currencyDataList, forecastPeriodEnd);
+    private CurrencyDataForResultOutput calculateWeeklyForecast(Currency currency, RateSeries series, LocalDate forecastPeriodEnd) {
+        final CurrencyData rateForDate = ratePredictionAlgorithm.getRateForDate(series, forecastPeriodEnd);
+        final LocalDate forecastPeriodStart = forecastPeriodEnd.minusDays(NUMBER_OF_DAYS_IN_A_WEEK - 1);
+        addDependencies(currency, ratePredictionAlgorithm.getDependencies(series, forecastPeriodStart, forecastPeriodEnd));
 
         if (rateForDate == null) {
-            List<CurrencyData> resultData = new ArrayList<>();
-            List<LocalDate> targetDates = new ArrayList<>();
-            LocalDate currentDate = forecastPeriodEnd;
-            for (int i = 0; i < NUMBER_OF_DAYS_IN_A_WEEK; i++) {
-                targetDates.add(currentDate);
-                currentDate = DateUtils.getPreviousDate(currentDate);
-            }
-            for (LocalDate date : targetDates) {
-                resultData.add(ratePredictionAlgorithm.calculateRateForDate(currencyDataList, date));
-            }
+            final CurrencyDataForResultOutput resultData = forecastRange(currency, ratePredictionAlgorithm, series,
+                    forecastPeriodStart, forecastPeriodEnd);
             logger.info("Calculated weekly forecast for {} days", NUMBER_OF_DAYS_IN_A_WEEK);
             return resultData;
         }
         logger.info("Using available data for weekly forecast");
-        return currencyDataList.subList(0, NUMBER_OF_DAYS_IN_A_WEEK);
+        final RateSeries latest = series.latest(NUMBER_OF_DAYS_IN_A_WEEK);
+        addDependencies(currency, List.of(DateRange.since(latest.firstDate())));
+        return new CurrencyDataForResultOutput(currency, latest.toCurrencyDataListNewestFirst());
     }
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package ru.liga.rateforecaster.forecast.generator.factory;
 
-import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
 import ru.liga.rateforecaster.forecast.algorithm.factory.GenericPredictionAlgorithm;
 import ru.liga.rateforecaster.forecast.generator.CurrencyForecastGenerator;
@@ -20,11 +20,11 @@ import java.util.ResourceBundle;
 public class CurrencyForecastGeneratorFactoryImpl implements CurrencyForecastGeneratorFactory {
 
     private final GenericPredictionAlgorithm genericPredictionAlgorithm;
-    private final CurrencyPathResolver currencyPathResolver;
+    private final CurrencyDataRepository currencyDataRepository;
 
-    public CurrencyForecastGeneratorFactoryImpl(GenericPredictionAlgorithm genericPredictionAlgorithm, CurrencyPathResolver currencyPathResolver) {
+    public CurrencyForecastGeneratorFactoryImpl(GenericPredictionAlgorithm genericPredictionAlgorithm, CurrencyDataRepository currencyDataRepository) {
         this.genericPredictionAlgorithm = genericPredictionAlgorithm;
-        this.currencyPathResolver = currencyPathResolver;
+        this.currencyDataRepository = currencyDataRepository;
     }
 
     /**
@@ -40,9 +40,9 @@ public class CurrencyForecastGeneratorFactoryImpl implements CurrencyForecastGen
         RatePredictionAlgorithm ratePredictionAlgorithm = genericPredictionAlgorithm.createAlgorithm(parsedRequest);
         ResultFormatter resultFormatter = initializeResourceFormatter(parsedRequest, resourceBundle);
         return switch (parsedRequest.rateType()) {
-            case DAY -> new DateCurrencyForecastGenerator(resultFormatter, ratePredictionAlgorithm, currencyPathResolver);
-            case WEEK -> new WeeklyCurrencyForecastGenerator(resultFormatter, ratePredictionAlgorithm, currencyPathResolver);
-            case MONTH -> new MonthForecastGenerator(resultFormatter, ratePredictionAlgorithm, currencyPathResolver);
+            case DAY -> new DateCurrencyForecastGenerator(resultFormatter, ratePredictionAlgorithm, currencyDataRepository);
+            case WEEK -> new WeeklyCurrencyForecastGenerator(resultFormatter, ratePredictionAlgorithm, currencyDataRepository);
+            case MONTH -> new MonthForecastGenerator(resultFormatter, ratePredictionAlgorithm, currencyDataRepository);
             default -> throw new IllegalArgumentException("Invalid forecast type: " + parsedRequest.rateType());
         };
     }
@@ -1,23 +1,39 @@
 package ru.liga.rateforecaster.formatter.model;
 
 import lombok.Getter;
-import ru.liga.rateforecaster.enums.Currency;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.model.Currency;
 import ru.liga.rateforecaster.model.CurrencyData;
 
 import java.util.List;
+import java.util.Map;
 
 
 /**
  * Represents the data for a specific currency that will be included in the forecast output.
+ * The forecast of an ensemble also carries the forecasts of the algorithms it combines, in the same date order,
+ * to be shown side by side with it.
  */
 @Getter
 public class CurrencyDataForResultOutput {
 
     private final Currency currency;
     private final List<CurrencyData> forecastData;
+    private final Map<ForecastingAlgorithm, List<CurrencyData>> memberForecasts;
 
     public CurrencyDataForResultOutput(Currency currency, List<CurrencyData> forecastData) {
+        this(currency, forecastData, Map.of());
+    }
+
+    /**
+     * @param currency        The currency of the forecast.
+     * @param forecastData    The forecast rates.
+     * @param memberForecasts The rates of each algorithm the forecast combines, in the order of the forecast rates.
+     */
+    public CurrencyDataForResultOutput(Currency currency, List<CurrencyData> forecastData,
+                                       Map<ForecastingAlgorithm, List<CurrencyData>> memberForecasts) {
         this.currency = currency;
         this.forecastData = forecastData;
+        this.memberForecasts = memberForecasts;
     }
 }
@@ -46,7 +46,7 @@ public class ChartOutputGenerator implements OutputGenerator {
 
         XYSeriesCollection dataset = createDataset(currencyDataForResultOutput, parsedRequest.rateType());
         JFreeChart chart = createChart(dataset);
-        customizeChartRenderer(chart, currencyDataForResultOutput.size());
+        customizeChartRenderer(chart, dataset.getSeriesCount());
 
         return new FormattedResult(new ChartPanel(chart));
     }
@@ -56,16 +56,17 @@ public class ChartOutputGenerator implements OutputGenerator {
 
         int maxItems = (rateType == RateType.WEEK) ? WEEK_DAYS : MONTH_DAYS;
         for (CurrencyDataForResultOutput resultOutput : currencyDataForResultOutput) {
-            XYSeries series = createSeries(resultOutput, maxItems);
+            XYSeries series = createSeries(resultOutput.getCurrency().toString(), resultOutput.getForecastData(), maxItems);
             dataset.addSeries(series);
+            resultOutput.getMemberForecasts().forEach((algorithm, forecastData) -> dataset.addSeries(
+                    createSeries(resultOutput.getCurrency() + " " + algorithm, forecastData, maxItems)));
         }
 
         return dataset;
     }
 
-    private XYSeries createSeries(CurrencyDataForResultOutput resultOutput, int maxItems) {
-        XYSeries series = new XYSeries(resultOutput.getCurrency().toString());
-        List<CurrencyData> forecastData = resultOutput.getForecastData();
+    private XYSeries createSeries(String name, List<CurrencyData> forecastData, int maxItems) {
+        XYSeries series = new XYSeries(name);
 
         for (int j = 0; j < forecastData.size() && j < maxItems; j++) {
             CurrencyData data = forecastData.get(j);
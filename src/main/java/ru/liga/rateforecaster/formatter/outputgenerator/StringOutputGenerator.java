@@ -2,7 +2,6 @@ package ru.liga.rateforecaster.formatter.outputgenerator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ru.liga.rateforecaster.enums.Currency;
 import ru.liga.rateforecaster.formatter.model.CurrencyDataForResultOutput;
 import ru.liga.rateforecaster.model.CurrencyData;
 import ru.liga.rateforecaster.model.FormattedResult;
@@ -10,8 +9,8 @@ import ru.liga.rateforecaster.model.ParsedRequest;
 import ru.liga.rateforecaster.utils.DateUtils;
 
 import java.util.List;
-import java.util.ListIterator;
 import java.util.ResourceBundle;
+import java.util.StringJoiner;
 
 /**
  * An implementation of the {@link OutputGenerator} interface for generating formatted string output based on the provided data.
@@ -41,11 +40,11 @@ public class StringOutputGenerator implements OutputGenerator {
         for (CurrencyDataForResultOutput dataForResultOutput : currencyDataForResultOutput) {
             switch (parsedRequest.rateType()) {
                 case DAY:
-                    return generateDayOutput(dataForResultOutput.getCurrency(), dataForResultOutput.getForecastData());
+                    return generateDayOutput(dataForResultOutput);
                 case WEEK:
-                    return generateWeekOutput(dataForResultOutput.getCurrency(), dataForResultOutput.getForecastData());
+                    return generateWeekOutput(dataForResultOutput);
                 case MONTH:
-                    return generateMonthOutput(dataForResultOutput.getCurrency(), dataForResultOutput.getForecastData());
+                    return generateMonthOutput(dataForResultOutput);
                 default:
                     logger.error("Invalid RateType: " + parsedRequest.rateType());
                     return generateErrorOutput();
@@ -54,40 +53,55 @@ public class StringOutputGenerator implements OutputGenerator {
         return generateErrorOutput();
     }
 
-    private FormattedResult generateDayOutput(Currency currency, List<CurrencyData> forecastData) {
+    private FormattedResult generateDayOutput(CurrencyDataForResultOutput dataForResultOutput) {
+        final List<CurrencyData> forecastData = dataForResultOutput.getForecastData();
         if (forecastData.size() == 1) {
-            return new FormattedResult(String.format("rate %s tomorrow %s - %.2f;", currency,
+            return new FormattedResult(String.format("rate %s tomorrow %s - %.2f%s;", dataForResultOutput.getCurrency(),
                     DateUtils.getFormattedDateForOutput(forecastData.get(0).date()),
-                    forecastData.get(0).rate()));
+                    forecastData.get(0).rate(), generateMemberRates(dataForResultOutput, 0)));
         }
         logger.error("Invalid forecast data for generating day output.");
         return generateErrorOutput();
     }
 
-    private FormattedResult generateWeekOutput(Currency currency, List<CurrencyData> forecastData) {
-        String formattedResult = String.format("rate %s week%n", currency) +
-                generateListOfData(forecastData);
+    private FormattedResult generateWeekOutput(CurrencyDataForResultOutput dataForResultOutput) {
+        String formattedResult = String.format("rate %s week%n", dataForResultOutput.getCurrency()) +
+                generateListOfData(dataForResultOutput);
         return new FormattedResult(formattedResult);
     }
 
-    private FormattedResult generateMonthOutput(Currency currency, List<CurrencyData> forecastData) {
-        String formattedResult = String.format("rate %s month%n", currency) +
-                generateListOfData(forecastData);
+    private FormattedResult generateMonthOutput(CurrencyDataForResultOutput dataForResultOutput) {
+        String formattedResult = String.format("rate %s month%n", dataForResultOutput.getCurrency()) +
+                generateListOfData(dataForResultOutput);
         return new FormattedResult(formattedResult);
     }
 
-    private String generateListOfData(List<CurrencyData> forecastData) {
+    private String generateListOfData(CurrencyDataForResultOutput dataForResultOutput) {
+        final List<CurrencyData> forecastData = dataForResultOutput.getForecastData();
         StringBuilder formattedResult = new StringBuilder();
-        final ListIterator<CurrencyData> iterator = forecastData.listIterator(forecastData.size());
-        while (iterator.hasPrevious()) {
-            final CurrencyData data = iterator.previous();
-            formattedResult.append(String.format("%s - %.2f%n",
+        for (int i = forecastData.size() - 1; i >= 0; i--) {
+            final CurrencyData data = forecastData.get(i);
+            formattedResult.append(String.format("%s - %.2f%s%n",
                     DateUtils.getFormattedDateForOutput(data.date()),
-                    data.rate()));
+                    data.rate(), generateMemberRates(dataForResultOutput, i)));
         }
         return formattedResult.toString();
     }
 
+    /**
+     * Lists the rates each algorithm of an ensemble forecast for the date at the specified position,
+     * or returns an empty string for the forecast of a single algorithm.
+     */
+    private String generateMemberRates(CurrencyDataForResultOutput dataForResultOutput, int index) {
+        if (dataForResultOutput.getMemberForecasts().isEmpty()) {
+            return "";
+        }
+        final StringJoiner memberRates = new StringJoiner("; ", " (", ")");
+        dataForResultOutput.getMemberForecasts().forEach((algorithm, forecastData) ->
+                memberRates.add(String.format("%s %.2f", algorithm, forecastData.get(index).rate())));
+        return memberRates.toString();
+    }
+
     private FormattedResult generateErrorOutput() {
         logger.error("No output data available.");
         return new FormattedResult(resourceBundle.getString("no_output_data_available"));
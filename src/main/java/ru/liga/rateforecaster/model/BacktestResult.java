@@ -0,0 +1,23 @@
+package ru.liga.rateforecaster.model;
+
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.RateType;
+
+/**
+ * The accuracy of an algorithm forecasting the rates of a currency over a horizon, measured by replaying
+ * the history. When no forecast could be compared, for a history not longer than the warm-up period,
+ * {@code forecasts} is zero and so are the errors.
+ *
+ * @param currency                    The currency whose history was replayed.
+ * @param algorithm                   The algorithm that made the forecasts.
+ * @param horizon                     The horizon of the forecasts: the next day, week or month.
+ * @param forecasts                   The number of forecast rates compared with a published rate.
+ * @param failures                    The number of past days the algorithm failed to forecast from.
+ * @param meanAbsoluteError           The mean of the absolute differences between forecast and published rates.
+ * @param meanAbsolutePercentageError The mean of the absolute differences relative to the published rates, in percent.
+ * @param bias                        The mean of the differences, positive if the algorithm overestimates.
+ */
+public record BacktestResult(Currency currency, ForecastingAlgorithm algorithm, RateType horizon, int forecasts,
+                             int failures, double meanAbsoluteError, double meanAbsolutePercentageError,
+                             double bias) {
+}
@@ -0,0 +1,76 @@
+package ru.liga.rateforecaster.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A currency identified by its three-letter code.
+ * <p>
+ * The set of currencies is open: any code found by the currency registry is a valid currency, and the
+ * constants below only name the ones referred to in code. Instances are interned, so currencies with the
+ * same code are the same object.
+ */
+public final class Currency implements Comparable<Currency> {
+
+    private static final Pattern CODE_PATTERN = Pattern.compile("[A-Z]{3}");
+    private static final Map<String, Currency> CURRENCIES = new ConcurrentHashMap<>();
+
+    public static final Currency EUR = valueOf("EUR");
+    public static final Currency TRY = valueOf("TRY");
+    public static final Currency USD = valueOf("USD");
+    public static final Currency BGN = valueOf("BGN");
+    public static final Currency AMD = valueOf("AMD");
+
+    private final String code;
+
+    private Currency(String code) {
+        this.code = code;
+    }
+
+    /**
+     * Returns the currency with the specified code.
+     *
+     * @param code The three-letter code of the currency in upper case.
+     * @return The currency with this code.
+     * @throws IllegalArgumentException If the code is not made of three upper-case Latin letters.
+     */
+    public static Currency valueOf(String code) {
+        if (!isValidCode(code)) {
+            throw new IllegalArgumentException("Invalid currency code: " + code);
+        }
+        return CURRENCIES.computeIfAbsent(code, Currency::new);
+    }
+
+    /**
+     * @param code The code to check.
+     * @return true if the code can name a currency, false otherwise.
+     */
+    public static boolean isValidCode(String code) {
+        return code != null && CODE_PATTERN.matcher(code).matches();
+    }
+
+    public String name() {
+        return code;
+    }
+
+    @Override
+    public int compareTo(Currency other) {
+        return code.compareTo(other.code);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof Currency currency && code.equals(currency.code);
+    }
+
+    @Override
+    public int hashCode() {
+        return code.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
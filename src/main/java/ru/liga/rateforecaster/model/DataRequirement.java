@@ -0,0 +1,63 @@
+package ru.liga.rateforecaster.model;
+
+import java.time.LocalDate;
+
+/**
+ * The part of a currency history a forecast needs: at least a number of the most recent points, and every
+ * point dated on or after a date. Both conditions hold together, so a requirement is always a suffix of the
+ * history, and a newest-first file can be read only until it is satisfied.
+ *
+ * @param latestPoints The minimum number of most recent points.
+ * @param since        The date from which every point is needed, or {@link LocalDate#MAX} if none is.
+ */
+public record DataRequirement(int latestPoints, LocalDate since) {
+
+    private static final DataRequirement FULL = new DataRequirement(Integer.MAX_VALUE, LocalDate.MIN);
+
+    /**
+     * @return A requirement of the whole history.
+     */
+    public static DataRequirement full() {
+        return FULL;
+    }
+
+    /**
+     * @param points The number of most recent points needed.
+     * @return A requirement of the latest points.
+     */
+    public static DataRequirement latest(int points) {
+        return new DataRequirement(points, LocalDate.MAX);
+    }
+
+    /**
+     * @param date The first date needed.
+     * @return A requirement of every point dated on or after the date.
+     */
+    public static DataRequirement since(LocalDate date) {
+        return new DataRequirement(0, date);
+    }
+
+    /**
+     * @param other The requirement to combine with this one.
+     * @return A requirement satisfied only by the histories satisfying both requirements.
+     */
+    public DataRequirement and(DataRequirement other) {
+        return new DataRequirement(Math.max(latestPoints, other.latestPoints),
+                since.isBefore(other.since) ? since : other.since);
+    }
+
+    public boolean isFull() {
+        return latestPoints == Integer.MAX_VALUE || since.equals(LocalDate.MIN);
+    }
+
+    /**
+     * Checks whether a newest-first read can stop before a point.
+     *
+     * @param pointsRead The number of points read so far.
+     * @param epochDay   The date of the next point as a count of days since the epoch.
+     * @return true if neither the next point nor any older one is needed, false otherwise.
+     */
+    public boolean isSatisfied(int pointsRead, long epochDay) {
+        return pointsRead >= latestPoints && epochDay < since.toEpochDay();
+    }
+}
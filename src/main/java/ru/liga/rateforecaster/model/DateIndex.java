@@ -0,0 +1,93 @@
+package ru.liga.rateforecaster.model;
+
+import java.util.Arrays;
+
+/**
+ * A date lookup table over the ascending epoch-day column of a {@link RateSeries}.
+ * <p>
+ * Lookups go through a rank table with one slot per calendar day between the first and the last date, holding
+ * the index of the latest date not after that day. Floor lookups read the slot and exact lookups check that it
+ * points at the day itself, so both take O(1); the table is built on first use and shared by every view of the
+ * series. When the dates are too sparse for a dense table to pay off, lookups fall back to a binary search.
+ */
+final class DateIndex {
+
+    private static final int NO_INDEX = -1;
+    private static final int MAX_SLOTS_PER_POINT = 8;
+
+    private final int[] epochDays;
+    private final int size;
+    private volatile int[] floorIndexByDay;
+
+    DateIndex(int[] epochDays, int size) {
+        this.epochDays = epochDays;
+        this.size = size;
+    }
+
+    /**
+     * @param epochDay The date to look up as a count of days since the epoch.
+     * @return The index of the date in the backing column, or -1 if the date is absent.
+     */
+    int indexOf(int epochDay) {
+        if (size == 0 || epochDay < epochDays[0] || epochDay > epochDays[size - 1]) {
+            return NO_INDEX;
+        }
+        final int[] table = table();
+        if (table == null) {
+            final int index = Arrays.binarySearch(epochDays, 0, size, epochDay);
+            return index < 0 ? NO_INDEX : index;
+        }
+        final int index = table[epochDay - epochDays[0]];
+        return epochDays[index] == epochDay ? index : NO_INDEX;
+    }
+
+    /**
+     * @param epochDay The date to look up as a count of days since the epoch.
+     * @return The index of the latest date not after the specified one, or -1 if every date is after it.
+     */
+    int floorIndex(int epochDay) {
+        if (size == 0 || epochDay < epochDays[0]) {
+            return NO_INDEX;
+        }
+        if (epochDay >= epochDays[size - 1]) {
+            return size - 1;
+        }
+        final int[] table = table();
+        if (table == null) {
+            final int index = Arrays.binarySearch(epochDays, 0, size, epochDay);
+            return index >= 0 ? index : -index - 2;
+        }
+        return table[epochDay - epochDays[0]];
+    }
+
+    private int[] table() {
+        int[] table = floorIndexByDay;
+        if (table == null && isDenseEnough()) {
+            synchronized (this) {
+                table = floorIndexByDay;
+                if (table == null) {
+                    table = buildTable();
+                    floorIndexByDay = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    private boolean isDenseEnough() {
+        return (long) epochDays[size - 1] - epochDays[0] + 1 <= (long) size * MAX_SLOTS_PER_POINT;
+    }
+
+    private int[] buildTable() {
+        final int firstDay = epochDays[0];
+        final int[] table = new int[epochDays[size - 1] - firstDay + 1];
+        int index = 0;
+        for (int slot = 0; slot < table.length; slot++) {
+            if (index + 1 < size && epochDays[index + 1] - firstDay == slot) {
+                index++;
+            }
+            table[slot] = index;
+        }
+        return table;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.liga.rateforecaster.model;
+
+import java.time.LocalDate;
+
+/**
+ * A range of calendar dates, both ends included.
+ *
+ * @param from The first date of the range.
+ * @param to   The last date of the range, not before the first one.
+ */
+public record DateRange(LocalDate from, LocalDate to) {
+
+    private static final DateRange ALL = new DateRange(LocalDate.MIN, LocalDate.MAX);
+
+    public DateRange {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Date range starts after it ends: " + from + " - " + to);
+        }
+    }
+
+    /**
+     * @return The range of every date.
+     */
+    public static DateRange all() {
+        return ALL;
+    }
+
+    /**
+     * @param from The first date of the range.
+     * @return The range of every date from the specified one onwards.
+     */
+    public static DateRange since(LocalDate from) {
+        return new DateRange(from, LocalDate.MAX);
+    }
+
+    /**
+     * @param other The range to check.
+     * @return true if the ranges share at least one date, false otherwise.
+     */
+    public boolean overlaps(DateRange other) {
+        return !from.isAfter(other.to) && !other.from.isAfter(to);
+    }
+}
@@ -0,0 +1,125 @@
+package ru.liga.rateforecaster.model;
+
+import ru.liga.rateforecaster.enums.FillPolicy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An immutable view of a {@link RateSeries} with one rate for every calendar day between its first and last date.
+ * Days without a published rate (weekends, holidays) are filled according to a {@link FillPolicy}, so a rate can be
+ * read directly by calendar day. For each day the view also knows how long ago the last published rate was.
+ */
+public final class DenseDailySeries {
+
+    private final FillPolicy fillPolicy;
+    private final int firstEpochDay;
+    private final long[] rates;
+    private final int[] daysSinceObservation;
+
+    private DenseDailySeries(FillPolicy fillPolicy, int firstEpochDay, long[] rates, int[] daysSinceObservation) {
+        this.fillPolicy = fillPolicy;
+        this.firstEpochDay = firstEpochDay;
+        this.rates = rates;
+        this.daysSinceObservation = daysSinceObservation;
+    }
+
+    /**
+     * Builds the dense view of a series.
+     *
+     * @param series     The series to fill.
+     * @param fillPolicy The policy used for the days without a published rate.
+     * @return The dense view, empty if the series is empty.
+     */
+    public static DenseDailySeries of(RateSeries series, FillPolicy fillPolicy) {
+        if (series.isEmpty()) {
+            return new DenseDailySeries(fillPolicy, 0, new long[0], new int[0]);
+        }
+        final int firstEpochDay = series.epochDay(0);
+        final int length = series.epochDay(series.size() - 1) - firstEpochDay + 1;
+        final long[] rates = new long[length];
+        final int[] daysSinceObservation = new int[length];
+        for (int i = 0; i < series.size(); i++) {
+            final int slot = series.epochDay(i) - firstEpochDay;
+            final long rate = series.fixedPointRate(i);
+            rates[slot] = rate;
+            if (i + 1 == series.size()) {
+                break;
+            }
+            final int gap = series.epochDay(i + 1) - series.epochDay(i);
+            final long nextRate = series.fixedPointRate(i + 1);
+            for (int day = 1; day < gap; day++) {
+                rates[slot + day] = fillPolicy == FillPolicy.LINEAR
+                        ? rate + divideHalfUp((nextRate - rate) * day, gap)
+                        : rate;
+                daysSinceObservation[slot + day] = day;
+            }
+        }
+        return new DenseDailySeries(fillPolicy, firstEpochDay, rates, daysSinceObservation);
+    }
+
+    public FillPolicy fillPolicy() {
+        return fillPolicy;
+    }
+
+    public int size() {
+        return rates.length;
+    }
+
+    public boolean isEmpty() {
+        return rates.length == 0;
+    }
+
+    public LocalDate firstDate() {
+        return LocalDate.ofEpochDay(firstEpochDay);
+    }
+
+    public LocalDate lastDate() {
+        return LocalDate.ofEpochDay(firstEpochDay + rates.length - 1L);
+    }
+
+    /**
+     * @param date The date to check.
+     * @return true if the date lies between the first and the last date of the view.
+     */
+    public boolean contains(LocalDate date) {
+        final long slot = date.toEpochDay() - firstEpochDay;
+        return slot >= 0 && slot < rates.length;
+    }
+
+    /**
+     * @param date A date within the view.
+     * @return The published or filled rate of the date scaled by 10^{@link RateSeries#RATE_SCALE}.
+     */
+    public long fixedPointRate(LocalDate date) {
+        return rates[slot(date)];
+    }
+
+    /**
+     * @param date A date within the view.
+     * @return The published or filled rate of the date.
+     */
+    public BigDecimal rate(LocalDate date) {
+        return RateSeries.fromFixedPoint(fixedPointRate(date));
+    }
+
+    /**
+     * @param date A date within the view.
+     * @return The number of days since the latest published rate, 0 if the rate of the date was published.
+     */
+    public int daysSinceObservation(LocalDate date) {
+        return daysSinceObservation[slot(date)];
+    }
+
+    private int slot(LocalDate date) {
+        if (!contains(date)) {
+            throw new IndexOutOfBoundsException("Date " + date + " is outside [" + firstDate() + ", " + lastDate() + "]");
+        }
+        return (int) (date.toEpochDay() - firstEpochDay);
+    }
+
+    private static long divideHalfUp(long dividend, long divisor) {
+        final long quotient = (2 * Math.abs(dividend) + divisor) / (2 * divisor);
+        return dividend < 0 ? -quotient : quotient;
+    }
+}
@@ -0,0 +1,223 @@
+package ru.liga.rateforecaster.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * An immutable, compressed form of a {@link RateSeries} for keeping long histories resident.
+ * <p>
+ * Points are split into chunks of {@link #CHUNK_SIZE}. The first point of a chunk is stored as is; the following
+ * points store the delta-of-delta of their epoch day and the delta of their fixed-point rate, both as zigzag
+ * varints. Published rates are daily, so a date usually takes one byte and a rate one or two. Reading a window
+ * decodes only the chunks it overlaps.
+ */
+public final class EncodedRateSeries {
+
+    public static final int CHUNK_SIZE = 256;
+
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int OBJECT_HEADER_BYTES = 32;
+
+    private final int size;
+    private final int[] chunkFirstDays;
+    private final long[] chunkFirstRates;
+    private final int[] chunkOffsets;
+    private final byte[] data;
+
+    private EncodedRateSeries(int size, int[] chunkFirstDays, long[] chunkFirstRates, int[] chunkOffsets, byte[] data) {
+        this.size = size;
+        this.chunkFirstDays = chunkFirstDays;
+        this.chunkFirstRates = chunkFirstRates;
+        this.chunkOffsets = chunkOffsets;
+        this.data = data;
+    }
+
+    /**
+     * Encodes the specified series.
+     *
+     * @param series The series to encode.
+     * @return The encoded series.
+     */
+    public static EncodedRateSeries encode(RateSeries series) {
+        final int size = series.size();
+        final int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final int[] chunkFirstDays = new int[chunks];
+        final long[] chunkFirstRates = new long[chunks];
+        final int[] chunkOffsets = new int[chunks];
+        final ByteWriter writer = new ByteWriter(Math.max(size * 3, 16));
+        int previousDay = 0;
+        int previousDelta = 0;
+        long previousRate = 0;
+        for (int i = 0; i < size; i++) {
+            final int day = series.epochDay(i);
+            final long rate = series.fixedPointRate(i);
+            if (i % CHUNK_SIZE == 0) {
+                final int chunk = i / CHUNK_SIZE;
+                chunkFirstDays[chunk] = day;
+                chunkFirstRates[chunk] = rate;
+                chunkOffsets[chunk] = writer.size();
+                previousDelta = 0;
+            } else {
+                final int delta = day - previousDay;
+                writer.writeVarLong(zigzag(delta - previousDelta));
+                writer.writeVarLong(zigzag(rate - previousRate));
+                previousDelta = delta;
+            }
+            previousDay = day;
+            previousRate = rate;
+        }
+        return new EncodedRateSeries(size, chunkFirstDays, chunkFirstRates, chunkOffsets, writer.toByteArray());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public LocalDate firstDate() {
+        checkNotEmpty();
+        return LocalDate.ofEpochDay(chunkFirstDays[0]);
+    }
+
+    public LocalDate lastDate() {
+        checkNotEmpty();
+        return decode(size - 1, size).firstDate();
+    }
+
+    /**
+     * @return The decoded series.
+     */
+    public RateSeries decode() {
+        return decode(0, size);
+    }
+
+    /**
+     * Decodes the points between the specified indexes, reading only the chunks they belong to.
+     *
+     * @param fromIndex The index of the first point, inclusive.
+     * @param toIndex   The index of the last point, exclusive.
+     * @return A series containing the selected points.
+     */
+    public RateSeries decode(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid range [" + fromIndex + ", " + toIndex + ") of size " + size);
+        }
+        final int count = toIndex - fromIndex;
+        if (count == 0) {
+            return RateSeries.empty();
+        }
+        final int[] epochDays = new int[count];
+        final long[] rates = new long[count];
+        final int firstChunk = fromIndex / CHUNK_SIZE;
+        final int lastChunk = (toIndex - 1) / CHUNK_SIZE;
+        for (int chunk = firstChunk; chunk <= lastChunk; chunk++) {
+            decodeChunk(chunk, fromIndex, toIndex, epochDays, rates);
+        }
+        return RateSeries.of(epochDays, rates);
+    }
+
+    /**
+     * Decodes the most recent points.
+     *
+     * @param count The maximum number of points to decode.
+     * @return A series containing at most {@code count} latest points.
+     */
+    public RateSeries latest(int count) {
+        return decode(Math.max(0, size - count), size);
+    }
+
+    /**
+     * @return An estimate of the heap retained by this encoded series.
+     */
+    public long sizeInBytes() {
+        return OBJECT_HEADER_BYTES + 4L * ARRAY_HEADER_BYTES
+                + (long) chunkFirstDays.length * (Integer.BYTES + Long.BYTES + Integer.BYTES) + data.length;
+    }
+
+    private void decodeChunk(int chunk, int fromIndex, int toIndex, int[] epochDays, long[] rates) {
+        final int chunkStart = chunk * CHUNK_SIZE;
+        final int chunkEnd = Math.min(chunkStart + CHUNK_SIZE, toIndex);
+        int day = chunkFirstDays[chunk];
+        long rate = chunkFirstRates[chunk];
+        int delta = 0;
+        final ByteReader reader = new ByteReader(data, chunkOffsets[chunk]);
+        for (int i = chunkStart; i < chunkEnd; i++) {
+            if (i > chunkStart) {
+                delta += (int) unzigzag(reader.readVarLong());
+                day += delta;
+                rate += unzigzag(reader.readVarLong());
+            }
+            if (i >= fromIndex) {
+                epochDays[i - fromIndex] = day;
+                rates[i - fromIndex] = rate;
+            }
+        }
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new IndexOutOfBoundsException("Encoded series is empty");
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class ByteWriter {
+        private byte[] bytes;
+        private int size;
+
+        private ByteWriter(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        private void writeVarLong(long value) {
+            if (size + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 10));
+            }
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static final class ByteReader {
+        private final byte[] bytes;
+        private int position;
+
+        private ByteReader(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte next;
+            do {
+                next = bytes[position++];
+                value |= (long) (next & 0x7F) << shift;
+                shift += 7;
+            } while (next < 0);
+            return value;
+        }
+    }
+}
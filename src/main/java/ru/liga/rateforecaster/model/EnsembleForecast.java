@@ -0,0 +1,15 @@
+package ru.liga.rateforecaster.model;
+
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rates an ensemble of algorithms forecast for a horizon.
+ *
+ * @param combined The mean of the rates of the algorithms for each date, sorted by ascending date.
+ * @param members  The rates of each algorithm that completed the forecast, sorted by ascending date.
+ */
+public record EnsembleForecast(List<CurrencyData> combined, Map<ForecastingAlgorithm, List<CurrencyData>> members) {
+}
@@ -3,15 +3,24 @@ package ru.liga.rateforecaster.model;
 import lombok.Getter;
 import org.jfree.chart.ChartPanel;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
 /**
  * A class representing a formatted result that can include text, a chart image, or an error message.
  */
 @Getter
 public class FormattedResult {
 
+    public static final int CHART_WIDTH = 800;
+    public static final int CHART_HEIGHT = 600;
+
     private String textResult;
     private ChartPanel chartImage;
     private ErrorMessage errorMessage;
+    private byte[] chartPng;
 
     public FormattedResult(String textResult, ChartPanel chartImage) {
         this.textResult = textResult;
@@ -30,4 +39,22 @@ public class FormattedResult {
         this.chartImage = chartImage;
     }
 
+    /**
+     * Renders the chart to a PNG image of {@link #CHART_WIDTH} by {@link #CHART_HEIGHT} pixels on first use
+     * and returns the same image afterwards. Results can be shared between requests, and a chart is not safe
+     * to draw from two threads at once, so rendering is serialized per result.
+     *
+     * @return The PNG image of the chart, or null if this result has no chart.
+     * @throws IOException If the image cannot be encoded.
+     */
+    public synchronized byte[] getChartPng() throws IOException {
+        if (chartPng == null && chartImage != null) {
+            final BufferedImage image = chartImage.getChart().createBufferedImage(CHART_WIDTH, CHART_HEIGHT);
+            final ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", png);
+            chartPng = png.toByteArray();
+        }
+        return chartPng;
+    }
+
 }
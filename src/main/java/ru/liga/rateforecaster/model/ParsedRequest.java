@@ -1,7 +1,6 @@
 package ru.liga.rateforecaster.model;
 
 import lombok.Builder;
-import ru.liga.rateforecaster.enums.Currency;
 import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
 import ru.liga.rateforecaster.enums.OutputType;
 import ru.liga.rateforecaster.enums.RateType;
@@ -9,11 +8,24 @@ import ru.liga.rateforecaster.enums.RateType;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * A class representing a parsed user request for a currency forecast.
+ * The optional seed makes the forecasts of randomized algorithms reproducible.
  */
 @Builder
 public record ParsedRequest(List<Currency> currencies, Optional<LocalDate> date, RateType rateType, ForecastingAlgorithm algorithm,
-                            OutputType outputType) {
+                            OutputType outputType, OptionalLong seed) {
+
+    public ParsedRequest {
+        if (seed == null) {
+            seed = OptionalLong.empty();
+        }
+    }
+
+    public ParsedRequest(List<Currency> currencies, Optional<LocalDate> date, RateType rateType, ForecastingAlgorithm algorithm,
+                         OutputType outputType) {
+        this(currencies, date, rateType, algorithm, outputType, OptionalLong.empty());
+    }
 }
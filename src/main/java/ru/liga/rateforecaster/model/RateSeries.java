@@ -0,0 +1,423 @@
+package ru.liga.rateforecaster.model;
+
+import ru.liga.rateforecaster.enums.FillPolicy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable time series of currency rates stored in columnar primitive form.
+ * Dates are kept as epoch days and rates as fixed-point values scaled by 10^{@link #RATE_SCALE},
+ * both sorted by ascending date. Points are accessed by index in O(1), and slices are views
+ * that share the underlying arrays. Dates, including the latest date not after a given day, are looked up
+ * through a {@link DateIndex} that is also shared by all views of a series.
+ */
+public final class RateSeries {
+
+    /**
+     * The number of decimal places kept for rates, matching the precision of the CBR exports.
+     */
+    public static final int RATE_SCALE = 4;
+
+    private static final double SCALE_FACTOR = 10_000.0;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int OBJECT_HEADER_BYTES = 32;
+    private static final RateSeries EMPTY = new RateSeries(new int[0], new long[0]);
+
+    private final int[] epochDays;
+    private final long[] rates;
+    private final int offset;
+    private final int size;
+    private final DateIndex dateIndex;
+    private Map<FillPolicy, DenseDailySeries> dailySeries;
+
+    private RateSeries(int[] epochDays, long[] rates) {
+        this(epochDays, rates, 0, epochDays.length, new DateIndex(epochDays, epochDays.length));
+    }
+
+    private RateSeries(int[] epochDays, long[] rates, int offset, int size, DateIndex dateIndex) {
+        this.epochDays = epochDays;
+        this.rates = rates;
+        this.offset = offset;
+        this.size = size;
+        this.dateIndex = dateIndex;
+    }
+
+    public static RateSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a series from CurrencyData records given in any order.
+     * If several records share a date, the first one is kept.
+     *
+     * @param currencyData The records to convert.
+     * @return A series containing the records sorted by ascending date.
+     */
+    public static RateSeries fromCurrencyData(Collection<CurrencyData> currencyData) {
+        final Builder builder = builder(currencyData.size());
+        for (CurrencyData data : currencyData) {
+            builder.add((int) data.date().toEpochDay(), toFixedPoint(data.rate()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a series backed by the specified columns without copying them.
+     * The caller hands the arrays over and must not modify them afterwards.
+     *
+     * @param epochDays The dates of the points as counts of days since the epoch, strictly ascending.
+     * @param rates     The rates of the points scaled by 10^{@link #RATE_SCALE}.
+     * @return A series wrapping the columns.
+     * @throws IllegalArgumentException If the columns differ in length or the dates are not strictly ascending.
+     */
+    public static RateSeries of(int[] epochDays, long[] rates) {
+        if (epochDays.length != rates.length) {
+            throw new IllegalArgumentException("Column lengths differ: " + epochDays.length + " dates, "
+                    + rates.length + " rates");
+        }
+        for (int i = 1; i < epochDays.length; i++) {
+            if (epochDays[i - 1] >= epochDays[i]) {
+                throw new IllegalArgumentException("Dates are not strictly ascending at index " + i);
+            }
+        }
+        return epochDays.length == 0 ? EMPTY : new RateSeries(epochDays, rates);
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(Math.max(expectedSize, 1));
+    }
+
+    /**
+     * Converts a rate to its fixed-point representation, rounding half up to {@link #RATE_SCALE} decimal places.
+     *
+     * @param rate The rate to convert.
+     * @return The rate scaled by 10^{@link #RATE_SCALE}.
+     */
+    public static long toFixedPoint(BigDecimal rate) {
+        return rate.setScale(RATE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts a fixed-point rate back to a BigDecimal with {@link #RATE_SCALE} decimal places.
+     *
+     * @param fixedPointRate The rate scaled by 10^{@link #RATE_SCALE}.
+     * @return The rate as a BigDecimal.
+     */
+    public static BigDecimal fromFixedPoint(long fixedPointRate) {
+        return BigDecimal.valueOf(fixedPointRate, RATE_SCALE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int epochDay(int index) {
+        return epochDays[offset + checkIndex(index)];
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDay(index));
+    }
+
+    /**
+     * @param index The index of the point.
+     * @return The rate of the point scaled by 10^{@link #RATE_SCALE}.
+     */
+    public long fixedPointRate(int index) {
+        return rates[offset + checkIndex(index)];
+    }
+
+    public BigDecimal rate(int index) {
+        return fromFixedPoint(fixedPointRate(index));
+    }
+
+    public double doubleRate(int index) {
+        return fixedPointRate(index) / SCALE_FACTOR;
+    }
+
+    public CurrencyData get(int index) {
+        return new CurrencyData(date(index), rate(index));
+    }
+
+    public LocalDate firstDate() {
+        return date(0);
+    }
+
+    public LocalDate lastDate() {
+        return date(size - 1);
+    }
+
+    /**
+     * Returns a view of the points between the specified indexes. The view shares the data of this series.
+     *
+     * @param fromIndex The index of the first point, inclusive.
+     * @param toIndex   The index of the last point, exclusive.
+     * @return A series containing the selected points.
+     */
+    public RateSeries slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Invalid slice [" + fromIndex + ", " + toIndex + ") of size " + size);
+        }
+        return new RateSeries(epochDays, rates, offset + fromIndex, toIndex - fromIndex, dateIndex);
+    }
+
+    /**
+     * Finds the point with the specified date in O(1).
+     *
+     * @param date The date to look up.
+     * @return The index of the point with this date, or -1 if this series has no such point.
+     */
+    public int indexOf(LocalDate date) {
+        final int index = dateIndex.indexOf(toIndexedDay(date)) - offset;
+        return index >= 0 && index < size ? index : -1;
+    }
+
+    /**
+     * Finds the latest point dated on or before the specified date in O(1).
+     *
+     * @param date The date to look up.
+     * @return The index of the latest point not after the date, or -1 if every point is after it.
+     */
+    public int floorIndex(LocalDate date) {
+        final int index = dateIndex.floorIndex(toIndexedDay(date)) - offset;
+        return index < 0 ? -1 : Math.min(index, size - 1);
+    }
+
+    /**
+     * Returns a view of the points dated between the specified dates.
+     *
+     * @param from The first date, inclusive.
+     * @param to   The last date, inclusive.
+     * @return A series containing the points within the dates, possibly empty.
+     */
+    public RateSeries between(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return slice(0, 0);
+        }
+        final int fromIndex = floorIndex(from.minusDays(1)) + 1;
+        final int toIndex = floorIndex(to) + 1;
+        return slice(fromIndex, Math.max(fromIndex, toIndex));
+    }
+
+    /**
+     * Returns a view of the most recent points of this series.
+     *
+     * @param count The maximum number of points to keep.
+     * @return A series containing at most {@code count} latest points.
+     */
+    public RateSeries latest(int count) {
+        return slice(Math.max(0, size - count), size);
+    }
+
+    /**
+     * Returns a view of the fewest most recent points of this series satisfying a requirement.
+     *
+     * @param requirement The part of the history needed.
+     * @return A series containing the required latest points, or this whole series if it does not hold them all.
+     */
+    public RateSeries latest(DataRequirement requirement) {
+        int fromIndex = size;
+        while (fromIndex > 0 && !requirement.isSatisfied(size - fromIndex, epochDay(fromIndex - 1))) {
+            fromIndex--;
+        }
+        return slice(fromIndex, size);
+    }
+
+    /**
+     * Returns the dense daily view of this series, building it on first use for each fill policy.
+     *
+     * @param fillPolicy The policy used for the days without a published rate.
+     * @return The dense daily view of this series.
+     */
+    public synchronized DenseDailySeries daily(FillPolicy fillPolicy) {
+        if (dailySeries == null) {
+            dailySeries = new EnumMap<>(FillPolicy.class);
+        }
+        return dailySeries.computeIfAbsent(fillPolicy, policy -> DenseDailySeries.of(this, policy));
+    }
+
+    /**
+     * Finds the dates where this series differs from another one: points present in only one of them,
+     * or present in both with different rates. Both series are walked once.
+     *
+     * @param other The series to compare with.
+     * @return The range from the first to the last differing date, or null if the series hold the same points.
+     */
+    public DateRange changedRange(RateSeries other) {
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            final int day;
+            if (j == other.size || i < size && epochDay(i) < other.epochDay(j)) {
+                day = epochDay(i++);
+            } else if (i == size || other.epochDay(j) < epochDay(i)) {
+                day = other.epochDay(j++);
+            } else if (fixedPointRate(i++) != other.fixedPointRate(j++)) {
+                day = epochDay(i - 1);
+            } else {
+                continue;
+            }
+            first = Math.min(first, day);
+            last = Math.max(last, day);
+        }
+        return first > last ? null : new DateRange(LocalDate.ofEpochDay(first), LocalDate.ofEpochDay(last));
+    }
+
+    /**
+     * @return The points of this series as CurrencyData sorted by ascending date.
+     */
+    public List<CurrencyData> toCurrencyDataList() {
+        final List<CurrencyData> currencyData = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            currencyData.add(get(i));
+        }
+        return currencyData;
+    }
+
+    /**
+     * @return The points of this series as CurrencyData sorted from the newest date to the oldest.
+     */
+    public List<CurrencyData> toCurrencyDataListNewestFirst() {
+        final List<CurrencyData> currencyData = toCurrencyDataList();
+        Collections.reverse(currencyData);
+        return currencyData;
+    }
+
+    /**
+     * @return An estimate of the heap retained by the arrays backing this series.
+     */
+    public long sizeInBytes() {
+        return OBJECT_HEADER_BYTES + 2L * ARRAY_HEADER_BYTES
+                + (long) Integer.BYTES * epochDays.length + (long) Long.BYTES * rates.length;
+    }
+
+    private static int toIndexedDay(LocalDate date) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, date.toEpochDay()));
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    /**
+     * A builder that collects points in any order and produces a sorted RateSeries.
+     */
+    public static final class Builder {
+        private int[] epochDays;
+        private long[] rates;
+        private int size;
+
+        private Builder(int capacity) {
+            this.epochDays = new int[capacity];
+            this.rates = new long[capacity];
+        }
+
+        /**
+         * Appends a point to the series being built.
+         *
+         * @param epochDay       The date of the point as a count of days since the epoch.
+         * @param fixedPointRate The rate scaled by 10^{@link #RATE_SCALE}.
+         * @return This builder.
+         */
+        public Builder add(int epochDay, long fixedPointRate) {
+            if (size == epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+            }
+            epochDays[size] = epochDay;
+            rates[size] = fixedPointRate;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Builds the series, sorting the points by ascending date. If several points share a date,
+         * the one added first is kept.
+         *
+         * @return The built series.
+         */
+        public RateSeries build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (isStrictlyAscending()) {
+                return new RateSeries(Arrays.copyOf(epochDays, size), Arrays.copyOf(rates, size));
+            }
+            if (isStrictlyDescending()) {
+                final int[] sortedDays = new int[size];
+                final long[] sortedRates = new long[size];
+                for (int i = 0; i < size; i++) {
+                    sortedDays[i] = epochDays[size - 1 - i];
+                    sortedRates[i] = rates[size - 1 - i];
+                }
+                return new RateSeries(sortedDays, sortedRates);
+            }
+            return buildSorted();
+        }
+
+        private RateSeries buildSorted() {
+            final long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) epochDays[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            final int[] sortedDays = new int[size];
+            final long[] sortedRates = new long[size];
+            int count = 0;
+            for (long key : keys) {
+                final int day = (int) (key >> 32);
+                if (count > 0 && sortedDays[count - 1] == day) {
+                    continue;
+                }
+                sortedDays[count] = day;
+                sortedRates[count] = rates[(int) key];
+                count++;
+            }
+            return new RateSeries(Arrays.copyOf(sortedDays, count), Arrays.copyOf(sortedRates, count));
+        }
+
+        private boolean isStrictlyAscending() {
+            for (int i = 1; i < size; i++) {
+                if (epochDays[i - 1] >= epochDays[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isStrictlyDescending() {
+            for (int i = 1; i < size; i++) {
+                if (epochDays[i - 1] <= epochDays[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -8,6 +8,9 @@ import org.telegram.telegrambots.meta.api.objects.Update;
 import ru.liga.rateforecaster.telegrambot.dialoghandler.TelegramBotDialogHandler;
 import ru.liga.rateforecaster.utils.AppConfig;
 
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Telegram bot class that handles user interactions.
  */
@@ -15,6 +18,7 @@ public final class Bot extends TelegramLongPollingBot {
 
     private static final Logger log = LoggerFactory.getLogger(Bot.class);
 
+    private final AtomicBoolean firstUpdateReceived = new AtomicBoolean();
     private TelegramBotDialogHandler telegramBotDialogHandler;
 
     public Bot() {
@@ -37,6 +41,9 @@ public final class Bot extends TelegramLongPollingBot {
     @Override
     public void onUpdateReceived(Update update) {
         log.debug("Received an update: {}", update);
+        if (firstUpdateReceived.compareAndSet(false, true)) {
+            log.info("Accepted the first update {} ms after JVM start", ManagementFactory.getRuntimeMXBean().getUptime());
+        }
         telegramBotDialogHandler.handleUpdate(update);
     }
 }
\ No newline at end of file
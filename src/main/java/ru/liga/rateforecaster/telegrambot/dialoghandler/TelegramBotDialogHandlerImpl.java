@@ -3,10 +3,11 @@ package ru.liga.rateforecaster.telegrambot.dialoghandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import ru.liga.rateforecaster.enums.Currency;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
 import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
 import ru.liga.rateforecaster.enums.OutputType;
 import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.model.Currency;
 import ru.liga.rateforecaster.model.FormattedResult;
 import ru.liga.rateforecaster.telegrambot.model.BotState;
 import ru.liga.rateforecaster.telegrambot.model.State;
@@ -27,6 +28,7 @@ public class TelegramBotDialogHandlerImpl implements TelegramBotDialogHandler {
     private final TelegramMessageSender telegramMessageSender;
     private final ResourceBundle errorResourceBundle;
     private final ResourceBundle messageResourceBundle;
+    private final CurrencyRegistry currencyRegistry;
     private final Map<Long, BotState> userStates = new HashMap<>();
 
     private static final String START_COMMAND = "/start";
@@ -37,11 +39,13 @@ public class TelegramBotDialogHandlerImpl implements TelegramBotDialogHandler {
     public TelegramBotDialogHandlerImpl(TelegramBotRequestHandler telegramBotRequestHandler,
                                         TelegramMessageSender telegramMessageSender,
                                         ResourceBundle messageResourceBundle,
-                                        ResourceBundle errorResourceBundle) {
+                                        ResourceBundle errorResourceBundle,
+                                        CurrencyRegistry currencyRegistry) {
         this.telegramBotRequestHandler = telegramBotRequestHandler;
         this.telegramMessageSender = telegramMessageSender;
         this.messageResourceBundle = messageResourceBundle;
         this.errorResourceBundle = errorResourceBundle;
+        this.currencyRegistry = currencyRegistry;
     }
 
     /**
@@ -120,7 +124,7 @@ public class TelegramBotDialogHandlerImpl implements TelegramBotDialogHandler {
 
     private void handleCurrencySelection(String messageText, BotState botState, Update update, List<Currency> currencies) {
         if (!Objects.equals(messageText, messageResourceBundle.getString("choose.rate.type.message"))) {
-            botState.getCurrencies().add(Currency.valueOf(messageText));
+            botState.getCurrencies().add(currencyRegistry.find(messageText));
             botState.setState(WAITING_FOR_CURRENCY);
             telegramBotRequestHandler.openCurrencyKeyboard(update, currencies);
         } else {
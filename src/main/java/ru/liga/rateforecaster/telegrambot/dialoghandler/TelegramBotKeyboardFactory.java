@@ -5,24 +5,27 @@ import org.slf4j.LoggerFactory;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardButton;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardRow;
-import ru.liga.rateforecaster.enums.Currency;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
 import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
 import ru.liga.rateforecaster.enums.OutputType;
 import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.model.Currency;
 
 import java.util.*;
 
 public class TelegramBotKeyboardFactory {
     private static final Logger log = LoggerFactory.getLogger(TelegramBotKeyboardFactory.class);
     private final ResourceBundle resourceBundle;
+    private final CurrencyRegistry currencyRegistry;
 
-    public TelegramBotKeyboardFactory(ResourceBundle resourceBundle) {
+    public TelegramBotKeyboardFactory(ResourceBundle resourceBundle, CurrencyRegistry currencyRegistry) {
         this.resourceBundle = resourceBundle;
+        this.currencyRegistry = currencyRegistry;
     }
 
 
     /**
-     * Creates a keyboard for selecting currencies.
+     * Creates a keyboard for selecting among the currencies known to the registry.
      *
      * @param currencies The list of selected currencies
      * @return A ReplyKeyboardMarkup object with the currency keyboard
@@ -31,7 +34,7 @@ public class TelegramBotKeyboardFactory {
         ReplyKeyboardMarkup keyboard = new ReplyKeyboardMarkup();
         List<KeyboardRow> keyboardRows = new ArrayList<>();
         try {
-            for (Currency currency : Currency.values()) {
+            for (Currency currency : currencyRegistry.getCurrencies()) {
                 KeyboardRow row = new KeyboardRow();
                 KeyboardButton button = new KeyboardButton(currency.name());
                 if (!currencies.contains(currency)) {
@@ -5,8 +5,8 @@ import org.slf4j.LoggerFactory;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import ru.liga.rateforecaster.enums.Currency;
 import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.model.Currency;
 import ru.liga.rateforecaster.telegrambot.Bot;
 
 import java.util.List;
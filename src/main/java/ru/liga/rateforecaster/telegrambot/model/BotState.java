@@ -3,10 +3,10 @@ package ru.liga.rateforecaster.telegrambot.model;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
-import ru.liga.rateforecaster.enums.Currency;
 import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
 import ru.liga.rateforecaster.enums.OutputType;
 import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.model.Currency;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -1,6 +1,5 @@
 package ru.liga.rateforecaster.telegrambot.sender;
 
-import org.jfree.chart.ChartPanel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
@@ -13,10 +12,7 @@ import ru.liga.rateforecaster.model.FormattedResult;
 import ru.liga.rateforecaster.telegrambot.Bot;
 import ru.liga.rateforecaster.telegrambot.model.BotState;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ResourceBundle;
 
@@ -61,7 +57,7 @@ public class TelegramMessageSenderImpl implements TelegramMessageSender {
             sendMessage(result.getTextResult(), update);
         } else if (result.getChartImage() != null) {
             try {
-                sendChart(result.getChartImage(), update);
+                sendChart(result, update);
             } catch (IOException e) {
                 log.error("Failed to send chart", e);
                 sendError("error.failedToSendChart", update.getMessage().getChatId());
@@ -92,19 +88,17 @@ public class TelegramMessageSenderImpl implements TelegramMessageSender {
     }
 
     /**
-     * Sends a chart as a photo to the user.
+     * Sends a chart as a photo to the user. The chart is rendered on first use and the image is kept
+     * with the result, so a cached or precomputed chart is not drawn again.
      *
-     * @param chartPanel The chart to send as a photo.
-     * @param update     The update object to reply to.
+     * @param result The result holding the chart to send as a photo.
+     * @param update The update object to reply to.
      * @throws IOException if there's an issue with image conversion.
      */
-    private void sendChart(ChartPanel chartPanel, Update update) throws IOException {
-        int width = 800;
-        int height = 600;
+    private void sendChart(FormattedResult result, Update update) throws IOException {
         SendPhoto sendPhoto = new SendPhoto();
         sendPhoto.setChatId(update.getMessage().getChatId());
-        BufferedImage bufferedImage = chartPanel.getChart().createBufferedImage(width, height);
-        InputFile inputFile = new InputFile(new ByteArrayInputStream(bufferedImageToByteArray(bufferedImage)), "image.png");
+        InputFile inputFile = new InputFile(new ByteArrayInputStream(result.getChartPng()), "image.png");
         sendPhoto.setPhoto(inputFile);
         try {
             bot.execute(sendPhoto);
@@ -113,19 +107,6 @@ public class TelegramMessageSenderImpl implements TelegramMessageSender {
         }
     }
 
-    /**
-     * Converts a BufferedImage to a byte array.
-     *
-     * @param bufferedImage The BufferedImage to convert.
-     * @return A byte array containing the image data.
-     * @throws IOException if there's an issue with image conversion.
-     */
-    private byte[] bufferedImageToByteArray(BufferedImage bufferedImage) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(bufferedImage, "png", baos);
-        return baos.toByteArray();
-    }
-
     /**
      * Sends an error message to the user with a specified chat ID.
      *
@@ -2,6 +2,12 @@ package ru.liga.rateforecaster.utils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.liga.rateforecaster.enums.EvictionPolicy;
+import ru.liga.rateforecaster.enums.FillPolicy;
+import ru.liga.rateforecaster.enums.NumericMode;
+import ru.liga.rateforecaster.enums.StartupMode;
+import ru.liga.rateforecaster.enums.StorageMode;
+import ru.liga.rateforecaster.model.Currency;
 
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -33,24 +39,81 @@ public class AppConfig {
     }
 
 
-    public String getTryFilePath() {
-        return properties.getProperty("tryFilePath");
+    public String getDataDirectory() {
+        return properties.getProperty("dataDirectory", "/cvs").trim();
     }
 
-    public String getEurFilePath() {
-        return properties.getProperty("eurFilePath");
+    public String getSnapshotDirectory() {
+        return properties.getProperty("snapshotDirectory");
     }
 
-    public String getUsdFilePath() {
-        return properties.getProperty("usdFilePath");
+    public int getStartupLoadThreads() {
+        return Integer.parseInt(properties.getProperty("startupLoadThreads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
     }
 
-    public String getBgnFilePath() {
-        return properties.getProperty("bgnFilePath");
+    public StartupMode getStartupMode() {
+        return StartupMode.valueOf(properties.getProperty("startupMode", StartupMode.EAGER.name()).trim());
     }
 
-    public String getAmdFilePath() {
-        return properties.getProperty("amdFilePath");
+    public long getStartupLoadTimeoutSeconds() {
+        return Long.parseLong(properties.getProperty("startupLoadTimeoutSeconds", "30"));
+    }
+
+    /**
+     * @return The estimated heap the repository may spend on currency histories, unlimited by default.
+     */
+    public long getSeriesHeapBudgetBytes() {
+        return Long.parseLong(properties.getProperty("seriesHeapBudgetBytes", String.valueOf(Long.MAX_VALUE)).trim());
+    }
+
+    public EvictionPolicy getSeriesEvictionPolicy() {
+        return EvictionPolicy.valueOf(properties.getProperty("seriesEvictionPolicy", EvictionPolicy.LRU.name()).trim());
+    }
+
+    /**
+     * @return The number of rates averaged by the AVERAGE algorithm, 7 by default.
+     */
+    public int getAverageWindowDays() {
+        return Integer.parseInt(properties.getProperty("averageWindowDays", "7").trim());
+    }
+
+    /**
+     * @return The maximum number of formatted forecasts kept in the cache, 0 disabling the cache.
+     */
+    public int getForecastCacheCapacity() {
+        return Integer.parseInt(properties.getProperty("forecastCacheCapacity", "1024").trim());
+    }
+
+    public long getForecastCacheTtlSeconds() {
+        return Long.parseLong(properties.getProperty("forecastCacheTtlSeconds", "3600").trim());
+    }
+
+    /**
+     * @return The share of the processors the forecast precomputation may use, 0 disabling it; 0.25 by default.
+     */
+    public double getPrecomputeCpuShare() {
+        return Double.parseDouble(properties.getProperty("precomputeCpuShare", "0.25").trim());
+    }
+
+    public NumericMode getNumericMode() {
+        return NumericMode.valueOf(properties.getProperty("numericMode", NumericMode.FIXED_POINT.name()).trim());
+    }
+
+    public FillPolicy getDailyFillPolicy() {
+        return FillPolicy.valueOf(properties.getProperty("dailyFillPolicy", FillPolicy.PREVIOUS.name()).trim());
+    }
+
+    /**
+     * Returns the storage mode of a currency history: the value of {@code storageMode.<CODE>} if present,
+     * otherwise the value of {@code storageMode}, PLAIN by default.
+     *
+     * @param currency The currency whose storage mode is requested.
+     * @return The configured storage mode.
+     */
+    public StorageMode getStorageMode(Currency currency) {
+        final String defaultMode = properties.getProperty("storageMode", StorageMode.PLAIN.name());
+        return StorageMode.valueOf(properties.getProperty("storageMode." + currency.name(), defaultMode).trim());
     }
 
     public String getBotUserName() {
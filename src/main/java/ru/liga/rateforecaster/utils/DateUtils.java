@@ -1,6 +1,7 @@
 package ru.liga.rateforecaster.utils;
 
 import java.time.LocalDate;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Locale;
@@ -14,6 +15,10 @@ public class DateUtils {
     private static final int ONE_MONTH = 1;
     private static final int ONE_YEAR = 1;
     private static final int WEEK = 7;
+    private static final int DAYS_IN_400_YEARS = 146097;
+    private static final int DAYS_FROM_0000_03_01_TO_EPOCH = 719468;
+    private static final DateTimeFormatter CSV_DATE_FORMATTER = DateTimeFormatter.ofPattern("M/d/yyyy");
+    private static final DateTimeFormatter INPUT_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
     public static LocalDate getTomorrowDate() {
         return LocalDate.now().plusDays(ONE_DAY);
@@ -37,14 +42,50 @@ public class DateUtils {
 
 
     public static LocalDate formatDate(String dateStr) {
-        return LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("M/d/yyyy"));
+        return LocalDate.parse(dateStr, CSV_DATE_FORMATTER);
     }
 
-    public static LocalDate parseDate(String dateString) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    /**
+     * Checks whether the given year, month and day form an existing ISO calendar date.
+     *
+     * @param year  The year.
+     * @param month The month of the year, from 1 to 12.
+     * @param day   The day of the month.
+     * @return true if the date exists, false otherwise.
+     */
+    public static boolean isValidDate(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        final int daysInMonth = switch (month) {
+            case 2 -> Year.isLeap(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+        return day <= daysInMonth;
+    }
 
+    /**
+     * Converts a valid ISO calendar date to a count of days since the epoch without creating a LocalDate.
+     * The result is the same as {@code LocalDate.of(year, month, day).toEpochDay()}.
+     *
+     * @param year  The year.
+     * @param month The month of the year, from 1 to 12.
+     * @param day   The day of the month.
+     * @return The number of days since 1970-01-01.
+     */
+    public static int toEpochDay(int year, int month, int day) {
+        final int shiftedYear = month <= 2 ? year - 1 : year;
+        final int era = Math.floorDiv(shiftedYear, 400);
+        final int yearOfEra = shiftedYear - era * 400;
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_IN_400_YEARS + dayOfEra - DAYS_FROM_0000_03_01_TO_EPOCH;
+    }
+
+    public static LocalDate parseDate(String dateString) {
         try {
-            return LocalDate.parse(dateString, formatter);
+            return LocalDate.parse(dateString, INPUT_DATE_FORMATTER);
         } catch (IllegalArgumentException | DateTimeParseException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,106 @@
+package algorithm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.enums.NumericMode;
+import ru.liga.rateforecaster.exception.DataFillFailureException;
+import ru.liga.rateforecaster.exception.InvalidPredictionDataException;
+import ru.liga.rateforecaster.forecast.algorithm.average.AveragePredictionAlgorithm;
+import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AveragePredictionAlgorithmTest {
+
+    private static final LocalDate LATEST_DATE = LocalDate.of(2023, 10, 24);
+
+    private AveragePredictionAlgorithm predictionAlgorithm;
+
+    @BeforeEach
+    void setUp() {
+        predictionAlgorithm = new AveragePredictionAlgorithm();
+    }
+
+    @Test
+    void calculateRateForDate_ForLatestDate_ReturnsAverageOfSevenPreviousRates() {
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(seriesOfEightDays(), LATEST_DATE);
+
+        assertEquals(new CurrencyData(LATEST_DATE, new BigDecimal("4.00")), result);
+    }
+
+    @Test
+    void calculateRateForDate_ForNextDate_IncludesLatestAndProjectedRates() {
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(seriesOfEightDays(), LATEST_DATE.plusDays(1));
+
+        assertEquals(new CurrencyData(LATEST_DATE.plusDays(1), new BigDecimal("5.29")), result);
+    }
+
+    @Test
+    void calculateRateForDate_ForFarFutureDate_DoesNotOverflowTheStack() {
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(seriesOfEightDays(), LATEST_DATE.plusYears(50));
+
+        assertEquals(LATEST_DATE.plusYears(50), result.date());
+    }
+
+    @Test
+    void calculateRateForDate_WithConfiguredWindow_AveragesThatManyRates() {
+        AveragePredictionAlgorithm threeDayAverage = new AveragePredictionAlgorithm(3);
+
+        CurrencyData result = threeDayAverage.calculateRateForDate(seriesOfEightDays(), LATEST_DATE);
+
+        assertEquals(new CurrencyData(LATEST_DATE, new BigDecimal("6.00")), result);
+    }
+
+    @Test
+    void calculateRateForDate_AfterLaterDate_ReturnsSameRateAsFreshAlgorithm() {
+        RateSeries series = seriesOfEightDays();
+        predictionAlgorithm.calculateRateForDate(series, LATEST_DATE.plusDays(30));
+
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(series, LATEST_DATE.plusDays(1));
+
+        assertEquals(new CurrencyData(LATEST_DATE.plusDays(1), new BigDecimal("5.29")), result);
+    }
+
+    @Test
+    void forecastRange_InBigDecimalMode_ReturnsSameRatesAsFixedPointMode() {
+        AveragePredictionAlgorithm bigDecimalAverage = new AveragePredictionAlgorithm(7, NumericMode.BIG_DECIMAL);
+
+        List<CurrencyData> expected = predictionAlgorithm.forecastRange(seriesOfEightDays(), LATEST_DATE, LATEST_DATE.plusDays(60));
+
+        assertEquals(expected, bigDecimalAverage.forecastRange(seriesOfEightDays(), LATEST_DATE, LATEST_DATE.plusDays(60)));
+    }
+
+    @Test
+    void calculateRateForDate_ForPastDate_ReturnsPublishedRate() {
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(seriesOfEightDays(), LATEST_DATE.minusDays(3));
+
+        assertEquals(new CurrencyData(LATEST_DATE.minusDays(3), new BigDecimal("5.0000")), result);
+        assertThrows(InvalidPredictionDataException.class,
+                () -> predictionAlgorithm.calculateRateForDate(seriesOfEightDays(), LATEST_DATE.minusDays(30)));
+    }
+
+    @Test
+    void calculateRateForDate_WithShortHistory_ThrowsDataFillFailureException() {
+        RateSeries series = RateSeries.builder().add((int) LATEST_DATE.toEpochDay(), 10_000).build();
+
+        assertThrows(DataFillFailureException.class,
+                () -> predictionAlgorithm.calculateRateForDate(series, LATEST_DATE.plusDays(1)));
+    }
+
+    /**
+     * Rates 1 to 8 published on the 8 days ending on the latest date.
+     */
+    private RateSeries seriesOfEightDays() {
+        RateSeries.Builder builder = RateSeries.builder();
+        for (int i = 0; i < 8; i++) {
+            builder.add((int) LATEST_DATE.minusDays(7 - i).toEpochDay(), (i + 1) * 10_000L);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,87 @@
+package algorithm;
+
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.average.AveragePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.ensemble.EnsemblePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.mist.MistPredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.moon.MoonPredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.year.YearPredictionAlgorithm;
+import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.EnsembleForecast;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EnsemblePredictionAlgorithmTest {
+
+    private static final LocalDate LAST_DATE = LocalDate.of(2023, 10, 24);
+    private static final long SEED = 42;
+
+    @Test
+    void forecast_ReturnsTheForecastOfEachAlgorithmAndTheirMean() {
+        RateSeries series = createSeries(400);
+        LocalDate from = LAST_DATE.minusDays(1);
+        LocalDate to = LAST_DATE.plusDays(7);
+
+        EnsembleForecast forecast = createEnsemble(7).forecast(series, from, to);
+
+        assertEquals(List.of(ForecastingAlgorithm.AVERAGE, ForecastingAlgorithm.YEAR, ForecastingAlgorithm.MOON,
+                ForecastingAlgorithm.MIST), List.copyOf(forecast.members().keySet()));
+        Map<ForecastingAlgorithm, RatePredictionAlgorithm> separate = createMembers(7);
+        separate.forEach((algorithm, member) ->
+                assertEquals(member.forecastRange(series, from, to), forecast.members().get(algorithm)));
+        for (int i = 0; i < forecast.combined().size(); i++) {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (List<CurrencyData> memberForecast : forecast.members().values()) {
+                sum = sum.add(memberForecast.get(i).rate());
+            }
+            assertEquals(from.plusDays(i), forecast.combined().get(i).date());
+            assertEquals(sum.divide(BigDecimal.valueOf(4), RateSeries.RATE_SCALE, RoundingMode.HALF_UP),
+                    forecast.combined().get(i).rate());
+        }
+    }
+
+    @Test
+    void forecast_WhenAnAlgorithmFails_LeavesItOut() {
+        RateSeries series = createSeries(20);
+
+        EnsembleForecast forecast = createEnsemble(30).forecast(series, LAST_DATE.plusDays(1), LAST_DATE.plusDays(7));
+
+        assertEquals(List.of(ForecastingAlgorithm.MOON, ForecastingAlgorithm.MIST),
+                List.copyOf(forecast.members().keySet()));
+        assertEquals(7, forecast.combined().size());
+    }
+
+    private static EnsemblePredictionAlgorithm createEnsemble(int averageWindow) {
+        return new EnsemblePredictionAlgorithm(createMembers(averageWindow));
+    }
+
+    private static Map<ForecastingAlgorithm, RatePredictionAlgorithm> createMembers(int averageWindow) {
+        Map<ForecastingAlgorithm, RatePredictionAlgorithm> members = new LinkedHashMap<>();
+        members.put(ForecastingAlgorithm.AVERAGE, new AveragePredictionAlgorithm(averageWindow));
+        members.put(ForecastingAlgorithm.YEAR, new YearPredictionAlgorithm());
+        members.put(ForecastingAlgorithm.MOON, new MoonPredictionAlgorithm());
+        members.put(ForecastingAlgorithm.MIST, new MistPredictionAlgorithm(SEED));
+        return members;
+    }
+
+    private static RateSeries createSeries(int days) {
+        RateSeries.Builder builder = RateSeries.builder();
+        for (int day = days - 1; day >= 0; day--) {
+            LocalDate date = LAST_DATE.minusDays(day);
+            if (date.getDayOfWeek().getValue() < 6) {
+                builder.add((int) date.toEpochDay(), 300_000 + (long) (day % 17) * 1_250);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -7,6 +7,7 @@ import ru.liga.rateforecaster.exception.InvalidPredictionDataException;
 import ru.liga.rateforecaster.forecast.algorithm.mist.MistPredictionAlgorithm;
 import ru.liga.rateforecaster.forecast.algorithm.mist.RandomNumberGenerator;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -34,8 +35,8 @@ public class MistPredictionAlgorithmTest {
         List<CurrencyData> currencyDataList = new ArrayList<>();
         currencyDataList.add(new CurrencyData(targetDate, new BigDecimal("1.0")));
 
-        CurrencyData result = predictionAlgorithm.calculateRateForDate(currencyDataList, targetDate);
-        assertEquals(new BigDecimal("1.0"), result.rate());
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(RateSeries.fromCurrencyData(currencyDataList), targetDate);
+        assertEquals(new BigDecimal("1.0000"), result.rate());
     }
 
     @Test
@@ -45,8 +46,8 @@ public class MistPredictionAlgorithmTest {
         when(randomNumberGenerator.nextInt(currencyDataList.size())).thenReturn(0);
         currencyDataList.add(new CurrencyData(targetDate.minusDays(1), new BigDecimal("2.0")));
         currencyDataList.add(new CurrencyData(targetDate.minusDays(2), new BigDecimal("3.0")));
-        CurrencyData result = predictionAlgorithm.calculateRateForDate(currencyDataList, targetDate);
-        assertEquals(new BigDecimal("2.0"), result.rate());
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(RateSeries.fromCurrencyData(currencyDataList), targetDate);
+        assertEquals(new BigDecimal("2.0000"), result.rate());
     }
 
     @Test
@@ -55,7 +56,23 @@ public class MistPredictionAlgorithmTest {
         List<CurrencyData> currencyDataList = new ArrayList<>();
 
         assertThrows(InvalidPredictionDataException.class, () -> {
-            predictionAlgorithm.calculateRateForDate(currencyDataList, targetDate);
+            predictionAlgorithm.calculateRateForDate(RateSeries.fromCurrencyData(currencyDataList), targetDate);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void forecastRange_WithSameSeed_ReturnsSameForecast() {
+        LocalDate targetDate = LocalDate.of(2023, 10, 24);
+        RateSeries.Builder builder = RateSeries.builder();
+        for (int i = 0; i < 100; i++) {
+            builder.add((int) targetDate.minusDays(i).toEpochDay(), 10_000L + i);
+        }
+        RateSeries series = builder.build();
+
+        List<CurrencyData> first = new MistPredictionAlgorithm(42).forecastRange(series, targetDate.plusDays(1), targetDate.plusDays(30));
+        List<CurrencyData> second = new MistPredictionAlgorithm(42).forecastRange(series, targetDate.plusDays(1), targetDate.plusDays(30));
+
+        assertEquals(first, second);
+        assertEquals(30, first.size());
+    }
+}
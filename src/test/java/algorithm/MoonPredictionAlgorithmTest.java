@@ -2,9 +2,14 @@ package algorithm;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.enums.NumericMode;
 import ru.liga.rateforecaster.exception.InvalidPredictionDataException;
+import ru.liga.rateforecaster.forecast.algorithm.moon.LinearRegression;
 import ru.liga.rateforecaster.forecast.algorithm.moon.MoonPredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.moon.RegressionPrefixSums;
+import ru.liga.rateforecaster.forecast.algorithm.moon.RegressionSums;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -29,29 +34,68 @@ public class MoonPredictionAlgorithmTest {
     void calculateRateForDate_WhenLastMonthDataExists_ReturnsPredictedRate() {
         List<CurrencyData> lastMonthData = new ArrayList<>();
         IntStream.rangeClosed(1, 30).forEach(day -> lastMonthData.add(new CurrencyData(LocalDate.of(2023, 3, day), new BigDecimal("1.0"))));
-        double expectedRate = 1.0;
+        BigDecimal expectedRate = new BigDecimal("1.0000");
 
         MoonPredictionAlgorithm predictionAlgorithm = new MoonPredictionAlgorithm();
-        CurrencyData result = predictionAlgorithm.calculateRateForDate(lastMonthData, targetDate);
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(RateSeries.fromCurrencyData(lastMonthData), targetDate);
 
-        assertEquals(BigDecimal.valueOf(expectedRate), result.rate());
+        assertEquals(expectedRate, result.rate());
     }
 
     @Test
     void calculateRateForDate_WhenLastMonthDataDoesNotExist_ReturnsPredictedRate() {
         List<CurrencyData> lastMonthData = new ArrayList<>();
         IntStream.rangeClosed(1, 30).forEach(day -> lastMonthData.add(new CurrencyData(LocalDate.of(2023, 4, day), new BigDecimal("1.0"))));
-        double expectedRate = 1.0;
+        BigDecimal expectedRate = new BigDecimal("1.0000");
         MoonPredictionAlgorithm predictionAlgorithm = new MoonPredictionAlgorithm();
 
-        CurrencyData result = predictionAlgorithm.calculateRateForDate(lastMonthData, targetDate);
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(RateSeries.fromCurrencyData(lastMonthData), targetDate);
 
-        assertEquals(BigDecimal.valueOf(expectedRate), result.rate());
+        assertEquals(expectedRate, result.rate());
+    }
+
+    @Test
+    void calculateRateForDate_InBigDecimalMode_KeepsEveryDigitOfPrediction() {
+        List<CurrencyData> lastMonthData = new ArrayList<>();
+        IntStream.rangeClosed(1, 30).forEach(day -> lastMonthData.add(new CurrencyData(LocalDate.of(2023, 4, day), new BigDecimal("1.0"))));
+        MoonPredictionAlgorithm predictionAlgorithm = new MoonPredictionAlgorithm(NumericMode.BIG_DECIMAL);
+
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(RateSeries.fromCurrencyData(lastMonthData), targetDate);
+
+        assertEquals(BigDecimal.valueOf(1.0), result.rate());
     }
 
     @Test
     void calculateRateForDate_WhenNoDataAvailable_ThrowsInvalidPredictionDataException() {
         List<CurrencyData> emptyData = new ArrayList<>();
-        org.junit.jupiter.api.Assertions.assertThrows(InvalidPredictionDataException.class, () -> predictionAlgorithm.calculateRateForDate(emptyData, targetDate));
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidPredictionDataException.class, () -> predictionAlgorithm.calculateRateForDate(RateSeries.fromCurrencyData(emptyData), targetDate));
+    }
+
+    @Test
+    void regressionPrefixSums_FitMatchesRegressionOverSlidingWindow() {
+        RateSeries.Builder builder = RateSeries.builder();
+        for (int i = 0; i < 90; i++) {
+            builder.add((int) LocalDate.of(2023, 1, 1).plusDays(i).toEpochDay(), 900_000L + i * i % 53 * 125);
+        }
+        RateSeries series = builder.build();
+        RegressionPrefixSums prefixSums = new RegressionPrefixSums(series);
+        RegressionSums window = prefixSums.sums(0, 30);
+
+        for (int from = 0; from + 30 <= series.size(); from++) {
+            double[] x = new double[30];
+            double[] y = new double[30];
+            for (int i = 0; i < 30; i++) {
+                x[i] = series.date(from + i).getDayOfMonth();
+                y[i] = series.doubleRate(from + i);
+            }
+            LinearRegression expected = new LinearRegression(x, y);
+
+            assertEquals(expected.predict(15), prefixSums.fit(from, from + 30).predict(15), 1e-9);
+            assertEquals(expected.predict(15), window.fit(10_000).predict(15), 1e-9);
+            if (from + 30 < series.size()) {
+                window.add(series.date(from + 30).getDayOfMonth(), series.fixedPointRate(from + 30));
+                window.remove(series.date(from).getDayOfMonth(), series.fixedPointRate(from));
+            }
+        }
     }
 }
@@ -2,17 +2,22 @@ package algorithm;
 
 import org.junit.jupiter.api.Test;
 import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.average.AveragePredictionAlgorithm;
 import ru.liga.rateforecaster.forecast.algorithm.mist.MistPredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.moon.MoonPredictionAlgorithm;
 import ru.liga.rateforecaster.forecast.algorithm.year.YearPredictionAlgorithm;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.math.BigDecimal;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class RatePredictionAlgorithmTest {
 
@@ -21,9 +26,9 @@ public class RatePredictionAlgorithmTest {
         RatePredictionAlgorithm predictionAlgorithm = new MistPredictionAlgorithm();
         LocalDate targetDate = LocalDate.now();
         List<CurrencyData> currencyDataList = new ArrayList<>();
-        CurrencyData expectedRate = new CurrencyData(targetDate, new BigDecimal("1.0"));
+        CurrencyData expectedRate = new CurrencyData(targetDate, new BigDecimal("1.0000"));
         currencyDataList.add(expectedRate);
-        CurrencyData result = predictionAlgorithm.getRateForDate(currencyDataList, targetDate);
+        CurrencyData result = predictionAlgorithm.getRateForDate(RateSeries.fromCurrencyData(currencyDataList), targetDate);
         assertEquals(expectedRate, result);
     }
 
@@ -32,7 +37,46 @@ public class RatePredictionAlgorithmTest {
         RatePredictionAlgorithm predictionAlgorithm = new YearPredictionAlgorithm();
         LocalDate targetDate = LocalDate.now();
         List<CurrencyData> currencyDataList = new ArrayList<>();
-        CurrencyData result = predictionAlgorithm.getRateForDate(currencyDataList, targetDate);
+        CurrencyData result = predictionAlgorithm.getRateForDate(RateSeries.fromCurrencyData(currencyDataList), targetDate);
         assertNull(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void forecastRange_ReturnsRatesOfEveryDateInAscendingOrder() {
+        RateSeries series = seriesOfWeekdays(LocalDate.of(2022, 1, 1), LocalDate.of(2023, 10, 24));
+        LocalDate from = LocalDate.of(2023, 10, 23);
+        LocalDate to = LocalDate.of(2023, 11, 20);
+
+        for (RatePredictionAlgorithm predictionAlgorithm : List.of(new AveragePredictionAlgorithm(),
+                new YearPredictionAlgorithm(), new MoonPredictionAlgorithm())) {
+            List<CurrencyData> expected = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                expected.add(predictionAlgorithm.calculateRateForDate(series, date));
+            }
+
+            assertEquals(expected, predictionAlgorithm.forecastRange(series, from, to));
+        }
+    }
+
+    @Test
+    void forecastRange_WhenHorizonStartsAfterItEnds_ThrowsIllegalArgumentException() {
+        RatePredictionAlgorithm predictionAlgorithm = new YearPredictionAlgorithm();
+        LocalDate targetDate = LocalDate.of(2023, 10, 24);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> predictionAlgorithm.forecastRange(RateSeries.empty(), targetDate, targetDate.minusDays(1)));
+    }
+
+    /**
+     * Rates published on the weekdays between the specified dates, changing from day to day.
+     */
+    private RateSeries seriesOfWeekdays(LocalDate from, LocalDate to) {
+        RateSeries.Builder builder = RateSeries.builder();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                builder.add((int) date.toEpochDay(), 10_000L + date.toEpochDay() % 97 * 37);
+            }
+        }
+        return builder.build();
+    }
+}
@@ -2,8 +2,10 @@ package algorithm;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.enums.FillPolicy;
 import ru.liga.rateforecaster.forecast.algorithm.year.YearPredictionAlgorithm;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -27,8 +29,8 @@ public class YearPredictionAlgorithmTest {
         LocalDate targetDate = LocalDate.now();
         List<CurrencyData> currencyDataList = new ArrayList<>();
         currencyDataList.add(new CurrencyData(targetDate, new BigDecimal("1.0")));
-        CurrencyData result = predictionAlgorithm.calculateRateForDate(currencyDataList, targetDate);
-        assertEquals(new BigDecimal("1.0"), result.rate(), String.valueOf(0.001));
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(RateSeries.fromCurrencyData(currencyDataList), targetDate);
+        assertEquals(new BigDecimal("1.0000"), result.rate(), String.valueOf(0.001));
     }
 
     @Test
@@ -36,7 +38,19 @@ public class YearPredictionAlgorithmTest {
         LocalDate targetDate = LocalDate.now();
         List<CurrencyData> currencyDataList = new ArrayList<>();
         currencyDataList.add(new CurrencyData(targetDate.minusYears(1), new BigDecimal("2.0")));
-        CurrencyData result = predictionAlgorithm.calculateRateForDate(currencyDataList, targetDate);
-        assertEquals(new BigDecimal("2.0"), result.rate(), String.valueOf(0.001));
+        CurrencyData result = predictionAlgorithm.calculateRateForDate(RateSeries.fromCurrencyData(currencyDataList), targetDate);
+        assertEquals(new BigDecimal("2.0000"), result.rate(), String.valueOf(0.001));
     }
-}
\ No newline at end of file
+
+    @Test
+    void calculateRateForDate_WhenLastYearDateIsWeekend_ReturnsRateOfPreviousPublishedDay() {
+        LocalDate targetDate = LocalDate.of(2024, 10, 22);
+        RateSeries series = RateSeries.fromCurrencyData(List.of(
+                new CurrencyData(LocalDate.of(2023, 10, 20), new BigDecimal("2.0")),
+                new CurrencyData(LocalDate.of(2023, 10, 23), new BigDecimal("5.0"))));
+
+        assertEquals(new BigDecimal("2.0000"), predictionAlgorithm.calculateRateForDate(series, targetDate).rate());
+        assertEquals(new BigDecimal("4.0000"),
+                new YearPredictionAlgorithm(FillPolicy.LINEAR).calculateRateForDate(series, targetDate).rate());
+    }
+}
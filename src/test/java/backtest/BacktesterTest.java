@@ -0,0 +1,96 @@
+package backtest;
+
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.backtest.Backtester;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.forecast.algorithm.factory.GenericPredictionAlgorithm;
+import ru.liga.rateforecaster.model.BacktestResult;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BacktesterTest {
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2021, 1, 4);
+
+    @Test
+    void run_OnConstantRates_ReportsNoErrorForEveryAlgorithmAndHorizon() {
+        RateSeries series = createSeries(800, day -> 500_000L);
+
+        List<BacktestResult> results = new Backtester(new GenericPredictionAlgorithm())
+                .run(Currency.BGN, series, List.of(ForecastingAlgorithm.values()));
+
+        assertEquals(ForecastingAlgorithm.values().length * 3, results.size());
+        assertEquals(ForecastingAlgorithm.AVERAGE, results.get(0).algorithm());
+        assertEquals(List.of(RateType.DAY, RateType.WEEK, RateType.MONTH),
+                results.subList(0, 3).stream().map(BacktestResult::horizon).toList());
+        for (BacktestResult result : results) {
+            assertTrue(result.forecasts() > 0, result.toString());
+            assertEquals(0, result.failures(), result.toString());
+            assertEquals(0, result.meanAbsoluteError(), 1e-3, result.toString());
+            assertEquals(0, result.meanAbsolutePercentageError(), 1e-3, result.toString());
+            assertEquals(0, result.bias(), 1e-3, result.toString());
+        }
+    }
+
+    @Test
+    void run_OnRisingRates_ReportsLaggingAverageAndSameResultsOnAnyPool() {
+        RateSeries series = createSeries(800, day -> 500_000L + day * 100L);
+        List<ForecastingAlgorithm> algorithms = List.of(ForecastingAlgorithm.AVERAGE, ForecastingAlgorithm.MIST);
+
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        List<BacktestResult> sequential;
+        List<BacktestResult> parallel;
+        try {
+            sequential = new Backtester(new GenericPredictionAlgorithm(), sequentialPool, 7)
+                    .run(Currency.BGN, series, algorithms);
+            parallel = new Backtester(new GenericPredictionAlgorithm(), parallelPool, 7)
+                    .run(Currency.BGN, series, algorithms);
+        } finally {
+            sequentialPool.shutdown();
+            parallelPool.shutdown();
+        }
+
+        assertEquals(sequential, parallel);
+        BacktestResult averageDay = sequential.get(0);
+        BacktestResult averageMonth = sequential.get(2);
+        assertTrue(averageDay.bias() < 0);
+        assertTrue(averageDay.meanAbsoluteError() < averageMonth.meanAbsoluteError());
+        assertEquals(-averageMonth.bias(), averageMonth.meanAbsoluteError(), 1e-9);
+    }
+
+    @Test
+    void run_OnHistoryShorterThanWarmUp_ReportsZeroForecastsWithoutErrors() {
+        RateSeries series = createSeries(200, day -> 500_000L + day);
+
+        List<BacktestResult> results = new Backtester(new GenericPredictionAlgorithm())
+                .run(Currency.BGN, series, List.of(ForecastingAlgorithm.AVERAGE));
+
+        for (BacktestResult result : results) {
+            assertEquals(0, result.forecasts(), result.toString());
+            assertEquals(0, result.meanAbsoluteError(), result.toString());
+            assertEquals(0, result.meanAbsolutePercentageError(), result.toString());
+            assertEquals(0, result.bias(), result.toString());
+        }
+    }
+
+    private static RateSeries createSeries(int days, IntToLongFunction rate) {
+        RateSeries.Builder builder = RateSeries.builder();
+        for (int day = 0; day < days; day++) {
+            LocalDate date = FIRST_DATE.plusDays(day);
+            if (date.getDayOfWeek().getValue() < 6) {
+                builder.add((int) date.toEpochDay(), rate.applyAsLong(day));
+            }
+        }
+        return builder.build();
+    }
+}
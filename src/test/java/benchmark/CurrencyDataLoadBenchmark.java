@@ -0,0 +1,97 @@
+package benchmark;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import ru.liga.rateforecaster.data.processor.RateSnapshotProcessor;
+import ru.liga.rateforecaster.data.reader.CbrCsvRateReader;
+import ru.liga.rateforecaster.model.RateSeries;
+import ru.liga.rateforecaster.utils.DateUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+/**
+ * Compares loading a bundled currency file with the generic OpenCSV tokenizer, with {@link CbrCsvRateReader}
+ * and from the binary snapshot compiled at build time. The CSV file is read into memory once, so the CSV variants
+ * measure parsing only, while the snapshot variant includes mapping the file.
+ * <p>
+ * Run with: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmark.CurrencyDataLoadBenchmark}
+ */
+public class CurrencyDataLoadBenchmark {
+
+    private static final String RESOURCE = "/cvs/AMD.csv";
+    private static final String SNAPSHOT_RESOURCE = "/snapshots/AMD.rates";
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private static long blackhole;
+
+    public static void main(String[] args) throws IOException, CsvValidationException {
+        final byte[] content;
+        try (InputStream inputStream = CurrencyDataLoadBenchmark.class.getResourceAsStream(RESOURCE)) {
+            if (inputStream == null) {
+                throw new IOException("Failed to open resource stream for file: " + RESOURCE);
+            }
+            content = inputStream.readAllBytes();
+        }
+        run("opencsv", () -> loadWithOpenCsv(content));
+        run("cbr-reader", () -> loadWithCbrReader(content));
+        run("snapshot", CurrencyDataLoadBenchmark::loadFromSnapshot);
+        System.out.println("checksum " + blackhole);
+    }
+
+    private static void run(String name, LoadTask task) throws IOException, CsvValidationException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            blackhole += task.load();
+        }
+        final com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        final long startTime = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            blackhole += task.load();
+        }
+        final long elapsed = System.nanoTime() - startTime;
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%-12s %8.2f ms/load %12d bytes allocated/load%n", name,
+                elapsed / 1_000_000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private static long loadWithOpenCsv(byte[] content) throws IOException, CsvValidationException {
+        long checksum = 0;
+        final CSVReader csvReader = new CSVReaderBuilder(new InputStreamReader(new ByteArrayInputStream(content)))
+                .withSkipLines(1).build();
+        String[] nextRecord;
+        while ((nextRecord = csvReader.readNext()) != null) {
+            checksum += DateUtils.formatDate(nextRecord[1]).toEpochDay();
+            checksum += new BigDecimal(nextRecord[2]).unscaledValue().longValue();
+        }
+        return checksum;
+    }
+
+    private static long loadWithCbrReader(byte[] content) throws IOException, CsvValidationException {
+        long checksum = 0;
+        final CbrCsvRateReader reader = new CbrCsvRateReader(new ByteArrayInputStream(content));
+        while (reader.readNext()) {
+            checksum += reader.epochDay();
+            checksum += reader.rate();
+        }
+        return checksum;
+    }
+
+    private static long loadFromSnapshot() throws IOException {
+        final RateSeries series = new RateSnapshotProcessor(SNAPSHOT_RESOURCE).readCurrencyDataFromResources();
+        return series.epochDay(series.size() - 1) + series.fixedPointRate(series.size() - 1);
+    }
+
+    @FunctionalInterface
+    private interface LoadTask {
+        long load() throws IOException, CsvValidationException;
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import ru.liga.rateforecaster.data.processor.RateSnapshotProcessor;
+import ru.liga.rateforecaster.enums.NumericMode;
+import ru.liga.rateforecaster.forecast.algorithm.RatePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.average.AveragePredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.algorithm.moon.MoonPredictionAlgorithm;
+import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compares the FIXED_POINT and BIG_DECIMAL numeric modes on the algorithms that compute new rates, forecasting
+ * a year ahead of the bundled AMD history. Each forecast uses a new algorithm instance, as a request does.
+ * <p>
+ * Run with: {@code mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmark.NumericModeBenchmark}
+ */
+public class NumericModeBenchmark {
+
+    private static final String SNAPSHOT_RESOURCE = "/snapshots/AMD.rates";
+    private static final int HORIZON_DAYS = 365;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    private static long blackhole;
+
+    public static void main(String[] args) throws IOException {
+        final RateSeries series = new RateSnapshotProcessor(SNAPSHOT_RESOURCE).readCurrencyDataFromResources();
+        final LocalDate from = series.lastDate().plusDays(1);
+        final LocalDate to = from.plusDays(HORIZON_DAYS - 1);
+        for (NumericMode numericMode : NumericMode.values()) {
+            run("average " + numericMode, series, from, to, mode -> new AveragePredictionAlgorithm(7, mode), numericMode);
+            run("moon " + numericMode, series, from, to, MoonPredictionAlgorithm::new, numericMode);
+        }
+        System.out.println("checksum " + blackhole);
+    }
+
+    private static void run(String name, RateSeries series, LocalDate from, LocalDate to,
+                            Function<NumericMode, RatePredictionAlgorithm> algorithmFactory, NumericMode numericMode) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            blackhole += forecast(algorithmFactory.apply(numericMode), series, from, to);
+        }
+        final com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        final long startTime = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            blackhole += forecast(algorithmFactory.apply(numericMode), series, from, to);
+        }
+        final long elapsed = System.nanoTime() - startTime;
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%-20s %8.3f ms/forecast %12d bytes allocated/forecast%n", name,
+                elapsed / 1_000_000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private static long forecast(RatePredictionAlgorithm algorithm, RateSeries series, LocalDate from, LocalDate to) {
+        final List<CurrencyData> forecast = algorithm.forecastRange(series, from, to);
+        return forecast.get(forecast.size() - 1).rate().unscaledValue().longValue();
+    }
+}
@@ -0,0 +1,130 @@
+package cache;
+
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.OutputType;
+import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.forecast.cache.ForecastCache;
+import ru.liga.rateforecaster.forecast.cache.ForecastCacheStats;
+import ru.liga.rateforecaster.forecast.cache.ForecastKey;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.DateRange;
+import ru.liga.rateforecaster.model.FormattedResult;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ForecastCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void get_AfterPut_ReturnsStoredResultAndCountsHit() {
+        ForecastCache cache = new ForecastCache(4, Duration.ofMinutes(1), clock::get);
+        FormattedResult result = new FormattedResult("rate BGN tomorrow");
+
+        assertNull(cache.get(key(1)));
+        cache.put(key(1), result);
+
+        assertSame(result, cache.get(key(1)));
+        ForecastCacheStats stats = cache.getStats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void get_AfterTimeToLive_ReturnsNull() {
+        ForecastCache cache = new ForecastCache(4, Duration.ofMinutes(1), clock::get);
+        cache.put(key(1), new FormattedResult("rate BGN tomorrow"));
+
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertNull(cache.get(key(1)));
+        assertEquals(0, cache.getStats().size());
+    }
+
+    @Test
+    void put_WhenFull_AdmitsOnlyKeysRequestedMoreOftenThanVictim() {
+        ForecastCache cache = new ForecastCache(1, Duration.ofMinutes(1), clock::get);
+        cache.get(key(1));
+        cache.put(key(1), new FormattedResult("popular"));
+        cache.get(key(1));
+
+        cache.get(key(2));
+        assertFalse(cache.put(key(2), new FormattedResult("one-off")));
+
+        cache.get(key(3));
+        cache.get(key(3));
+        cache.get(key(3));
+        assertTrue(cache.put(key(3), new FormattedResult("more popular")));
+
+        ForecastCacheStats stats = cache.getStats();
+        assertEquals(1, stats.rejections());
+        assertEquals(1, stats.evictions());
+        assertNull(cache.get(key(1)));
+    }
+
+    @Test
+    void invalidate_DropsOnlyEntriesDependingOnChangedDates() {
+        ForecastCache cache = new ForecastCache(4, Duration.ofMinutes(1), clock::get);
+        LocalDate lastRate = LocalDate.of(2023, 10, 24);
+        cache.put(key(1), new FormattedResult("average"), Map.of(Currency.BGN,
+                List.of(DateRange.since(lastRate.minusDays(7)))), cache.getInvalidationCount());
+        cache.put(key(2), new FormattedResult("year"), Map.of(Currency.BGN,
+                List.of(new DateRange(lastRate.minusYears(1), lastRate.minusYears(1).plusDays(7)))),
+                cache.getInvalidationCount());
+
+        assertEquals(0, cache.invalidate(Currency.AMD, DateRange.all()));
+        assertEquals(1, cache.invalidate(Currency.BGN, new DateRange(lastRate.plusDays(1), lastRate.plusDays(1))));
+
+        assertNull(cache.get(key(1)));
+        assertNotNull(cache.get(key(2)));
+        assertEquals(1, cache.getStats().invalidations());
+    }
+
+    @Test
+    void put_AfterInvalidationDuringComputation_DoesNotStoreResult() {
+        ForecastCache cache = new ForecastCache(4, Duration.ofMinutes(1), clock::get);
+        long invalidationCount = cache.getInvalidationCount();
+
+        cache.invalidate(Currency.BGN, DateRange.all());
+
+        assertFalse(cache.put(key(1), new FormattedResult("stale"),
+                Map.of(Currency.BGN, List.of(DateRange.all())), invalidationCount));
+        assertNull(cache.get(key(1)));
+    }
+
+    @Test
+    void put_PrecomputedWhenFullOfRequestedEntries_ReplacesLeastRecentlyUsedEntry() {
+        ForecastCache cache = new ForecastCache(2, Duration.ofMinutes(1), clock::get);
+        for (int day = 1; day <= 2; day++) {
+            cache.get(key(day));
+            cache.get(key(day));
+            cache.put(key(day), new FormattedResult("popular"));
+        }
+
+        assertTrue(cache.put(key(3), new FormattedResult("precomputed"),
+                Map.of(Currency.BGN, List.of(DateRange.all())), cache.getInvalidationCount(), Duration.ofHours(1)));
+
+        assertNotNull(cache.peek(key(3)));
+        assertNull(cache.peek(key(1)));
+        assertEquals(0, cache.getStats().rejections());
+    }
+
+    private ForecastKey key(int day) {
+        return new ForecastKey(List.of(Currency.BGN), ForecastingAlgorithm.AVERAGE, RateType.DAY,
+                LocalDate.of(2023, 10, 24).plusDays(day), OutputType.LIST, OptionalLong.empty());
+    }
+}
@@ -0,0 +1,89 @@
+package cache;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
+import ru.liga.rateforecaster.enums.FillPolicy;
+import ru.liga.rateforecaster.enums.ForecastingAlgorithm;
+import ru.liga.rateforecaster.enums.OutputType;
+import ru.liga.rateforecaster.enums.RateType;
+import ru.liga.rateforecaster.forecast.ForecastPrecomputeReport;
+import ru.liga.rateforecaster.forecast.ForecastPrecomputer;
+import ru.liga.rateforecaster.forecast.UserRequestForecastGenerator;
+import ru.liga.rateforecaster.forecast.algorithm.factory.GenericPredictionAlgorithm;
+import ru.liga.rateforecaster.forecast.cache.ForecastCache;
+import ru.liga.rateforecaster.forecast.cache.ForecastKey;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.FormattedResult;
+import ru.liga.rateforecaster.model.ParsedRequest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.ResourceBundle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class ForecastPrecomputerTest {
+
+    @Test
+    void precompute_StoresEveryCacheableForecastAndAnswersLaterRequestsFromCache() throws Exception {
+        CurrencyPathResolver currencyPathResolver = Mockito.mock(CurrencyPathResolver.class);
+        when(currencyPathResolver.getPath(Currency.BGN)).thenReturn("/cvs/BGN.csv");
+        ForecastCache cache = new ForecastCache(64, Duration.ofMinutes(1));
+        UserRequestForecastGenerator generator = new UserRequestForecastGenerator(
+                ResourceBundle.getBundle("messages/errors"), new GenericPredictionAlgorithm(FillPolicy.PREVIOUS, 7),
+                new CurrencyDataRepository(currencyPathResolver), cache);
+
+        ForecastPrecomputeReport report;
+        try (ForecastPrecomputer precomputer = new ForecastPrecomputer(generator, new CurrencyRegistry("/cvs"), 2)) {
+            report = precomputer.precompute(List.of(Currency.BGN));
+        }
+
+        // AVERAGE, YEAR and MOON, each for tomorrow as a list and for a week and a month as a list and a graph
+        assertEquals(15, report.forecasts() + report.failures());
+        assertEquals(report.forecasts(), cache.getStats().size());
+        FormattedResult chart = generator.generateForecast(ParsedRequest.builder()
+                .currencies(List.of(Currency.BGN))
+                .date(Optional.empty())
+                .rateType(RateType.MONTH)
+                .algorithm(ForecastingAlgorithm.AVERAGE)
+                .outputType(OutputType.GRAPH)
+                .build());
+        assertEquals(1, cache.getStats().hits());
+        assertNotNull(chart.getChartPng());
+    }
+
+    @Test
+    void precompute_WithCacheFullOfRequestedForecasts_StoresPrecomputedForecasts() throws Exception {
+        CurrencyPathResolver currencyPathResolver = Mockito.mock(CurrencyPathResolver.class);
+        when(currencyPathResolver.getPath(Currency.BGN)).thenReturn("/cvs/BGN.csv");
+        ForecastCache cache = new ForecastCache(15, Duration.ofMinutes(1));
+        for (int day = 0; day < 15; day++) {
+            ForecastKey key = new ForecastKey(List.of(Currency.AMD), ForecastingAlgorithm.AVERAGE, RateType.DAY,
+                    LocalDate.of(2023, 10, 24).plusDays(day), OutputType.LIST, OptionalLong.empty());
+            cache.get(key);
+            cache.get(key);
+            cache.put(key, new FormattedResult("requested"));
+        }
+        UserRequestForecastGenerator generator = new UserRequestForecastGenerator(
+                ResourceBundle.getBundle("messages/errors"), new GenericPredictionAlgorithm(FillPolicy.PREVIOUS, 7),
+                new CurrencyDataRepository(currencyPathResolver), cache);
+
+        ForecastPrecomputeReport report;
+        try (ForecastPrecomputer precomputer = new ForecastPrecomputer(generator, new CurrencyRegistry("/cvs"), 2)) {
+            report = precomputer.precompute(List.of(Currency.BGN));
+        }
+
+        assertTrue(report.forecasts() > 0);
+        assertEquals(0, cache.getStats().rejections());
+        assertEquals(report.forecasts(), cache.getStats().evictions());
+    }
+}
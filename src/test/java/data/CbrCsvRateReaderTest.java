@@ -0,0 +1,105 @@
+package data;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.data.reader.CbrCsvRateReader;
+import ru.liga.rateforecaster.model.RateSeries;
+import ru.liga.rateforecaster.utils.DateUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CbrCsvRateReaderTest {
+
+    private static final String HEADER = "\uFEFFnominal,data,curs,cdx,,,,\n";
+
+    @Test
+    void readNext_WithPaddedAndQuotedRecords_ParsesPrimitiveColumns() throws IOException, CsvValidationException {
+        String csv = HEADER +
+                "100,10/24/2023,23.5469,Армянский драм,,,,\r\n" +
+                "\"1,000\",02/01/2005,57.6,Армянский драм,,,,\n";
+        CbrCsvRateReader reader = reader(csv);
+
+        assertTrue(reader.readNext());
+        assertEquals(100, reader.nominal());
+        assertEquals(LocalDate.of(2023, 10, 24).toEpochDay(), reader.epochDay());
+        assertEquals(235469L, reader.rate());
+
+        assertTrue(reader.readNext());
+        assertEquals(1000, reader.nominal());
+        assertEquals(LocalDate.of(2005, 2, 1).toEpochDay(), reader.epochDay());
+        assertEquals(576000L, reader.rate());
+
+        assertFalse(reader.readNext());
+    }
+
+    @Test
+    void readNext_WithInvalidDate_ThrowsCsvValidationException() {
+        CbrCsvRateReader reader = reader(HEADER + "1,02/30/2023,51.2850,Болгарский лев,,,\n");
+
+        assertThrows(CsvValidationException.class, reader::readNext);
+    }
+
+    @Test
+    void readNext_WithTooPreciseRate_RoundsRateHalfUp() throws IOException, CsvValidationException {
+        CbrCsvRateReader reader = reader(HEADER +
+                "1,10/24/2023,51.28505,Болгарский лев,,,\n" +
+                "1,10/21/2023,51.284949,Болгарский лев,,,\n");
+
+        assertTrue(reader.readNext());
+        assertEquals(512851L, reader.rate());
+        assertTrue(reader.readNext());
+        assertEquals(512849L, reader.rate());
+    }
+
+    @Test
+    void readNext_WithQuotedDateAndRate_ParsesColumns() throws IOException, CsvValidationException {
+        CbrCsvRateReader reader = reader(HEADER + "\"1\",\"10/24/2023\",\"51.2850\",Болгарский лев,,,\r\n");
+
+        assertTrue(reader.readNext());
+        assertEquals(1, reader.nominal());
+        assertEquals(LocalDate.of(2023, 10, 24).toEpochDay(), reader.epochDay());
+        assertEquals(512850L, reader.rate());
+        assertFalse(reader.readNext());
+    }
+
+    @Test
+    void readNext_WithUnclosedQuotedRate_ThrowsCsvValidationException() {
+        CbrCsvRateReader reader = reader(HEADER + "1,10/24/2023,\"51.2850,Болгарский лев,,,\n");
+
+        assertThrows(CsvValidationException.class, reader::readNext);
+    }
+
+    @Test
+    void readNext_WithBundledFile_MatchesGenericCsvParsing() throws IOException, CsvValidationException {
+        try (InputStream expectedStream = getClass().getResourceAsStream("/cvs/AMD.csv");
+             InputStream actualStream = getClass().getResourceAsStream("/cvs/AMD.csv")) {
+            CSVReader csvReader = new CSVReaderBuilder(new InputStreamReader(expectedStream)).withSkipLines(1).build();
+            CbrCsvRateReader reader = new CbrCsvRateReader(actualStream);
+            String[] nextRecord;
+            while ((nextRecord = csvReader.readNext()) != null) {
+                assertTrue(reader.readNext());
+                assertEquals(DateUtils.formatDate(nextRecord[1]).toEpochDay(), reader.epochDay());
+                assertEquals(new BigDecimal(nextRecord[2]), BigDecimal.valueOf(reader.rate(), RateSeries.RATE_SCALE));
+                assertEquals(Integer.parseInt(nextRecord[0].replace(",", "")), reader.nominal());
+            }
+            assertFalse(reader.readNext());
+        }
+    }
+
+    private CbrCsvRateReader reader(String csv) {
+        return new CbrCsvRateReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,37 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.repository.CurrencyDataPreloader;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
+import ru.liga.rateforecaster.model.Currency;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class CurrencyDataPreloaderTest {
+
+    @Test
+    void awaitReady_WhenSomeLoadsFail_OpensAfterAllLoadsFinish() throws InterruptedException {
+        CurrencyPathResolver currencyPathResolver = Mockito.mock(CurrencyPathResolver.class);
+        when(currencyPathResolver.getPath(Currency.BGN)).thenReturn("/cvs/BGN.csv");
+        when(currencyPathResolver.getPath(Currency.AMD)).thenReturn("/cvs/AMD.csv");
+        when(currencyPathResolver.getPath(Currency.EUR)).thenReturn("/cvs/missing.csv");
+        CurrencyDataRepository currencyDataRepository = new CurrencyDataRepository(currencyPathResolver);
+        CurrencyDataPreloader currencyDataPreloader = new CurrencyDataPreloader(currencyDataRepository, 2);
+
+        currencyDataPreloader.start(List.of(Currency.BGN, Currency.AMD, Currency.EUR));
+
+        assertTrue(currencyDataPreloader.awaitReady(Duration.ofSeconds(10)));
+        assertEquals(2, currencyDataPreloader.getLoadedCount());
+        assertTrue(currencyDataRepository.isLoaded(Currency.BGN));
+        assertTrue(currencyDataRepository.isLoaded(Currency.AMD));
+        assertFalse(currencyDataRepository.isLoaded(Currency.EUR));
+    }
+}
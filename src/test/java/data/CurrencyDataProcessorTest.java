@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import ru.liga.rateforecaster.data.processor.CurrencyDataProcessor;
 import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.RateSeries;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -26,20 +27,20 @@ public class CurrencyDataProcessorTest {
 
     @Test
     public void testReadCurrencyDataFromResources() throws CsvValidationException, IOException {
-        LinkedList<CurrencyData> expectedData = createSampleCurrencyData();
+        RateSeries expectedData = createSampleCurrencyData();
 
         when(currencyDataProcessor.readCurrencyDataFromResources()).thenReturn(expectedData);
 
-        LinkedList<CurrencyData> actualData = currencyDataProcessor.readCurrencyDataFromResources();
+        RateSeries actualData = currencyDataProcessor.readCurrencyDataFromResources();
 
         assertEquals(expectedData, actualData);
     }
 
-    private LinkedList<CurrencyData> createSampleCurrencyData() {
+    private RateSeries createSampleCurrencyData() {
         LinkedList<CurrencyData> data = new LinkedList<>();
         data.add(new CurrencyData(LocalDate.of(2022, 1, 1), new BigDecimal("1.0")));
         data.add(new CurrencyData(LocalDate.of(2022, 1, 2), new BigDecimal("1.1")));
         data.add(new CurrencyData(LocalDate.of(2022, 1, 3), new BigDecimal("1.2")));
-        return data;
+        return RateSeries.fromCurrencyData(data);
     }
 }
@@ -0,0 +1,164 @@
+package data;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
+import ru.liga.rateforecaster.data.repository.SeriesStorageStats;
+import ru.liga.rateforecaster.enums.EvictionPolicy;
+import ru.liga.rateforecaster.enums.FillPolicy;
+import ru.liga.rateforecaster.enums.StorageMode;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.DateRange;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class CurrencyDataRepositoryTest {
+
+    private CurrencyDataRepository currencyDataRepository;
+
+    @BeforeEach
+    public void setUp() {
+        CurrencyPathResolver currencyPathResolver = Mockito.mock(CurrencyPathResolver.class);
+        when(currencyPathResolver.getPath(Currency.BGN)).thenReturn("/cvs/BGN.csv");
+        currencyDataRepository = new CurrencyDataRepository(currencyPathResolver);
+    }
+
+    @Test
+    void getSeries_WhenCalledTwice_ReturnsSameSeries() throws CsvValidationException, IOException {
+        assertFalse(currencyDataRepository.isLoaded(Currency.BGN));
+
+        RateSeries first = currencyDataRepository.getSeries(Currency.BGN);
+        RateSeries second = currencyDataRepository.getSeries(Currency.BGN);
+
+        assertTrue(currencyDataRepository.isLoaded(Currency.BGN));
+        assertSame(first, second);
+    }
+
+    @Test
+    void getSeries_ReturnsSeriesSortedByAscendingDate() throws CsvValidationException, IOException {
+        RateSeries series = currencyDataRepository.getSeries(Currency.BGN);
+
+        assertEquals(3472, series.size());
+        for (int i = 1; i < series.size(); i++) {
+            assertTrue(series.epochDay(i - 1) < series.epochDay(i));
+        }
+    }
+
+    @Test
+    void reload_PublishesNewSeriesAndKeepsPreviousOneReadable() throws CsvValidationException, IOException {
+        RateSeries previous = currencyDataRepository.getSeries(Currency.BGN);
+
+        RateSeries reloaded = currencyDataRepository.reload(Currency.BGN).series();
+
+        assertNotSame(previous, reloaded);
+        assertSame(reloaded, currencyDataRepository.getSeries(Currency.BGN));
+        assertEquals(previous.toCurrencyDataList(), reloaded.toCurrencyDataList());
+    }
+
+    @Test
+    void getLatest_WithEncodedStorage_ReturnsSamePointsAsPlainStorage() throws CsvValidationException, IOException {
+        CurrencyPathResolver currencyPathResolver = Mockito.mock(CurrencyPathResolver.class);
+        when(currencyPathResolver.getPath(Currency.BGN)).thenReturn("/cvs/BGN.csv");
+        CurrencyDataRepository encodedRepository = new CurrencyDataRepository(currencyPathResolver,
+                FillPolicy.PREVIOUS, currency -> StorageMode.ENCODED);
+
+        RateSeries latest = encodedRepository.getLatest(Currency.BGN, 30);
+        SeriesStorageStats stats = encodedRepository.getStorageStats().get(0);
+
+        assertEquals(currencyDataRepository.getLatest(Currency.BGN, 30).toCurrencyDataList(), latest.toCurrencyDataList());
+        assertEquals(StorageMode.ENCODED, stats.storageMode());
+        assertEquals(3472, stats.points());
+        assertTrue(stats.bytesPerPoint() < 4);
+    }
+
+    @Test
+    void getDailySeries_WithEncodedStorage_ReusesDecodedHistory() throws CsvValidationException, IOException {
+        CurrencyPathResolver currencyPathResolver = Mockito.mock(CurrencyPathResolver.class);
+        when(currencyPathResolver.getPath(Currency.BGN)).thenReturn("/cvs/BGN.csv");
+        CurrencyDataRepository encodedRepository = new CurrencyDataRepository(currencyPathResolver,
+                FillPolicy.PREVIOUS, currency -> StorageMode.ENCODED);
+
+        RateSeries series = encodedRepository.getSeries(Currency.BGN);
+
+        assertSame(series, encodedRepository.getSeries(Currency.BGN));
+        assertSame(encodedRepository.getDailySeries(Currency.BGN), encodedRepository.getDailySeries(Currency.BGN));
+        encodedRepository.reload(Currency.BGN);
+        assertNotSame(series, encodedRepository.getSeries(Currency.BGN));
+    }
+
+    @Test
+    void fileChanged_WithUnloadedCurrency_NotifiesEveryDateWithoutLoading() throws CsvValidationException, IOException {
+        List<DateRange> changes = new ArrayList<>();
+        currencyDataRepository.addUpdateListener((currency, changed) -> changes.add(changed));
+
+        currencyDataRepository.fileChanged(Currency.BGN);
+
+        assertEquals(List.of(DateRange.all()), changes);
+        assertFalse(currencyDataRepository.isLoaded(Currency.BGN));
+    }
+
+    @Test
+    void getSeries_OverHeapBudget_EvictsLeastRecentlyUsedSeries() throws CsvValidationException, IOException {
+        CurrencyPathResolver currencyPathResolver = Mockito.mock(CurrencyPathResolver.class);
+        when(currencyPathResolver.getPath(Currency.BGN)).thenReturn("/cvs/BGN.csv");
+        when(currencyPathResolver.getPath(Currency.AMD)).thenReturn("/cvs/AMD.csv");
+        long budget = currencyDataRepository.getSeries(Currency.BGN).sizeInBytes() * 3 / 2;
+        CurrencyDataRepository boundedRepository = new CurrencyDataRepository(currencyPathResolver,
+                FillPolicy.PREVIOUS, currency -> StorageMode.PLAIN, budget, EvictionPolicy.LRU);
+
+        boundedRepository.getSeries(Currency.BGN);
+        boundedRepository.getSeries(Currency.AMD);
+
+        assertFalse(boundedRepository.isLoaded(Currency.BGN));
+        assertTrue(boundedRepository.isLoaded(Currency.AMD));
+
+        assertEquals(3472, boundedRepository.getSeries(Currency.BGN).size());
+        assertTrue(boundedRepository.isLoaded(Currency.BGN));
+        assertFalse(boundedRepository.isLoaded(Currency.AMD));
+    }
+
+    @Test
+    void getSeries_WithRequirementAndNoStoredSeries_ReadsOnlyRequiredSuffix() throws CsvValidationException, IOException {
+        LocalDate since = LocalDate.of(2023, 9, 1);
+        DataRequirement requirement = DataRequirement.latest(40).and(DataRequirement.since(since));
+
+        RateSeries window = currencyDataRepository.getSeries(Currency.BGN, requirement);
+
+        assertFalse(currencyDataRepository.isLoaded(Currency.BGN));
+        RateSeries full = currencyDataRepository.getSeries(Currency.BGN);
+        assertTrue(window.size() >= 40 && window.size() < 50);
+        assertTrue(!window.firstDate().isAfter(since));
+        assertEquals(full.latest(window.size()).toCurrencyDataList(), window.toCurrencyDataList());
+    }
+
+    @Test
+    void getSeries_WithRequirementAndEncodedStorage_DecodesEnoughLatestPoints() throws CsvValidationException, IOException {
+        CurrencyPathResolver currencyPathResolver = Mockito.mock(CurrencyPathResolver.class);
+        when(currencyPathResolver.getPath(Currency.BGN)).thenReturn("/cvs/BGN.csv");
+        CurrencyDataRepository encodedRepository = new CurrencyDataRepository(currencyPathResolver,
+                FillPolicy.PREVIOUS, currency -> StorageMode.ENCODED);
+        encodedRepository.getSeries(Currency.BGN);
+        LocalDate since = LocalDate.of(2020, 1, 1);
+
+        RateSeries window = encodedRepository.getSeries(Currency.BGN, DataRequirement.since(since));
+
+        RateSeries full = currencyDataRepository.getSeries(Currency.BGN);
+        assertEquals(full.latest(window.size()).toCurrencyDataList(), window.toCurrencyDataList());
+        assertTrue(!window.firstDate().isAfter(since) && window.size() < full.size());
+    }
+}
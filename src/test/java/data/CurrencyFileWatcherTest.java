@@ -0,0 +1,53 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import ru.liga.rateforecaster.data.pathresolver.CurrencyPathResolver;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
+import ru.liga.rateforecaster.data.repository.CurrencyDataRepository;
+import ru.liga.rateforecaster.data.watcher.CurrencyFileWatcher;
+import ru.liga.rateforecaster.model.Currency;
+import ru.liga.rateforecaster.model.DateRange;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class CurrencyFileWatcherTest {
+
+    private static final String CONTENT = "\uFEFFnominal,data,curs,cdx,,,\n1,10/24/2023,51.7000,BGN,,,\n";
+
+    @Test
+    void fileChange_OfUnloadedCurrency_NotifiesListenersOfEveryDate(@TempDir Path directory)
+            throws IOException, InterruptedException {
+        Path file = Files.writeString(directory.resolve("BGN.csv"), CONTENT, StandardCharsets.UTF_8);
+        CurrencyRegistry currencyRegistry = Mockito.mock(CurrencyRegistry.class);
+        when(currencyRegistry.getCurrencies()).thenReturn(List.of(Currency.BGN));
+        CurrencyPathResolver currencyPathResolver = Mockito.mock(CurrencyPathResolver.class);
+        when(currencyPathResolver.getCurrencyRegistry()).thenReturn(currencyRegistry);
+        when(currencyPathResolver.getPath(Currency.BGN)).thenReturn("/cvs/BGN.csv");
+        when(currencyPathResolver.getFile("/cvs/BGN.csv")).thenReturn(file);
+        CurrencyDataRepository currencyDataRepository = new CurrencyDataRepository(currencyPathResolver);
+        BlockingQueue<DateRange> changes = new LinkedBlockingQueue<>();
+        currencyDataRepository.addUpdateListener((currency, changed) -> changes.add(changed));
+
+        try (CurrencyFileWatcher watcher = new CurrencyFileWatcher(currencyDataRepository, currencyPathResolver)) {
+            assertTrue(watcher.start());
+            Files.writeString(file, CONTENT + "1,10/23/2023,51.6000,BGN,,,\n", StandardCharsets.UTF_8);
+
+            assertEquals(DateRange.all(), changes.poll(10, TimeUnit.SECONDS));
+        }
+        assertFalse(currencyDataRepository.isLoaded(Currency.BGN));
+    }
+}
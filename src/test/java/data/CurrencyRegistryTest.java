@@ -0,0 +1,37 @@
+package data;
+
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.data.registry.CurrencyRegistry;
+import ru.liga.rateforecaster.model.Currency;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CurrencyRegistryTest {
+
+    private final CurrencyRegistry currencyRegistry = new CurrencyRegistry("/cvs/");
+
+    @Test
+    void getCurrencies_ReturnsCurrenciesOfAllFilesInDataDirectory() {
+        assertEquals(List.of(Currency.AMD, Currency.BGN), currencyRegistry.getCurrencies());
+        assertEquals("/cvs/BGN.csv", currencyRegistry.getPath(Currency.BGN));
+        assertNull(currencyRegistry.getPath(Currency.EUR));
+    }
+
+    @Test
+    void find_WithUnknownOrInvalidCode_ThrowsIllegalArgumentException() {
+        assertSame(Currency.BGN, currencyRegistry.find("BGN"));
+        assertThrows(IllegalArgumentException.class, () -> currencyRegistry.find("EUR"));
+        assertThrows(IllegalArgumentException.class, () -> currencyRegistry.find("bgn"));
+    }
+
+    @Test
+    void getCurrencies_WithMissingDirectory_ReturnsNoCurrencies() {
+        assertTrue(new CurrencyRegistry("/missing").getCurrencies().isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package data;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.liga.rateforecaster.data.ingest.IncrementalRateIngester;
+import ru.liga.rateforecaster.data.ingest.IngestionResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IncrementalRateIngesterTest {
+
+    private static final String HEADER = "\uFEFFnominal,data,curs,cdx,,,\n";
+    private static final String RECORDS = """
+            1,10/24/2023,51.7000,BGN,,,
+            1,10/21/2023,51.6000,BGN,,,
+            1,10/20/2023,51.5000,BGN,,,
+            """;
+
+    private final IncrementalRateIngester ingester = new IncrementalRateIngester();
+
+    @Test
+    void ingest_WithPrependedAndAppendedRecords_MergesOnlyNewRecords(@TempDir Path directory)
+            throws IOException, CsvValidationException {
+        Path file = write(directory, HEADER + RECORDS);
+        IngestionResult initial = ingester.readFully(file);
+        write(directory, HEADER + "1,10/25/2023,51.8000,BGN,,,\n" + RECORDS + "1,10/19/2023,51.4000,BGN,,,\n");
+
+        IngestionResult result = ingester.ingest(file, initial.series(), initial.checkpoint());
+
+        assertFalse(result.fullRead());
+        assertEquals(2, result.mergedPoints());
+        assertEquals(5, result.series().size());
+        assertEquals(LocalDate.of(2023, 10, 19), result.series().firstDate());
+        assertEquals(LocalDate.of(2023, 10, 25), result.series().lastDate());
+        assertEquals(518_000L, result.series().fixedPointRate(4));
+    }
+
+    @Test
+    void ingest_WithUnchangedFile_MergesNothing(@TempDir Path directory) throws IOException, CsvValidationException {
+        Path file = write(directory, HEADER + RECORDS);
+        IngestionResult initial = ingester.readFully(file);
+
+        IngestionResult result = ingester.ingest(file, initial.series(), initial.checkpoint());
+
+        assertFalse(result.fullRead());
+        assertEquals(0, result.mergedPoints());
+        assertEquals(initial.series(), result.series());
+    }
+
+    @Test
+    void ingest_WithRewrittenRecords_ReadsWholeFile(@TempDir Path directory) throws IOException, CsvValidationException {
+        Path file = write(directory, HEADER + RECORDS);
+        IngestionResult initial = ingester.readFully(file);
+        write(directory, HEADER + RECORDS.replace("51.5000", "99.9999") + "1,10/19/2023,51.4000,BGN,,,\n");
+
+        IngestionResult result = ingester.ingest(file, initial.series(), initial.checkpoint());
+
+        assertTrue(result.fullRead());
+        assertEquals(4, result.series().size());
+        assertEquals(999_999L, result.series().fixedPointRate(1));
+    }
+
+    @Test
+    void readLastEpochDay_ReturnsDateOfLastRecord(@TempDir Path directory) throws IOException, CsvValidationException {
+        Path file = write(directory, HEADER + RECORDS + "1,10/25/2023,51.8000,BGN,,,\r\n");
+
+        OptionalInt lastDay = ingester.readLastEpochDay(file);
+
+        assertEquals(OptionalInt.of((int) LocalDate.of(2023, 10, 25).toEpochDay()), lastDay);
+    }
+
+    @Test
+    void readLastEpochDay_WithHeaderOnly_ReturnsEmpty(@TempDir Path directory) throws IOException, CsvValidationException {
+        Path file = write(directory, HEADER);
+
+        assertTrue(ingester.readLastEpochDay(file).isEmpty());
+    }
+
+    private Path write(Path directory, String content) throws IOException {
+        return Files.writeString(directory.resolve("BGN.csv"), content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,74 @@
+package data;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.liga.rateforecaster.data.processor.CurrencyDataProcessor;
+import ru.liga.rateforecaster.data.processor.RateSnapshotProcessor;
+import ru.liga.rateforecaster.data.snapshot.RateSnapshotFormat;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateSnapshotProcessorTest {
+
+    @Test
+    void readCurrencyDataFromResources_ReturnsSameSeriesAsCsv() throws CsvValidationException, IOException {
+        RateSeries fromCsv = new CurrencyDataProcessor("/cvs/AMD.csv").readCurrencyDataFromResources();
+        RateSeries fromSnapshot = new RateSnapshotProcessor("/snapshots/AMD.rates").readCurrencyDataFromResources();
+
+        assertEquals(fromCsv.size(), fromSnapshot.size());
+        for (int i = 0; i < fromCsv.size(); i++) {
+            assertEquals(fromCsv.epochDay(i), fromSnapshot.epochDay(i));
+            assertEquals(fromCsv.fixedPointRate(i), fromSnapshot.fixedPointRate(i));
+        }
+    }
+
+    @Test
+    void readCurrencyDataFromResources_WithRequirement_ReturnsLatestPointsOfSnapshot() throws IOException {
+        RateSnapshotProcessor processor = new RateSnapshotProcessor("/snapshots/AMD.rates");
+        RateSeries full = processor.readCurrencyDataFromResources();
+        LocalDate since = full.date(full.size() - 30);
+
+        RateSeries window = processor.readCurrencyDataFromResources(DataRequirement.latest(10).and(DataRequirement.since(since)));
+
+        assertEquals(30, window.size());
+        assertEquals(full.latest(30).toCurrencyDataList(), window.toCurrencyDataList());
+        assertTrue(processor.readCurrencyDataFromResources(DataRequirement.latest(40)).size() == 40);
+    }
+
+    @Test
+    void read_WithOddPointCount_RestoresWrittenSeries(@TempDir Path directory) throws IOException {
+        RateSeries series = RateSeries.builder()
+                .add(19_000, 751_234)
+                .add(19_001, 751_300)
+                .add(19_004, 749_999)
+                .build();
+        Path snapshot = directory.resolve("USD" + RateSnapshotFormat.FILE_EXTENSION);
+
+        RateSnapshotFormat.write(series, snapshot);
+        RateSeries restored = RateSnapshotFormat.read(ByteBuffer.wrap(Files.readAllBytes(snapshot)));
+
+        assertEquals(series.toCurrencyDataList(), restored.toCurrencyDataList());
+    }
+
+    @Test
+    void read_WithTruncatedSnapshot_ThrowsIOException(@TempDir Path directory) throws IOException {
+        Path snapshot = directory.resolve("USD" + RateSnapshotFormat.FILE_EXTENSION);
+        RateSnapshotFormat.write(RateSeries.builder().add(19_000, 751_234).build(), snapshot);
+        byte[] bytes = Files.readAllBytes(snapshot);
+
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice();
+
+        assertThrows(IOException.class, () -> RateSnapshotFormat.read(truncated));
+    }
+}
@@ -0,0 +1,68 @@
+package data;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.data.processor.CurrencyDataProcessor;
+import ru.liga.rateforecaster.data.stream.StreamingRateIngester;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StreamingRateIngesterTest {
+
+    private static final String BGN_PATH = "/cvs/BGN.csv";
+
+    @Test
+    void ingest_WithoutStages_ReadsSameSeriesAsProcessor() throws CsvValidationException, IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            StreamingRateIngester ingester = new StreamingRateIngester(16, 1, executor);
+
+            RateSeries series = ingester.ingest(getClass().getResourceAsStream(BGN_PATH), List.of());
+
+            assertEquals(new CurrencyDataProcessor(BGN_PATH).readCurrencyDataFromResources().toCurrencyDataList(),
+                    series.toCurrencyDataList());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void ingest_WithFilterAndDownsampler_KeepsLatestPointOfEachWeekInRange() throws CsvValidationException, IOException {
+        StreamingRateIngester ingester = new StreamingRateIngester(64, 2, Runnable::run);
+        RateSeries full = new CurrencyDataProcessor(BGN_PATH).readCurrencyDataFromResources();
+        LocalDate from = LocalDate.of(2023, 1, 1);
+        LocalDate to = LocalDate.of(2023, 6, 30);
+
+        RateSeries series = ingester.ingest(getClass().getResourceAsStream(BGN_PATH),
+                List.of(ingester.filter(from, to), ingester.downsample(7)));
+
+        assertTrue(series.size() > 20 && series.size() <= 27);
+        for (int i = 0; i < series.size(); i++) {
+            int week = Math.floorDiv(series.epochDay(i), 7);
+            int next = full.indexOf(series.date(i)) + 1;
+            assertTrue(!series.date(i).isBefore(from) && !series.date(i).isAfter(to));
+            assertTrue(next == full.size() || full.date(next).isAfter(to)
+                    || Math.floorDiv(full.epochDay(next), 7) != week);
+        }
+    }
+
+    @Test
+    void ingest_WithInvalidRecord_ThrowsCsvValidationException() {
+        StreamingRateIngester ingester = new StreamingRateIngester();
+        String csv = "nominal,data,curs,cdx\n1,10/24/2023,5.1,BGN\n1,not a date,5.2,BGN\n";
+
+        assertThrows(CsvValidationException.class, () -> ingester.ingest(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), List.of(ingester.downsample(2))));
+    }
+}
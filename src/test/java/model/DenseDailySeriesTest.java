@@ -0,0 +1,48 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.enums.FillPolicy;
+import ru.liga.rateforecaster.model.DenseDailySeries;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DenseDailySeriesTest {
+
+    private static final LocalDate FRIDAY = LocalDate.of(2023, 10, 20);
+
+    private final RateSeries series = RateSeries.builder()
+            .add((int) FRIDAY.toEpochDay(), 100_000)
+            .add((int) FRIDAY.plusDays(3).toEpochDay(), 130_000)
+            .build();
+
+    @Test
+    void of_WithPreviousPolicy_RepeatsLatestPublishedRate() {
+        DenseDailySeries daily = DenseDailySeries.of(series, FillPolicy.PREVIOUS);
+
+        assertEquals(4, daily.size());
+        assertEquals(new BigDecimal("10.0000"), daily.rate(FRIDAY.plusDays(2)));
+        assertEquals(2, daily.daysSinceObservation(FRIDAY.plusDays(2)));
+        assertEquals(0, daily.daysSinceObservation(FRIDAY.plusDays(3)));
+        assertFalse(daily.contains(FRIDAY.plusDays(4)));
+    }
+
+    @Test
+    void of_WithLinearPolicy_InterpolatesBetweenPublishedRates() {
+        DenseDailySeries daily = DenseDailySeries.of(series, FillPolicy.LINEAR);
+
+        assertEquals(110_000L, daily.fixedPointRate(FRIDAY.plusDays(1)));
+        assertEquals(120_000L, daily.fixedPointRate(FRIDAY.plusDays(2)));
+        assertEquals(1, daily.daysSinceObservation(FRIDAY.plusDays(1)));
+    }
+
+    @Test
+    void daily_WhenCalledTwice_ReturnsSameView() {
+        assertSame(series.daily(FillPolicy.PREVIOUS), series.daily(FillPolicy.PREVIOUS));
+    }
+}
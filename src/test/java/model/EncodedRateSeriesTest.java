@@ -0,0 +1,41 @@
+package model;
+
+import com.opencsv.exceptions.CsvValidationException;
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.data.processor.CurrencyDataProcessor;
+import ru.liga.rateforecaster.model.EncodedRateSeries;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EncodedRateSeriesTest {
+
+    @Test
+    void decode_ReturnsEncodedPoints() throws CsvValidationException, IOException {
+        RateSeries series = new CurrencyDataProcessor("/cvs/AMD.csv").readCurrencyDataFromResources();
+
+        EncodedRateSeries encoded = EncodedRateSeries.encode(series);
+
+        assertEquals(series.toCurrencyDataList(), encoded.decode().toCurrencyDataList());
+        assertEquals(series.lastDate(), encoded.lastDate());
+        assertTrue(encoded.sizeInBytes() < series.sizeInBytes() / 3);
+    }
+
+    @Test
+    void decode_WithWindowAcrossChunks_ReturnsOnlyWindowPoints() {
+        RateSeries.Builder builder = RateSeries.builder();
+        for (int i = 0; i < 3 * EncodedRateSeries.CHUNK_SIZE; i++) {
+            builder.add(19_000 + i + i / 5 * 2, 500_000L + (i % 7 - 3) * 1_234L);
+        }
+        RateSeries series = builder.build();
+        EncodedRateSeries encoded = EncodedRateSeries.encode(series);
+        int from = EncodedRateSeries.CHUNK_SIZE - 10;
+        int to = 2 * EncodedRateSeries.CHUNK_SIZE + 10;
+
+        assertEquals(series.slice(from, to).toCurrencyDataList(), encoded.decode(from, to).toCurrencyDataList());
+        assertEquals(series.latest(5).toCurrencyDataList(), encoded.latest(5).toCurrencyDataList());
+    }
+}
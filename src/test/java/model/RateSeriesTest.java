@@ -0,0 +1,177 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import ru.liga.rateforecaster.model.CurrencyData;
+import ru.liga.rateforecaster.model.DataRequirement;
+import ru.liga.rateforecaster.model.DateRange;
+import ru.liga.rateforecaster.model.RateSeries;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RateSeriesTest {
+
+    private static final LocalDate START = LocalDate.of(2023, 10, 1);
+
+    @Test
+    void build_WithUnorderedPointsAndDuplicateDates_SortsAndKeepsFirstPoint() {
+        RateSeries series = RateSeries.builder()
+                .add(day(2), 30_000)
+                .add(day(0), 10_000)
+                .add(day(2), 99_999)
+                .add(day(1), 20_000)
+                .build();
+
+        assertEquals(3, series.size());
+        assertEquals(START, series.firstDate());
+        assertEquals(START.plusDays(2), series.lastDate());
+        assertEquals(new BigDecimal("3.0000"), series.rate(2));
+    }
+
+    @Test
+    void fromCurrencyData_WithNewestFirstRecords_ReturnsAscendingSeries() {
+        RateSeries series = RateSeries.fromCurrencyData(List.of(
+                new CurrencyData(START.plusDays(1), new BigDecimal("75.12345")),
+                new CurrencyData(START, new BigDecimal("75.1"))));
+
+        assertEquals(new CurrencyData(START, new BigDecimal("75.1000")), series.get(0));
+        assertEquals(751235L, series.fixedPointRate(1));
+        assertEquals(75.1235, series.doubleRate(1));
+    }
+
+    @Test
+    void slice_ReturnsViewSharingTheSeriesData() {
+        RateSeries series = RateSeries.builder()
+                .add(day(0), 10_000)
+                .add(day(1), 20_000)
+                .add(day(2), 30_000)
+                .add(day(3), 40_000)
+                .build();
+
+        RateSeries latest = series.latest(2);
+
+        assertEquals(2, latest.size());
+        assertEquals(START.plusDays(2), latest.firstDate());
+        assertEquals(series.sizeInBytes(), latest.sizeInBytes());
+        assertEquals(List.of(series.get(3), series.get(2)), latest.toCurrencyDataListNewestFirst());
+        assertThrows(IndexOutOfBoundsException.class, () -> latest.epochDay(2));
+    }
+
+    @Test
+    void latest_WithRequirement_ReturnsFewestLatestPointsSatisfyingIt() {
+        RateSeries series = RateSeries.builder()
+                .add(day(0), 10_000)
+                .add(day(1), 20_000)
+                .add(day(3), 40_000)
+                .add(day(4), 50_000)
+                .build();
+
+        assertEquals(day(3), series.latest(DataRequirement.since(START.plusDays(2))).epochDay(0));
+        assertEquals(3, series.latest(DataRequirement.latest(3).and(DataRequirement.since(START.plusDays(4)))).size());
+        assertEquals(4, series.latest(DataRequirement.full()).size());
+    }
+
+    @Test
+    void indexOf_OnView_FindsOnlyDatesInsideTheView() {
+        RateSeries series = RateSeries.builder()
+                .add(day(0), 10_000)
+                .add(day(1), 20_000)
+                .add(day(3), 40_000)
+                .add(day(4), 50_000)
+                .build();
+
+        RateSeries view = series.slice(1, 3);
+
+        assertEquals(2, series.indexOf(START.plusDays(3)));
+        assertEquals(-1, series.indexOf(START.plusDays(2)));
+        assertEquals(1, view.indexOf(START.plusDays(3)));
+        assertEquals(-1, view.indexOf(START));
+        assertEquals(-1, view.indexOf(START.plusDays(4)));
+        assertEquals(-1, series.indexOf(LocalDate.MAX));
+    }
+
+    @Test
+    void floorIndex_ReturnsLatestPointNotAfterDate() {
+        RateSeries series = RateSeries.builder()
+                .add(day(0), 10_000)
+                .add(day(1), 20_000)
+                .add(day(3), 40_000)
+                .add(day(400), 50_000)
+                .build();
+        RateSeries view = series.slice(1, 3);
+
+        assertEquals(1, series.floorIndex(START.plusDays(2)));
+        assertEquals(2, series.floorIndex(START.plusDays(399)));
+        assertEquals(-1, series.floorIndex(START.minusDays(1)));
+        assertEquals(1, view.floorIndex(START.plusDays(500)));
+        assertEquals(-1, view.floorIndex(START));
+        assertEquals(3, series.indexOf(START.plusDays(400)));
+    }
+
+    @Test
+    void floorIndex_OnDenseSeries_MatchesLinearScan() {
+        RateSeries.Builder builder = RateSeries.builder();
+        for (int i = 0; i < 60; i++) {
+            if (i % 7 != 5 && i % 7 != 6) {
+                builder.add(day(i), 10_000L + i);
+            }
+        }
+        RateSeries series = builder.build();
+
+        for (int i = -3; i < 64; i++) {
+            int expected = -1;
+            for (int j = 0; j < series.size() && series.epochDay(j) <= day(i); j++) {
+                expected = j;
+            }
+            assertEquals(expected, series.floorIndex(START.plusDays(i)));
+            assertEquals(expected >= 0 && series.epochDay(expected) == day(i) ? expected : -1,
+                    series.indexOf(START.plusDays(i)));
+        }
+    }
+
+    @Test
+    void between_ReturnsPointsWithinDatesInclusive() {
+        RateSeries series = RateSeries.builder()
+                .add(day(0), 10_000)
+                .add(day(1), 20_000)
+                .add(day(3), 40_000)
+                .add(day(4), 50_000)
+                .build();
+
+        assertEquals(List.of(series.get(1), series.get(2)),
+                series.between(START.plusDays(1), START.plusDays(3)).toCurrencyDataList());
+        assertEquals(0, series.between(START.plusDays(2), START.plusDays(2)).size());
+        assertEquals(0, series.between(START.plusDays(3), START).size());
+    }
+
+    @Test
+    void changedRange_ReturnsRangeOfAddedRemovedAndChangedPoints() {
+        RateSeries series = RateSeries.builder()
+                .add(day(0), 10_000)
+                .add(day(1), 20_000)
+                .add(day(3), 40_000)
+                .add(day(4), 50_000)
+                .build();
+        RateSeries updated = RateSeries.builder()
+                .add(day(0), 10_000)
+                .add(day(2), 30_000)
+                .add(day(3), 45_000)
+                .add(day(4), 50_000)
+                .build();
+
+        assertEquals(new DateRange(START.plusDays(1), START.plusDays(3)), series.changedRange(updated));
+        assertEquals(new DateRange(START.plusDays(5), START.plusDays(5)),
+                series.changedRange(RateSeries.builder().add(day(0), 10_000).add(day(1), 20_000).add(day(3), 40_000)
+                        .add(day(4), 50_000).add(day(5), 60_000).build()));
+        assertNull(series.changedRange(series.slice(0, series.size())));
+    }
+
+    private int day(int offset) {
+        return (int) START.plusDays(offset).toEpochDay();
+    }
+}
@@ -2,11 +2,11 @@ package output;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import ru.liga.rateforecaster.enums.Currency;
 import ru.liga.rateforecaster.enums.OutputType;
 import ru.liga.rateforecaster.enums.RateType;
 import ru.liga.rateforecaster.formatter.model.CurrencyDataForResultOutput;
 import ru.liga.rateforecaster.formatter.outputgenerator.StringOutputGenerator;
+import ru.liga.rateforecaster.model.Currency;
 import ru.liga.rateforecaster.model.CurrencyData;
 import ru.liga.rateforecaster.model.FormattedResult;
 import ru.liga.rateforecaster.model.ParsedRequest;